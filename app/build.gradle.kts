@@ -1,3 +1,6 @@
+import javax.xml.parsers.DocumentBuilderFactory
+import org.w3c.dom.Element
+
 plugins {
     alias(libs.plugins.android.application)
     id("com.google.gms.google-services") version "4.4.4" apply false
@@ -39,6 +42,23 @@ android {
 // Apply plugin
 apply(plugin = "com.google.gms.google-services")
 
+// ============================================================
+// Catalogue strings generated at build time
+// values*/strings_catalogue.xml -> util/CatalogueStrings.java
+// ============================================================
+val generateCatalogueStrings = tasks.register<GenerateCatalogueStringsTask>("generateCatalogueStrings") {
+    catalogueFiles.from(fileTree("src/main/res") { include("values*/strings_catalogue.xml") })
+    outputDir.set(layout.buildDirectory.dir("generated/source/catalogue"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.java?.addGeneratedSourceDirectory(
+            generateCatalogueStrings, GenerateCatalogueStringsTask::outputDir
+        )
+    }
+}
+
 dependencies {
     implementation(libs.appcompat)
     implementation(libs.material)
@@ -53,6 +73,9 @@ dependencies {
     implementation(libs.firebase.storage)
     implementation(libs.firebase.auth)
 
+    // Background image uploads (ImageUploadWorker)
+    implementation(libs.work.runtime)
+
 
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
@@ -65,8 +88,167 @@ dependencies {
 
     implementation (libs.glide)
     annotationProcessor (libs.glide.compiler)
+    implementation (libs.glide.recyclerview) {
+        isTransitive = false  // only RecyclerViewPreloader; glide + recyclerview come from above
+    }
 
 
 
 
-}
\ No newline at end of file
+}
+
+/* ****************************************************************************************
+ * GenerateCatalogueStringsTask
+ * Parses strings_catalogue.xml from every values folder and writes CatalogueStrings.java:
+ *  - KEYS:    resource names (cat_* / svc_*), the array index is the catalogue id
+ *  - VALUES:  [locale][id] display strings (missing translations fall back to English)
+ *  - TABLES:  per locale and kind (category / service), a collision-free hash table
+ *             lowercase display string -> id. The seed is searched here at build time,
+ *             so a lookup at runtime is one hash and one probe.
+ * The slot function must stay identical to Catalogue.slot() in the app sources.
+ ******************************************************************************************/
+abstract class GenerateCatalogueStringsTask : DefaultTask() {
+
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val catalogueFiles: ConfigurableFileCollection
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun generate() {
+        // "values" -> "en", "values-es-rUS" -> "es-US", "values-vi" -> "vi"
+        val byLocale = catalogueFiles.files
+            .associateBy { localeTag(it.parentFile.name) }
+            .toSortedMap(compareBy<String> { it != "en" }.thenBy { it })
+        val english = parse(byLocale.getValue("en"))
+        val keys = english.keys.filter { it.startsWith("cat_") || it.startsWith("svc_") }
+        val locales = byLocale.keys.toList()
+        val values = locales.map { tag ->
+            val strings = parse(byLocale.getValue(tag))
+            keys.map { strings[it] ?: english.getValue(it) }
+        }
+
+        val out = StringBuilder()
+        out.append("package edu.sjsu.android.servicesfinder.util;\n\n")
+        out.append("// GENERATED by the generateCatalogueStrings Gradle task from values*/strings_catalogue.xml.\n")
+        out.append("// Do not edit - change the XML files instead.\n")
+        out.append("final class CatalogueStrings {\n\n")
+        out.append("    private CatalogueStrings() {}\n\n")
+        out.append("    static final String[] LOCALES = ${javaArray(locales)};\n\n")
+        out.append("    static final String[] KEYS = ${javaArray(keys)};\n\n")
+        out.append("    static final String[][] VALUES = {\n")
+        values.forEach { out.append("        ${javaArray(it)},\n") }
+        out.append("    };\n\n")
+
+        val seeds = mutableListOf<String>()
+        val bits = mutableListOf<String>()
+        val tables = mutableListOf<String>()
+        values.forEach { localized ->
+            val kindSeeds = mutableListOf<Int>()
+            val kindBits = mutableListOf<Int>()
+            val kindTables = mutableListOf<String>()
+            for (prefix in listOf("cat_", "svc_")) {
+                val entries = LinkedHashMap<String, Int>()
+                keys.forEachIndexed { id, key ->
+                    if (key.startsWith(prefix)) entries.putIfAbsent(localized[id].trim().lowercase(), id)
+                }
+                val (seed, size, table) = perfectHash(entries)
+                kindSeeds += seed
+                kindBits += size
+                kindTables += table.joinToString(", ", "{", "}")
+            }
+            seeds += kindSeeds.joinToString(", ", "{", "}")
+            bits += kindBits.joinToString(", ", "{", "}")
+            tables += kindTables.joinToString(", ", "{", "}")
+        }
+        out.append("    // [locale][kind]  kind 0 = category, 1 = service\n")
+        out.append("    static final int[][] SEEDS = {${seeds.joinToString(", ")}};\n")
+        out.append("    static final int[][] BITS = {${bits.joinToString(", ")}};\n")
+        out.append("    static final int[][][] TABLES = {\n")
+        tables.forEach { out.append("        $it,\n") }
+        out.append("    };\n")
+        out.append("}\n")
+
+        val file = outputDir.get().file("edu/sjsu/android/servicesfinder/util/CatalogueStrings.java").asFile
+        file.parentFile.mkdirs()
+        file.writeText(out.toString())
+    }
+
+    private fun localeTag(dirName: String): String {
+        val parts = dirName.split("-")
+        if (parts.size < 2) return "en"
+        return if (parts.size > 2 && parts[2].startsWith("r")) "${parts[1]}-${parts[2].substring(1)}" else parts[1]
+    }
+
+    private fun parse(file: File): Map<String, String> {
+        val doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file)
+        val nodes = doc.getElementsByTagName("string")
+        val result = LinkedHashMap<String, String>()
+        for (i in 0 until nodes.length) {
+            val element = nodes.item(i) as Element
+            result[element.getAttribute("name")] = unescape(element.textContent)
+        }
+        return result
+    }
+
+    // Android string escapes: surrounding quotes, \' \" \n \t \\ \@ \?
+    private fun unescape(raw: String): String {
+        var text = raw.trim()
+        if (text.length >= 2 && text.startsWith("\"") && text.endsWith("\"")) text = text.substring(1, text.length - 1)
+        val sb = StringBuilder()
+        var i = 0
+        while (i < text.length) {
+            val c = text[i]
+            if (c == '\\' && i + 1 < text.length) {
+                val next = text[i + 1]
+                sb.append(when (next) { 'n' -> '\n'; 't' -> '\t'; else -> next })
+                i += 2
+            } else {
+                sb.append(c)
+                i++
+            }
+        }
+        return sb.toString()
+    }
+
+    // Smallest power-of-two table (at least 2x entries) and first seed with no collisions
+    private fun perfectHash(entries: Map<String, Int>): Triple<Int, Int, IntArray> {
+        var bits = 1
+        while ((1 shl bits) < entries.size * 2) bits++
+        while (true) {
+            for (seed in 1..100_000) {
+                val table = IntArray(1 shl bits) { -1 }
+                val ok = entries.all { (text, id) ->
+                    val slot = slot(text.hashCode(), seed, bits)
+                    if (table[slot] != -1) false else { table[slot] = id; true }
+                }
+                if (ok) return Triple(seed, bits, table)
+            }
+            bits++
+        }
+    }
+
+    // Same as Catalogue.slot(): ((hash ^ seed) * 0x9E3779B9) >>> (32 - bits)
+    private fun slot(hash: Int, seed: Int, bits: Int): Int = ((hash xor seed) * -0x61c88647) ushr (32 - bits)
+
+    private fun javaArray(items: List<String>): String =
+        items.joinToString(", ", "{", "}") { javaString(it) }
+
+    // ASCII-only literal so the generated file does not depend on the compiler encoding
+    private fun javaString(value: String): String {
+        val sb = StringBuilder("\"")
+        for (c in value) {
+            when {
+                c == '"' -> sb.append("\\\"")
+                c == '\\' -> sb.append("\\\\")
+                c == '\n' -> sb.append("\\n")
+                c == '\t' -> sb.append("\\t")
+                c.code < 0x20 || c.code > 0x7e -> sb.append(String.format("\\u%04x", c.code))
+                else -> sb.append(c)
+            }
+        }
+        return sb.append('"').toString()
+    }
+}
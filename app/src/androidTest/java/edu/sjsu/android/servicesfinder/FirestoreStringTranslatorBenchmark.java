@@ -0,0 +1,134 @@
+package edu.sjsu.android.servicesfinder;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import edu.sjsu.android.servicesfinder.controller.FirestoreStringTranslator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Feed-translation timing: the old per-call reflection scan over R.string
+ * versus the generated catalogue lookups now used by FirestoreStringTranslator.
+ * Only the results are asserted; run with ./gradlew connectedAndroidTest and read the
+ * timings under the "TranslatorBenchmark" log tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FirestoreStringTranslatorBenchmark {
+
+    private static final String TAG = "TranslatorBenchmark";
+    private static final int FEED_SIZE = 100;   // services in a typical home feed
+
+    private Context context;
+    private final List<String> feed = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+        // Same shape as the stored category field: "Category: Service, Service | Category"
+        String[] samples = {
+                englishString(R.string.cat_cleaning_maintenance) + ": "
+                        + englishString(R.string.svc_house_cleaning) + ", "
+                        + englishString(R.string.svc_pool_cleaning),
+                englishString(R.string.cat_tech_digital_services) + ": "
+                        + englishString(R.string.svc_computer_repair)
+                        + " | " + englishString(R.string.cat_automotive_services),
+        };
+        for (int i = 0; i < FEED_SIZE; i++) {
+            feed.add(samples[i % samples.length]);
+        }
+    }
+
+    @Test
+    public void feedTranslation_tablesMatchReflection() {
+        FirestoreStringTranslator translator = FirestoreStringTranslator.get(context);
+
+        // Warm-up (class loading)
+        translator.translateCategory(feed.get(0));
+
+        long start = System.nanoTime();
+        List<String> legacy = new ArrayList<>();
+        for (String category : feed) {
+            legacy.add(legacyTranslateCategory(category));
+        }
+        long legacyNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<String> tables = new ArrayList<>();
+        for (String category : feed) {
+            tables.add(translator.translateCategory(category));
+        }
+        long tableNanos = System.nanoTime() - start;
+
+        Log.i(TAG, String.format(Locale.US,
+                "%d services: reflection %.2f ms, tables %.2f ms",
+                FEED_SIZE, legacyNanos / 1e6, tableNanos / 1e6));
+
+        // Timings are reported, not asserted: wall-clock on a shared or throttled
+        // device is too noisy to fail the build on
+        assertEquals(legacy, tables);
+    }
+
+    // ----------------------------------------------------------------------
+    // Previous implementation, kept here only as the baseline
+    // ----------------------------------------------------------------------
+    private String legacyTranslateCategory(String categoryField) {
+        List<String> translatedParts = new ArrayList<>();
+        for (String part : categoryField.split("\\|")) {
+            part = part.trim();
+            if (!part.contains(":")) {
+                translatedParts.add(legacyScan(part, "cat_"));
+                continue;
+            }
+            String[] split = part.split(":", 2);
+            List<String> services = new ArrayList<>();
+            for (String svc : split[1].split(",")) {
+                services.add(legacyScan(svc.trim(), ""));
+            }
+            translatedParts.add(legacyScan(split[0].trim(), "cat_") + ": " + String.join(", ", services));
+        }
+        return String.join(" | ", translatedParts);
+    }
+
+    private String legacyScan(String english, String prefix) {
+        Resources localRes = context.getResources();
+        Resources enRes = englishResources();
+        try {
+            for (Field field : R.string.class.getDeclaredFields()) {
+                int resId = field.getInt(null);
+                if (!localRes.getResourceEntryName(resId).startsWith(prefix)) continue;
+                if (enRes.getString(resId).equalsIgnoreCase(english)) {
+                    return localRes.getString(resId);
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+        return english.substring(0, 1).toUpperCase() + english.substring(1).toLowerCase();
+    }
+
+    private Resources englishResources() {
+        Configuration enConfig = new Configuration(context.getResources().getConfiguration());
+        enConfig.setLocale(Locale.ENGLISH);
+        return context.createConfigurationContext(enConfig).getResources();
+    }
+
+    private String englishString(int resId) {
+        return englishResources().getString(resId);
+    }
+}
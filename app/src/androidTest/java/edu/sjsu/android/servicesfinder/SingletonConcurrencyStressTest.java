@@ -0,0 +1,108 @@
+package edu.sjsu.android.servicesfinder;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import edu.sjsu.android.servicesfinder.controller.FirestoreStringTranslator;
+import edu.sjsu.android.servicesfinder.database.FirestoreHelper;
+import edu.sjsu.android.servicesfinder.database.StorageHelper;
+import edu.sjsu.android.servicesfinder.model.CategorySelection;
+import edu.sjsu.android.servicesfinder.util.Catalogue;
+
+import static org.junit.Assert.*;
+
+/**
+ * Hammers the shared singletons from many threads at once, the way background
+ * parsing / indexing executors use them. Every thread must see the same instances
+ * and the same display strings a single-threaded lookup produces.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SingletonConcurrencyStressTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 2_000;
+
+    private static final String CATEGORY =
+            "cat.cleaning_maintenance: svc.house_cleaning, svc.pool_cleaning | cat.automotive_services";
+    private static final String AVAILABILITY = "Mon, Wed, Fri";
+
+    @Test
+    public void singletonsAndTranslations_areConsistentAcrossThreads() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+        // Expected values straight from the catalogue tables, one per locale
+        String[] expectedCategory = new String[Catalogue.localeCount()];
+        for (int locale = 0; locale < expectedCategory.length; locale++) {
+            expectedCategory[locale] = expectedCategoryText(locale);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object[]>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            results.add(pool.submit(() -> {
+                start.await();   // release every thread together to maximize contention
+                FirestoreStringTranslator translator = null;
+                String[] availability = new String[Catalogue.localeCount()];
+
+                for (int i = 0; i < ITERATIONS; i++) {
+                    int locale = i % Catalogue.localeCount();
+
+                    FirestoreStringTranslator current = FirestoreStringTranslator.get(context);
+                    if (translator == null) translator = current;
+                    assertSame(translator, current);
+
+                    assertEquals(expectedCategory[locale], translator.translateCategory(CATEGORY, locale));
+
+                    String days = translator.formatAvailabilityForDisplay(AVAILABILITY, locale);
+                    if (availability[locale] == null) availability[locale] = days;
+                    assertEquals(availability[locale], days);
+
+                    assertTrue(CategorySelection.parse(CATEGORY).hasServicesIn("cat.cleaning_maintenance"));
+                }
+
+                return new Object[] {
+                        translator, FirestoreHelper.getInstance(), StorageHelper.storageRef(), availability
+                };
+            }));
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        Object[] first = results.get(0).get();
+        for (Future<Object[]> future : results) {
+            Object[] result = future.get();   // rethrows any assertion failure from the thread
+            assertSame(first[0], result[0]);
+            assertSame(first[1], result[1]);
+            assertSame(first[2], result[2]);
+            assertArrayEquals((String[]) first[3], (String[]) result[3]);
+        }
+    }
+
+    private static String expectedCategoryText(int locale) {
+        return name("cat.cleaning_maintenance", Catalogue.KIND_CATEGORY, locale) + ": "
+                + name("svc.house_cleaning", Catalogue.KIND_SERVICE, locale) + ", "
+                + name("svc.pool_cleaning", Catalogue.KIND_SERVICE, locale) + " | "
+                + name("cat.automotive_services", Catalogue.KIND_CATEGORY, locale);
+    }
+
+    private static String name(String stableId, int kind, int locale) {
+        return Catalogue.displayName(Catalogue.resolve(kind, stableId), locale);
+    }
+}
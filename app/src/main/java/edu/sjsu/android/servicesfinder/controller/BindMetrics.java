@@ -0,0 +1,74 @@
+package edu.sjsu.android.servicesfinder.controller;
+
+import android.util.Log;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* ****************************************************************************************
+ * BindMetrics - counters for async work started by view holder binds
+ *
+ *   started   : async loads a bind kicked off
+ *   delivered : answers that reached the holder they were meant for
+ *   cancelled : answers after the holder was rebound or recycled (cancelAsyncWork)
+ *   stale     : answers whose holder was collected or shows another generation
+ * A high cancelled/stale share means cards are recycled faster than queries answer.
+ * Logged under TAG every LOG_EVERY deliveries.
+ ******************************************************************************************/
+public final class BindMetrics {
+
+    private static final String TAG = "BindMetrics";
+    private static final long LOG_EVERY = 100;
+
+    private static final AtomicLong STARTED = new AtomicLong();
+    private static final AtomicLong DELIVERED = new AtomicLong();
+    private static final AtomicLong CANCELLED = new AtomicLong();
+    private static final AtomicLong STALE = new AtomicLong();
+
+    private BindMetrics() {}
+
+    static void onStarted() {
+        STARTED.incrementAndGet();
+    }
+
+    static void onDelivered() {
+        DELIVERED.incrementAndGet();
+        maybeLog();
+    }
+
+    static void onCancelledDelivery() {
+        CANCELLED.incrementAndGet();
+        maybeLog();
+    }
+
+    static void onStaleDelivery() {
+        STALE.incrementAndGet();
+        maybeLog();
+    }
+
+    public static long started() {
+        return STARTED.get();
+    }
+
+    public static long delivered() {
+        return DELIVERED.get();
+    }
+
+    public static long cancelled() {
+        return CANCELLED.get();
+    }
+
+    public static long stale() {
+        return STALE.get();
+    }
+
+    public static String summary() {
+        return String.format(Locale.US, "started=%d delivered=%d cancelled=%d stale=%d",
+                started(), delivered(), cancelled(), stale());
+    }
+
+    private static void maybeLog() {
+        long answered = DELIVERED.get() + CANCELLED.get() + STALE.get();
+        if (answered % LOG_EVERY == 0) Log.d(TAG, summary());
+    }
+}
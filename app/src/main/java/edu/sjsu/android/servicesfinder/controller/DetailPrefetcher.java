@@ -0,0 +1,325 @@
+package edu.sjsu.android.servicesfinder.controller;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.sjsu.android.servicesfinder.database.CustomerDatabase;
+import edu.sjsu.android.servicesfinder.database.ReviewDatabase;
+import edu.sjsu.android.servicesfinder.database.ServiceRepository;
+import edu.sjsu.android.servicesfinder.model.Customer;
+import edu.sjsu.android.servicesfinder.model.Review;
+import edu.sjsu.android.servicesfinder.util.NetworkHelper;
+
+/* ****************************************************************************************
+ * DetailPrefetcher - loads what ServiceDetailActivity needs before it is opened
+ *
+ * A detail screen starts with the first review page, the rating and the favorite status.
+ * Cards ask for them ahead of time:
+ *   PRIORITY_LOW : card has been fully visible with the list at rest (queued)
+ *   PRIORITY_HIGH: finger resting on a card, a tap is likely (starts now, jumps the queue)
+ * Results sit in a small LruCache; ServiceDetailActivity.take()s them, or joins a load
+ * still in flight, and only falls back to its own queries when there is nothing.
+ *
+ * Both priorities share a per-minute budget (fewer on metered networks, none with Data
+ * Saver); past it, a high-priority request is dropped and the detail screen loads its own
+ * data. At most MAX_LOW_IN_FLIGHT low-priority loads run at a time. Favorites come from ServiceRepository and
+ * are read again once stale. Main thread only.
+ ******************************************************************************************/
+public final class DetailPrefetcher {
+
+    public static final int PRIORITY_LOW = 0;
+    public static final int PRIORITY_HIGH = 1;
+
+    // Prefetched data older than this is dropped instead of shown
+    private static final long FRESH_MS = 60 * 1000L;
+    private static final int MAX_CACHED = 30;
+    private static final int MAX_LOW_IN_FLIGHT = 2;
+
+    // Loads allowed per BUDGET_WINDOW_MS, both priorities (a load is 2-4 reads)
+    private static final long BUDGET_WINDOW_MS = 60 * 1000L;
+    private static final int BUDGET_UNMETERED = 20;
+    private static final int BUDGET_METERED = 4;
+
+    private static final DetailPrefetcher INSTANCE = new DetailPrefetcher();
+
+    private final ReviewDatabase reviewDatabase = new ReviewDatabase();
+    private final LruCache<String, DetailData> cache = new LruCache<>(MAX_CACHED);
+    private final Map<String, Job> inFlight = new HashMap<>();
+    private final ArrayDeque<Job> lowQueue = new ArrayDeque<>();
+    private final ArrayDeque<Long> starts = new ArrayDeque<>();   // start times inside the window
+    private int lowInFlight = 0;
+    private boolean loadingFavorites = false;
+    private Context appContext;   // for the budget check when a load ends
+
+    private DetailPrefetcher() {}
+
+    public static DetailPrefetcher getInstance() {
+        return INSTANCE;
+    }
+
+    // =========================================================
+    // PREFETCHED DATA
+    // =========================================================
+    public static final class DetailData {
+        // First review page (reviewsLoaded = false if that query failed)
+        public boolean reviewsLoaded;
+        public List<Review> reviews = new ArrayList<>();
+        public DocumentSnapshot lastVisible;
+        public boolean hasMore;
+
+        // Rating shown in the header (ratingLoaded = false if that query failed)
+        public boolean ratingLoaded;
+        public float averageRating;
+        public int totalReviews;
+
+        long loadedAt;
+    }
+
+    public interface OnDetailDataListener {
+        void onDetailData(DetailData data);
+    }
+
+    private static final class Job {
+        final String providerId;
+        final String serviceId;
+        final String key;
+        final DetailData data = new DetailData();
+        final List<OnDetailDataListener> listeners = new ArrayList<>();
+        boolean lowPriority;
+        int pending = 2;   // reviews + rating
+
+        Job(String providerId, String serviceId, String key) {
+            this.providerId = providerId;
+            this.serviceId = serviceId;
+            this.key = key;
+        }
+    }
+
+    // =========================================================
+    // REQUEST A PREFETCH
+    // =========================================================
+    public void prefetch(Context context, String providerId, String serviceId, int priority) {
+        if (providerId == null) return;
+        appContext = context.getApplicationContext();
+        prefetchFavorites(appContext);
+
+        String key = key(providerId, serviceId);
+        if (fresh(key) != null || inFlight.containsKey(key)) return;
+
+        Job queued = findQueued(key);
+        if (priority == PRIORITY_HIGH) {
+            if (!withinBudget(context)) return;
+            if (queued != null) lowQueue.remove(queued);
+            starts.addLast(SystemClock.elapsedRealtime());
+            start(queued != null ? queued : new Job(providerId, serviceId, key), false);
+            return;
+        }
+
+        if (queued != null) {
+            // Seen again: move to the front of the queue
+            lowQueue.remove(queued);
+            lowQueue.addFirst(queued);
+        } else {
+            lowQueue.addFirst(new Job(providerId, serviceId, key));
+            while (lowQueue.size() > MAX_CACHED) lowQueue.removeLast();
+        }
+        drainLowQueue(context);
+    }
+
+    // Cards scrolled away: queued low-priority loads are no longer worth it
+    public void cancelQueued() {
+        lowQueue.clear();
+    }
+
+    // =========================================================
+    // CONSUME (ServiceDetailActivity)
+    // Delivers cached data now or when the running load ends; false if there is none.
+    // Taken data is removed, so a later reload always queries again.
+    // =========================================================
+    public boolean take(String providerId, String serviceId, OnDetailDataListener listener) {
+        if (providerId == null) return false;
+        String key = key(providerId, serviceId);
+
+        DetailData data = fresh(key);
+        if (data != null) {
+            cache.remove(key);
+            listener.onDetailData(data);
+            return true;
+        }
+
+        Job job = inFlight.get(key);
+        if (job == null) return false;
+        job.listeners.add(listener);
+        return true;
+    }
+
+    // =========================================================
+    // SCHEDULING
+    // =========================================================
+    private void drainLowQueue(Context context) {
+        while (!lowQueue.isEmpty() && lowInFlight < MAX_LOW_IN_FLIGHT && withinBudget(context)) {
+            starts.addLast(SystemClock.elapsedRealtime());
+            start(lowQueue.pollFirst(), true);
+        }
+    }
+
+    private boolean withinBudget(Context context) {
+        if (NetworkHelper.isDataSaverOn(context)) return false;
+
+        long now = SystemClock.elapsedRealtime();
+        while (!starts.isEmpty() && now - starts.peekFirst() > BUDGET_WINDOW_MS) {
+            starts.pollFirst();
+        }
+        int budget = NetworkHelper.isMetered(context) ? BUDGET_METERED : BUDGET_UNMETERED;
+        return starts.size() < budget;
+    }
+
+    private void start(Job job, boolean lowPriority) {
+        job.lowPriority = lowPriority;
+        if (lowPriority) lowInFlight++;
+        inFlight.put(job.key, job);
+        loadReviews(job);
+        loadRating(job);
+    }
+
+    private void finishPart(Job job) {
+        if (--job.pending > 0) return;
+
+        inFlight.remove(job.key);
+        if (job.lowPriority) {
+            lowInFlight--;
+            drainLowQueue(appContext);
+        }
+        job.data.loadedAt = SystemClock.elapsedRealtime();
+
+        if (job.listeners.isEmpty()) {
+            cache.put(job.key, job.data);
+        } else {
+            for (OnDetailDataListener listener : job.listeners) listener.onDetailData(job.data);
+        }
+    }
+
+    // =========================================================
+    // LOADS (same queries as ServiceDetailActivity)
+    // =========================================================
+    private void loadReviews(Job job) {
+        ReviewDatabase.OnReviewsPageLoadedListener pageListener = new ReviewDatabase.OnReviewsPageLoadedListener() {
+            @Override
+            public void onPageLoaded(List<Review> reviews, DocumentSnapshot lastVisible, boolean hasMore) {
+                job.data.reviewsLoaded = true;
+                job.data.reviews = reviews;
+                job.data.lastVisible = lastVisible;
+                job.data.hasMore = hasMore;
+                finishPart(job);
+            }
+
+            @Override
+            public void onError(String error) {
+                finishPart(job);
+            }
+        };
+
+        if (job.serviceId != null) {
+            reviewDatabase.getReviewsPageForService(job.providerId, job.serviceId, null,
+                    ReviewDatabase.REVIEW_PAGE_SIZE, pageListener);
+        } else {
+            reviewDatabase.getReviewsPageForProvider(job.providerId, null, ReviewDatabase.REVIEW_PAGE_SIZE, pageListener);
+        }
+    }
+
+    private void loadRating(Job job) {
+        if (job.serviceId == null) {
+            loadProviderRating(job);
+            return;
+        }
+        reviewDatabase.getServiceRatingStats(job.providerId, job.serviceId, new ReviewDatabase.OnServiceRatingLoadedListener() {
+            @Override
+            public void onRatingLoaded(ReviewDatabase.RatingStats stats) {
+                setRating(job, (float) stats.getAverage(), (int) stats.getCount());
+            }
+
+            @Override
+            public void onError(String error) {
+                finishPart(job);
+            }
+        });
+    }
+
+    private void loadProviderRating(Job job) {
+        reviewDatabase.getAverageRating(job.providerId, new ReviewDatabase.OnRatingCalculatedListener() {
+            @Override
+            public void onRatingCalculated(float averageRating, int totalReviews) {
+                setRating(job, averageRating, totalReviews);
+            }
+
+            @Override
+            public void onError(String error) {
+                finishPart(job);
+            }
+        });
+    }
+
+    private void setRating(Job job, float averageRating, int totalReviews) {
+        job.data.ratingLoaded = true;
+        job.data.averageRating = averageRating;
+        job.data.totalReviews = totalReviews;
+        finishPart(job);
+    }
+
+    // Favorite ids of the signed-in customer, read into ServiceRepository when missing or stale
+    private void prefetchFavorites(Context context) {
+        String customerId = SessionManager.getCustomerId(context);
+        if (customerId == null || loadingFavorites
+                || !ServiceRepository.getInstance().favoritesStale(customerId)) {
+            return;
+        }
+
+        loadingFavorites = true;
+        new CustomerDatabase(context).getCustomerById(customerId,
+                new CustomerDatabase.OnCustomerLoadedListener() {
+                    @Override
+                    public void onSuccess(Customer customer) {
+                        loadingFavorites = false;
+                        ServiceRepository.getInstance().setFavorites(customerId, customer.getFavoriteProviders());
+                    }
+
+                    @Override
+                    public void onError(String errorMessage) {
+                        loadingFavorites = false;
+                    }
+                });
+    }
+
+    // =========================================================
+    // HELPER METHODS
+    // =========================================================
+    private DetailData fresh(String key) {
+        DetailData data = cache.get(key);
+        if (data == null) return null;
+        if (SystemClock.elapsedRealtime() - data.loadedAt > FRESH_MS) {
+            cache.remove(key);
+            return null;
+        }
+        return data;
+    }
+
+    private Job findQueued(String key) {
+        for (Job job : lowQueue) {
+            if (job.key.equals(key)) return job;
+        }
+        return null;
+    }
+
+    private static String key(String providerId, String serviceId) {
+        return providerId + '/' + serviceId;
+    }
+}
@@ -3,18 +3,20 @@ package edu.sjsu.android.servicesfinder.controller;
 import android.content.Context;
 import android.content.res.Configuration;
 import android.content.res.Resources;
-import android.util.Log;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
 
 import edu.sjsu.android.servicesfinder.R;
+import edu.sjsu.android.servicesfinder.model.CategorySelection;
+import edu.sjsu.android.servicesfinder.util.Catalogue;
 /* Method in this class
 A. For cat/services
     String process:
@@ -37,9 +39,11 @@ A. For cat/services
     - getLocalizedCategoryMap(Map<String, Set<String>> englishMap): convert category map from EN → localized.
 
     In saving:
-    1. buildEnglishCategoryString(Map<String, Set<String>> englishSelectionMap): bBuilds the Firestore-saved English service string when saving selections.
-    2. reverseTranslateSelection(Map<String, Set<String>> localizedMap): Converts localized category/service back into English before saving.
-    3. reverseCategoryName(String localizedName): Turns localized category name back to English.
+    1. buildStoredCategoryString(Map<String, Set<String>> idSelectionMap): Builds the Firestore-saved id string ("cat.x: svc.y, svc.z | ...") when saving selections.
+    2. reverseTranslateSelection(Map<String, Set<String>> localizedMap): Converts localized category/service into stable catalogue ids before saving.
+    3. reverseCategoryName(String localizedName): Turns localized category name into its catalogue id.
+
+    Loading accepts both stable ids ("cat.hair_care") and legacy English names ("Hair Care").
 
 B. For Availability
     formatAvailabilityForDisplay(String englishAvailability): Formats availability day strings (EN → local).
@@ -52,165 +56,127 @@ C. Contact
 public class FirestoreStringTranslator {
     // ----------------------------------------------------------------------
     // INSTANCE
+    // Safely published (volatile + double-checked) so background executors can
+    // share it. All fields are final; the memo tables synchronize internally.
     // ----------------------------------------------------------------------
-    private static FirestoreStringTranslator INSTANCE;
+    private static volatile FirestoreStringTranslator INSTANCE;
     private final Context context;
 
+    // Display strings memoized per locale (index = Catalogue locale). Models keep the
+    // stored ids; switching language just reads another table, nothing is invalidated.
+    private static final int DISPLAY_MEMO_SIZE = 512;
+    private final List<Map<String, String>> categoryDisplay = newLocaleMemo();
+    private final List<Map<String, String>> availabilityDisplay = newLocaleMemo();
+
+    // Day abbreviations per locale, read once from a locale-pinned Resources
+    // (never from the main-thread configuration, which changes on a language switch)
+    private static final int[] DAY_RES = {
+            R.string.mon, R.string.tue, R.string.wed, R.string.thu,
+            R.string.fri, R.string.sat, R.string.sun
+    };
+    private static final String[] DAY_KEYS = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    private final AtomicReferenceArray<String[]> dayNames =
+            new AtomicReferenceArray<>(Catalogue.localeCount());
+
+    // Resources pinned to each catalogue locale, created on first use
+    private final AtomicReferenceArray<Resources> pinnedResources =
+            new AtomicReferenceArray<>(Catalogue.localeCount());
+
     private FirestoreStringTranslator(Context context) {
         this.context = context.getApplicationContext();
-
-        // Log current device locale at startup
-        Resources res = context.getResources();
-        String currentLocale = res.getConfiguration().locale.toString();
     }
 
     public static FirestoreStringTranslator get(Context context) {
-        if (INSTANCE == null) {
-            INSTANCE = new FirestoreStringTranslator(context);
+        FirestoreStringTranslator instance = INSTANCE;
+        if (instance == null) {
+            synchronized (FirestoreStringTranslator.class) {
+                instance = INSTANCE;
+                if (instance == null) {
+                    instance = new FirestoreStringTranslator(context);
+                    INSTANCE = instance;
+                }
+            }
         }
-        return INSTANCE;
+        return instance;
     }
 
-    // Helper: Get fresh Resources with current device locale
+    // Helper: Get fresh Resources with current device locale (main thread only)
     private Resources getLocalResources() {
         Resources localRes = context.getResources();
         return localRes;
     }
 
-    // Helper: Get fresh Resources with English locale
-    private Resources getEnglishResources() {
-        Configuration enConfig = new Configuration(context.getResources().getConfiguration());
-        enConfig.setLocale(Locale.ENGLISH);
-
-        // Use createConfigurationContext to get isolated Resources
-        Context enContext = context.createConfigurationContext(enConfig);
-        Resources enRes = enContext.getResources();
-
-        // Test by loading a known resource
-        try {
-            String testCat = enRes.getString(R.string.cat_cleaning_maintenance);
-        } catch (Exception e) {
-            Log.e("TRACE_TRANSLATOR", "    [DEBUG] Failed to load test resource!", e);
-        }
-
-        return enRes;
-    }
-
     // ----------------------------------------------------------------------
     // FORWARD TRANSLATION (EN → localized)
+    // The overloads taking a localeIndex (see Catalogue.currentLocale()) never
+    // touch the app configuration and are safe on any thread.
     // ----------------------------------------------------------------------
 
     public String translateCategory(String categoryField) {
-        if (categoryField == null || categoryField.trim().isEmpty()) return "";
-
-        if (categoryField.contains(":")) {
-            return translateLegacyFormat(categoryField);
-        }
-        return translateCategoryName(categoryField);
+        return translateCategory(categoryField, Catalogue.currentLocale());
     }
 
-    private String translateLegacyFormat(String legacy) {
-        String[] parts = legacy.split("\\|");
-        List<String> translatedParts = new ArrayList<>();
+    public String translateCategory(String categoryField, int localeIndex) {
+        if (categoryField == null || categoryField.trim().isEmpty()) return "";
 
-        for (String part : parts) {
-            translatedParts.add(translateLegacyPart(part.trim()));
-        }
-        return String.join(" | ", translatedParts);
+        return memoized(categoryDisplay, localeIndex, categoryField, field -> {
+            if (field.contains(":") || field.contains("|")) {
+                return translateLegacyFormat(field, localeIndex);
+            }
+            return categoryName(field, localeIndex);
+        });
     }
 
-    private String translateLegacyPart(String part) {
-        if (!part.contains(":")) {
-            return translateCategoryName(part);
-        }
+    private String translateLegacyFormat(String legacy, int localeIndex) {
+        List<String> translatedParts = new ArrayList<>();
 
-        String[] split = part.split(":", 2);
-        String cat = translateCategoryName(split[0].trim());
-        String[] services = split[1].split(",");
+        for (CategorySelection.Entry entry : CategorySelection.parse(legacy).getEntries()) {
+            String cat = categoryName(entry.getCategory(), localeIndex);
+            if (!entry.hasServices()) {
+                translatedParts.add(cat);
+                continue;
+            }
 
-        List<String> localizedServices = new ArrayList<>();
-        for (String svc : services) {
-            localizedServices.add(translateServiceNameToLocal(svc.trim()));
+            List<String> localizedServices = new ArrayList<>();
+            for (String svc : entry.getServices()) {
+                localizedServices.add(serviceName(svc, localeIndex));
+            }
+            translatedParts.add(cat + ": " + String.join(", ", localizedServices));
         }
-
-        return cat + ": " + String.join(", ", localizedServices);
+        return String.join(" | ", translatedParts);
     }
 
     // ----------------------------------------------------------------------
-    // CATEGORY TRANSLATION (EN → localized)
+    // CATEGORY TRANSLATION (stable id or legacy EN → localized)
     // ----------------------------------------------------------------------
     public String translateCategoryName(String english) {
-        if (english == null || english.trim().isEmpty()) return "";
-        try {
-            Resources localRes = getLocalResources();
-            Resources enRes = getEnglishResources();
-
-            Field[] fields = R.string.class.getDeclaredFields();
-            int matchAttempts = 0;
-
-            for (Field field : fields) {
-                int resId = field.getInt(null);
-
-                String resourceName = localRes.getResourceEntryName(resId);
-                if (!resourceName.startsWith("cat_")) continue;
-
-                String englishValue = enRes.getString(resId);
-
-                matchAttempts++;
-                if (matchAttempts <= 3) {
-                    Log.e("TRACE_TRANSLATOR", "    ↳ Comparing with resource: \"" + englishValue + "\" [" + resourceName + "]");
-                }
+        return categoryName(english, Catalogue.currentLocale());
+    }
 
-                if (englishValue.equalsIgnoreCase(english)) {
-                    String localized = localRes.getString(resId);
-                    return localized;
-                }
-            }
-        } catch (Exception e) {
-            Log.e("Translator", "translateCategoryName error", e);
-        }
+    private static String categoryName(String english, int localeIndex) {
+        if (english == null || english.trim().isEmpty()) return "";
 
-        String fallback = capitalize(english);
-        return fallback;
+        int id = Catalogue.resolve(Catalogue.KIND_CATEGORY, english);
+        return id >= 0 ? Catalogue.displayName(id, localeIndex) : capitalize(english);
     }
 
     // ----------------------------------------------------------------------
-    // SERVICE TRANSLATION (EN → localized)
+    // SERVICE TRANSLATION (stable id or legacy EN → localized)
     // ----------------------------------------------------------------------
     public String translateServiceNameToLocal(String englishKey) {
-        if (englishKey == null || englishKey.trim().isEmpty()) return "";
-       try {
-            Resources localRes = getLocalResources();
-            Resources enRes = getEnglishResources();
-
-            Field[] fields = R.string.class.getDeclaredFields();
-            int matchAttempts = 0;
-
-            for (Field field : fields) {
-                int resId = field.getInt(null);
-
-                String enValue = enRes.getString(resId);
-                String resourceName = localRes.getResourceEntryName(resId);
-
-                matchAttempts++;
-                if (matchAttempts <= 3 && resourceName.startsWith("svc_")) {
-                    Log.e("TRACE_TRANSLATOR", "    ↳ Comparing with resource: \"" + enValue + "\" [" + resourceName + "]");
-                }
+        return serviceName(englishKey, Catalogue.currentLocale());
+    }
 
-                if (enValue.equalsIgnoreCase(englishKey)) {
-                    String localized = localRes.getString(resId);
-                    return localized;
-                }
-            }
-        } catch (Exception e) {
-            Log.e("Translator", "Reflection error", e);
-        }
+    private static String serviceName(String englishKey, int localeIndex) {
+        if (englishKey == null || englishKey.trim().isEmpty()) return "";
 
-        String fallback = capitalize(englishKey);
-        return fallback;
+        // Category names used as service names still translate (services win)
+        int id = Catalogue.resolve(Catalogue.KIND_SERVICE, englishKey);
+        if (id < 0) id = Catalogue.resolve(Catalogue.KIND_CATEGORY, englishKey);
+        return id >= 0 ? Catalogue.displayName(id, localeIndex) : capitalize(englishKey);
     }
 
-    private String capitalize(String s) {
+    private static String capitalize(String s) {
         if (s == null || s.isEmpty()) return s;
         return s.substring(0, 1).toUpperCase() + s.substring(1).toLowerCase();
     }
@@ -219,43 +185,71 @@ public class FirestoreStringTranslator {
     // AVAILABILITY TRANSLATION
     // ----------------------------------------------------------------------
     public String formatAvailabilityForDisplay(String englishAvailability) {
+        return formatAvailabilityForDisplay(englishAvailability, Catalogue.currentLocale());
+    }
+
+    public String formatAvailabilityForDisplay(String englishAvailability, int localeIndex) {
         if (englishAvailability == null || englishAvailability.trim().isEmpty()) return "";
 
+        return memoized(availabilityDisplay, localeIndex, englishAvailability,
+                raw -> buildAvailabilityText(raw, localeIndex));
+    }
+
+    private String buildAvailabilityText(String englishAvailability, int localeIndex) {
         String[] days = englishAvailability.split(",\\s*");
         StringBuilder out = new StringBuilder();
 
         for (int i = 0; i < days.length; i++) {
             if (i > 0) out.append(i == days.length - 1 ? " & " : " · ");
-            out.append(translateDay(days[i].trim()));
+            out.append(translateDay(days[i].trim(), localeIndex));
         }
 
         return out.toString();
     }
 
-    private String translateDay(String englishDay) {
-        Resources localRes = getLocalResources();
+    // ----------------------------------------------------------------------
+    // Resources for one catalogue locale, whatever the app configuration is
+    // right now: any thread, and stable across a language switch
+    // ----------------------------------------------------------------------
+    public Resources resources(int localeIndex) {
+        Resources pinned = pinnedResources.get(localeIndex);
+        if (pinned == null) {
+            Configuration config = new Configuration(context.getResources().getConfiguration());
+            config.setLocale(Catalogue.locale(localeIndex));
+            pinnedResources.compareAndSet(localeIndex, null,
+                    context.createConfigurationContext(config).getResources());
+            pinned = pinnedResources.get(localeIndex);
+        }
+        return pinned;
+    }
+
+    private String translateDay(String englishDay, int localeIndex) {
+        String[] names = dayNames.get(localeIndex);
+        if (names == null) {
+            // Racing threads build equal arrays; the first one published wins
+            Resources pinned = resources(localeIndex);
+            String[] built = new String[DAY_RES.length];
+            for (int i = 0; i < DAY_RES.length; i++) built[i] = pinned.getString(DAY_RES[i]);
+            dayNames.compareAndSet(localeIndex, null, built);
+            names = dayNames.get(localeIndex);
+        }
 
-        switch (englishDay) {
-            case "Mon": return localRes.getString(R.string.mon);
-            case "Tue": return localRes.getString(R.string.tue);
-            case "Wed": return localRes.getString(R.string.wed);
-            case "Thu": return localRes.getString(R.string.thu);
-            case "Fri": return localRes.getString(R.string.fri);
-            case "Sat": return localRes.getString(R.string.sat);
-            case "Sun": return localRes.getString(R.string.sun);
-            default: return englishDay;
+        for (int i = 0; i < DAY_KEYS.length; i++) {
+            if (DAY_KEYS[i].equals(englishDay)) return names[i];
         }
+        return englishDay;
     }
 
     // ----------------------------------------------------------------------
-    // SAVE (generate English string → Firestore)
+    // SAVE (generate stored id string → Firestore)
+    // {cat.hair_care=[svc.haircut]} -> "cat.hair_care: svc.haircut"
     // ----------------------------------------------------------------------
-    public String buildEnglishCategoryString(Map<String, Set<String>> englishSelectionMap) {
-        if (englishSelectionMap == null || englishSelectionMap.isEmpty()) return "";
+    public String buildStoredCategoryString(Map<String, Set<String>> idSelectionMap) {
+        if (idSelectionMap == null || idSelectionMap.isEmpty()) return "";
 
         List<String> parts = new ArrayList<>();
 
-        for (Map.Entry<String, Set<String>> entry : englishSelectionMap.entrySet()) {
+        for (Map.Entry<String, Set<String>> entry : idSelectionMap.entrySet()) {
             String category = entry.getKey();
             Set<String> services = entry.getValue();
 
@@ -270,93 +264,48 @@ public class FirestoreStringTranslator {
     }
 
     // ----------------------------------------------------------------------
-    // REVERSE TRANSLATION (localized → English)
+    // REVERSE TRANSLATION (localized → stable catalogue ids)
     // ----------------------------------------------------------------------
     public Map<String, Set<String>> reverseTranslateSelection(Map<String, Set<String>> localizedMap) {
-        Map<String, Set<String>> englishMap = new LinkedHashMap<>();
+        Map<String, Set<String>> idMap = new LinkedHashMap<>();
 
-        if (localizedMap == null || localizedMap.isEmpty()) return englishMap;
+        if (localizedMap == null || localizedMap.isEmpty()) return idMap;
 
         for (Map.Entry<String, Set<String>> entry : localizedMap.entrySet()) {
             String localizedCategory = entry.getKey();
-            String englishCategory = reverseCategoryName(localizedCategory);
+            String categoryId = reverseCategoryName(localizedCategory);
 
-            Set<String> englishServices = new HashSet<>();
+            Set<String> serviceIds = new LinkedHashSet<>();
             for (String svc : entry.getValue()) {
-                englishServices.add(reverseServiceName(svc));
+                serviceIds.add(reverseServiceName(svc));
             }
 
-            englishMap.put(englishCategory, englishServices);
+            idMap.put(categoryId, serviceIds);
         }
 
-        return englishMap;
+        return idMap;
     }
 
+    // Localized category name → "cat.<key>" (unknown names are returned unchanged)
     public String reverseCategoryName(String localizedName) {
         if (localizedName == null || localizedName.trim().isEmpty()) return localizedName;
 
-        try {
-            Resources localRes = getLocalResources();
-            Resources enRes = getEnglishResources();
-
-            Field[] fields = R.string.class.getDeclaredFields();
-            for (Field field : fields) {
-                int resId = field.getInt(null);
-
-                String resourceName = localRes.getResourceEntryName(resId);
-                if (!resourceName.startsWith("cat_")) continue;
-
-                String localizedValue = localRes.getString(resId);
-                if (localizedValue.equalsIgnoreCase(localizedName)) {
-                    return enRes.getString(resId);
-                }
-            }
-        } catch (Exception e) {
-            Log.e("Translator", "reverseCategoryName error", e);
-        }
-
-        return localizedName;
+        int id = Catalogue.find(Catalogue.currentLocale(), Catalogue.KIND_CATEGORY, localizedName);
+        return id >= 0 ? Catalogue.stableId(id) : localizedName;
     }
 
     //********************************************************************************************
-    // * Reverse translate service name: Localized → English
-    // * Algorithm:
-    // * 1. Find localized string in localized resources → get resource ID
-    // * 2. Use that resource ID to get English string from English resources
+    // * Reverse translate service name: Localized → "svc.<key>"
+    // * Finds the catalogue id of the localized string in the current locale
     // *******************************************************************************************
     private String reverseServiceName(String localizedName) {
         if (localizedName == null || localizedName.trim().isEmpty()) {
             return localizedName;
         }
 
-        try {
-            Resources localRes = getLocalResources();
-            Resources enRes = getEnglishResources();
-
-            Field[] fields = R.string.class.getDeclaredFields();
-
-            for (Field field : fields) {
-                int resId = field.getInt(null);
-
-                String resourceName = localRes.getResourceEntryName(resId);
-                // Only check service strings (svc_*)
-                if (!resourceName.startsWith("svc_")) continue;
-
-                // Step 1: Find matching localized string
-                String localizedValue = localRes.getString(resId);
-
-                if (localizedValue.equalsIgnoreCase(localizedName)) {
-                    // Step 2: Use the same resource ID to get English value
-                    String englishValue = enRes.getString(resId);
-                    return englishValue;
-                }
-            }
-        } catch (Exception e) {
-            Log.e("Translator", "reverseServiceName error", e);
-        }
-
         // If no match found, return original
-        return localizedName;
+        int id = Catalogue.find(Catalogue.currentLocale(), Catalogue.KIND_SERVICE, localizedName);
+        return id >= 0 ? Catalogue.stableId(id) : localizedName;
     }
 
     private String capitalizeWords(String input) {
@@ -390,33 +339,7 @@ public class FirestoreStringTranslator {
     // PARSER FOR FIRESTORE STRING (English)
     // ----------------------------------------------------------------------
     public static Map<String, Set<String>> parseEnglishCategoryString(String savedCategory) {
-        Map<String, Set<String>> result = new LinkedHashMap<>();
-
-        if (savedCategory == null || savedCategory.trim().isEmpty()) return result;
-
-        String[] parts = savedCategory.split("\\|");
-        for (String part : parts) {
-            part = part.trim();
-            if (part.isEmpty()) continue;
-
-            if (!part.contains(":")) {
-                result.put(part, new HashSet<>());
-                continue;
-            }
-
-            String[] split = part.split(":", 2);
-            String cat = split[0].trim();
-            String[] svcList = split[1].split(",");
-
-            Set<String> services = new HashSet<>();
-            for (String s : svcList) {
-                services.add(s.trim());
-            }
-
-            result.put(cat, services);
-        }
-
-        return result;
+        return CategorySelection.parse(savedCategory).toMap();
     }
 
     public String buildLocalizedCategoryString(Map<String, Set<String>> localizedMap) {
@@ -467,11 +390,11 @@ public class FirestoreStringTranslator {
             String englishCategory = entry.getKey();
             Set<String> englishServices = entry.getValue();
 
-            String localizedCat = INSTANCE.translateCategoryName(englishCategory);
+            String localizedCat = categoryName(englishCategory, Catalogue.currentLocale());
 
             Set<String> localizedServices = new HashSet<>();
             for (String svc : englishServices) {
-                localizedServices.add(INSTANCE.translateServiceNameToLocal(svc));
+                localizedServices.add(serviceName(svc, Catalogue.currentLocale()));
             }
 
             result.put(localizedCat, localizedServices);
@@ -519,4 +442,36 @@ public class FirestoreStringTranslator {
             default: return pref;
         }
     }
-}
\ No newline at end of file
+
+    // ----------------------------------------------------------------------
+    // PER-LOCALE DISPLAY MEMO
+    // ----------------------------------------------------------------------
+    private static List<Map<String, String>> newLocaleMemo() {
+        List<Map<String, String>> memo = new ArrayList<>();
+        for (int i = 0; i < Catalogue.localeCount(); i++) {
+            // Access-ordered LinkedHashMap = LRU
+            memo.add(new LinkedHashMap<String, String>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > DISPLAY_MEMO_SIZE;
+                }
+            });
+        }
+        return memo;
+    }
+
+    private static String memoized(List<Map<String, String>> memo, int localeIndex, String raw,
+                                   Function<String, String> render) {
+        Map<String, String> table = memo.get(localeIndex);
+        synchronized (table) {
+            String cached = table.get(raw);
+            if (cached != null) return cached;
+        }
+
+        String text = render.apply(raw);
+        synchronized (table) {
+            table.put(raw, text);
+        }
+        return text;
+    }
+}
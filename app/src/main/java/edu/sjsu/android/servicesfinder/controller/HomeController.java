@@ -3,11 +3,19 @@ package edu.sjsu.android.servicesfinder.controller;
 import android.content.Context;
 import android.util.Log;
 
+import com.google.firebase.firestore.DocumentSnapshot;
+
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import edu.sjsu.android.servicesfinder.database.LeaderboardDatabase;
 import edu.sjsu.android.servicesfinder.database.ProviderServiceDatabase;
+import edu.sjsu.android.servicesfinder.model.CategorySelection;
 import edu.sjsu.android.servicesfinder.model.Provider;
 import edu.sjsu.android.servicesfinder.model.ProviderService;
 
@@ -19,8 +27,22 @@ public class HomeController {
 
     private static final String TAG = "HomeController";
     private final ProviderServiceDatabase database;
+    private final LeaderboardDatabase leaderboardDatabase;
     private HomeControllerListener listener;
 
+    // Latest category request - older responses are dropped
+    private int categoryRequestId = 0;
+
+    // Category paging (current chip only)
+    private static final int CATEGORY_PAGE_SIZE = 20;
+    private String pagedCategory;
+    private DocumentSnapshot categoryCursor;
+    private boolean categoryHasMore;
+    private boolean categoryPageLoading;
+    private final Map<Provider, List<ProviderService>> categoryResults = new LinkedHashMap<>();
+    private final Map<String, Provider> categoryProviders = new HashMap<>();
+    private final Set<String> categoryServiceIds = new HashSet<>();
+
     // Cache for search optimization
     private Map<Provider, List<ProviderService>> cachedData;
     private String lastSearchQuery = "";
@@ -35,6 +57,7 @@ public class HomeController {
     public HomeController(Context context) {
         this.context = context.getApplicationContext();
         this.database = new ProviderServiceDatabase(this.context); //
+        this.leaderboardDatabase = new LeaderboardDatabase();
     }
 
     //* ****************************************************************
@@ -66,44 +89,16 @@ public class HomeController {
     }
 
     public void loadAllProvidersWithServices() {
+        cancelCategoryPaging();
         database.getAllProvidersWithServices(context, new ProviderServiceDatabase.OnProvidersWithServicesLoadedListener() {
 
             @Override
             public void onSuccess(Map<Provider, List<ProviderService>> providerServiceMap) {
                 cachedData = providerServiceMap;
 
-                FirestoreStringTranslator translator = FirestoreStringTranslator.get(context);
-                int providerIndex = 0;
-                for (Map.Entry<Provider, List<ProviderService>> entry : providerServiceMap.entrySet()) {
-                    Provider provider = entry.getKey();
-                    List<ProviderService> services = entry.getValue();
-
-                    providerIndex++;
-
-                    int serviceIndex = 0;
-                    for (ProviderService service : services) {
-                        serviceIndex++;
-
-                        String originalTitle = service.getServiceTitle();
-                        String originalCategory = service.getCategory();
-
-                        // DON'T translate service title - it's a custom name entered by the provider
-                        // if (originalTitle != null) {
-                        //     String localizedTitle = translator.translateServiceNameToLocal(originalTitle);
-                        //     service.setServiceTitle(localizedTitle);
-                        // }
-
-                        if (originalCategory != null) {
-                            // Use translateCategory() instead of translateCategoryName()
-                            // because it handles legacy format: "Category1 | Category2: Service1, Service2"
-                            String localizedCategory = translator.translateCategory(originalCategory);
-                            service.setCategory(localizedCategory);
-
-                            boolean catChanged = !originalCategory.equals(localizedCategory);
-
-                        }
-                    }
-                }
+                // Category strings stay as stored (catalogue ids); cards and
+                // details localize them at display time, so a language switch
+                // never leaves stale translated text in the cache
                 if (listener != null) {
                     if (providerServiceMap.isEmpty()) {
                         listener.onNoDataAvailable();
@@ -127,6 +122,7 @@ public class HomeController {
     //*****************************************************************
     public void searchProvidersAndServices(String query) {
         lastSearchQuery = query;
+        cancelCategoryPaging();
 
         if (query == null || query.trim().isEmpty()) {
             loadAllProvidersWithServices();
@@ -155,94 +151,128 @@ public class HomeController {
     }
 
     //* ****************************************************************
-    //* Filter by category (check CAT has : ito know provider has service of CAT or not
+    //* Filter by category: the category leaderboard (one document read)
+    //* is the first screen. Services past the top K are only read when the
+    //* list is scrolled to its end (loadMoreInCategory). A category with no
+    //* leaderboard yet starts directly with the first page.
     //*****************************************************************
-        public void filterByCategory(String category) {
-
-        Log.e("CAT_FILTER", "Filtering for category: " + category);
+    public void filterByCategory(String category) {
+        int requestId = ++categoryRequestId;
+        resetCategoryPaging(category);
 
-        database.getAllProvidersWithServices(context, new ProviderServiceDatabase.OnProvidersWithServicesLoadedListener() {
+        leaderboardDatabase.getLeaderboard(category, new LeaderboardDatabase.OnLeaderboardLoadedListener() {
             @Override
-            public void onSuccess(Map<Provider, List<ProviderService>> providerServiceMap) {
-
-                Map<Provider, List<ProviderService>> finalFilteredMap = new HashMap<>();
-
-                for (Map.Entry<Provider, List<ProviderService>> entry : providerServiceMap.entrySet()) {
-                    Provider provider = entry.getKey();
-                    List<ProviderService> services = entry.getValue();
-
-                    List<ProviderService> matched = new ArrayList<>();
-
-                    for (ProviderService service : services) {
-
-                        String rawCat = service.getCategory();
-                        if (rawCat == null) continue;
-
-                        String[] segments = rawCat.split("\\|");
-                        for (String seg : segments) {
-                            seg = seg.trim();
+            public void onLeaderboardLoaded(Map<Provider, List<ProviderService>> providerServiceMap) {
+                if (requestId != categoryRequestId) return;
+                if (providerServiceMap.isEmpty()) {
+                    loadMoreInCategory();
+                    return;
+                }
+                // A board is not the whole category (entries are never refilled after a removal,
+                // services untouched since boards exist are missing): page until the query ends
+                mergeCategoryResults(providerServiceMap);
+                categoryHasMore = true;
+                deliverCategoryResults();
+            }
 
-                            // check if segment starts with category and has services after :
-                            if (seg.startsWith(category)) {
-                                int idx = seg.indexOf(category) + category.length();
+            @Override
+            public void onError(String errorMessage) {
+                Log.e(TAG, "Leaderboard unavailable for " + category + ": " + errorMessage);
+                if (requestId == categoryRequestId) loadMoreInCategory();
+            }
+        });
+    }
 
-                                if (idx < seg.length() && seg.charAt(idx) == ':') {
-                                    // CATEGORY HAS SERVICES — keep this service
-                                    matched.add(service);
-                                    break;
-                                }
-                            }
+    //* ****************************************************************
+    //* Next page of the current category (no-op when nothing is left,
+    //* a page is already loading, or no category is selected)
+    //*****************************************************************
+    public void loadMoreInCategory() {
+        if (pagedCategory == null || !categoryHasMore || categoryPageLoading) return;
+
+        int requestId = categoryRequestId;
+        categoryPageLoading = true;
+
+        database.getCategoryServicesPage(pagedCategory, categoryCursor, CATEGORY_PAGE_SIZE,
+                new ProviderServiceDatabase.OnCategoryPageLoadedListener() {
+                    @Override
+                    public void onPageLoaded(Map<Provider, List<ProviderService>> page,
+                                             DocumentSnapshot lastVisible, boolean hasMore) {
+                        if (requestId != categoryRequestId) return;
+                        categoryPageLoading = false;
+                        categoryCursor = lastVisible;
+                        categoryHasMore = hasMore;
+
+                        int before = categoryServiceIds.size();
+                        mergeCategoryResults(page);
+                        if (categoryServiceIds.size() > before || !hasMore) {
+                            deliverCategoryResults();
+                        } else {
+                            loadMoreInCategory();   // page held only services already listed
                         }
                     }
 
-                    if (!matched.isEmpty()) {
-                        finalFilteredMap.put(provider, matched);
+                    @Override
+                    public void onError(String errorMessage) {
+                        if (requestId != categoryRequestId) return;
+                        categoryPageLoading = false;
+                        if (categoryResults.isEmpty() && listener != null) listener.onError(errorMessage);
                     }
-                }
+                });
+    }
 
-                Log.e("CAT_FILTER", "FINAL filtered providers = " + finalFilteredMap.size());
+    // Another list (all / search) replaces the category: drop its paging and late pages
+    private void cancelCategoryPaging() {
+        ++categoryRequestId;
+        resetCategoryPaging(null);
+    }
 
-                if (listener != null) {
-                    if (finalFilteredMap.isEmpty()) listener.onNoDataAvailable();
-                    else listener.onProvidersWithServicesLoaded(finalFilteredMap);
+    private void resetCategoryPaging(String category) {
+        pagedCategory = category;
+        categoryCursor = null;
+        categoryHasMore = category != null;
+        categoryPageLoading = false;
+        categoryResults.clear();
+        categoryProviders.clear();
+        categoryServiceIds.clear();
+    }
+
+    // Adds services not listed yet (one Provider key per provider id)
+    private void mergeCategoryResults(Map<Provider, List<ProviderService>> page) {
+        for (Map.Entry<Provider, List<ProviderService>> entry : page.entrySet()) {
+            Provider provider = categoryProviders.get(entry.getKey().getId());
+            if (provider == null) {
+                provider = entry.getKey();
+                categoryProviders.put(provider.getId(), provider);
+                categoryResults.put(provider, new ArrayList<>());
+            }
+            for (ProviderService service : entry.getValue()) {
+                if (categoryServiceIds.add(service.getId())) {
+                    categoryResults.get(provider).add(service);
                 }
             }
+        }
+    }
 
-            @Override
-            public void onError(String errorMessage) {
-                if (listener != null) listener.onError(errorMessage);
-            }
-        });
+    private void deliverCategoryResults() {
+        if (listener == null) return;
+        if (categoryResults.isEmpty()) listener.onNoDataAvailable();
+        else listener.onProvidersWithServicesLoaded(new LinkedHashMap<>(categoryResults));
     }
+
+    //* ****************************************************************
+    //* Count Active services for a category chip (empty = all services)
+    //*****************************************************************
+    public void countServicesInCategory(String category, ProviderServiceDatabase.OnCountLoadedListener countListener) {
+        database.countActiveServices(category, countListener);
+    }
+
     //**********************************************************************************************
     // * Extract the provider category/services from a translated all-strings
+    // * (parsed once per distinct string, see CategorySelection)
     //**********************************************************************************************
     public String extractProviderCategoryWithServices(String categoryString) {
-        if (categoryString == null || categoryString.isEmpty()) {
-            return "";
-        }
-
-        // Split by "|" to get all category segments
-        String[] segments = categoryString.split("\\|");
-
-        List<String> categoriesWithServices = new ArrayList<>();
-
-        // Find ALL segments that contain ":" (meaning they have services)
-        for (String segment : segments) {
-            String trimmed = segment.trim();
-            if (trimmed.contains(":")) {
-                // This category has services - add it to the list
-                categoriesWithServices.add(trimmed);
-            }
-        }
-
-        // Join all categories with services using " | "
-        if (!categoriesWithServices.isEmpty()) {
-            return String.join(" | ", categoriesWithServices);
-        }
-
-        // If no category has services, return the first one
-        return segments.length > 0 ? segments[0].trim() : categoryString;
+        return CategorySelection.parse(categoryString).withServicesText();
     }
 
     // =========================================================
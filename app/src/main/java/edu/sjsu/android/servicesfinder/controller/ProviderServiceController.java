@@ -9,14 +9,19 @@ import com.google.firebase.firestore.Query;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import edu.sjsu.android.servicesfinder.R;
+import edu.sjsu.android.servicesfinder.database.LeaderboardDatabase;
 import edu.sjsu.android.servicesfinder.database.ProviderServiceDatabase;
+import edu.sjsu.android.servicesfinder.model.CategorySelection;
 import edu.sjsu.android.servicesfinder.model.ProviderService;
+import edu.sjsu.android.servicesfinder.util.Catalogue;
 
 public class ProviderServiceController {
 
     private final ProviderServiceDatabase database;
+    private final LeaderboardDatabase leaderboardDatabase = new LeaderboardDatabase();
     private final FirebaseFirestore firestore = FirebaseFirestore.getInstance();
 
     public ProviderServiceController(Context context) {
@@ -37,11 +42,98 @@ public class ProviderServiceController {
             return;
         }
 
+        // Keep the "categories" array in sync with the category string (used for count queries)
+        service.setCategories(categoriesWithServices(service.getCategory()));
+
         if (service.getId() != null && !service.getId().isEmpty()) {
-            database.updateService(providerId, service.getId(), service, listener);
+            // Read the stored categories first so leaderboards the service leaves get cleaned up
+            firestore.collection("providers")
+                    .document(providerId)
+                    .collection("services")
+                    .document(service.getId())
+                    .get()
+                    .addOnCompleteListener(task -> {
+                        List<String> previousCategories = new ArrayList<>();
+                        String replacedHash = null;
+                        if (task.isSuccessful() && task.getResult() != null && task.getResult().exists()) {
+                            DocumentSnapshot stored = task.getResult();
+                            previousCategories = categoriesWithServices(stored.getString("category"));
+                            if (ProviderService.IMAGE_PENDING.equals(service.getImageStatus())) {
+                                keepStoredImage(service, stored);
+                            } else if (!Objects.equals(stored.getString("imageUrl"), service.getImageUrl())) {
+                                // Image removed (or swapped for one outside the index): its hash goes too
+                                replacedHash = stored.getString("imageHash");
+                            }
+                        }
+                        database.updateService(providerId, service.getId(), service,
+                                withImageRelease(providerId, service.getId(), replacedHash,
+                                        withLeaderboardUpdate(providerId, service, previousCategories, listener)));
+                    });
         } else {
-            database.saveService(providerId, service, listener);
+            database.saveService(providerId, service,
+                    withLeaderboardUpdate(providerId, service, new ArrayList<>(), listener));
+        }
+    }
+
+    // Refresh the per-category leaderboards once the service document is written
+    private ProviderServiceDatabase.OnServiceSaveListener withLeaderboardUpdate(
+            String providerId, ProviderService service, List<String> previousCategories,
+            ProviderServiceDatabase.OnServiceSaveListener listener) {
+        return new ProviderServiceDatabase.OnServiceSaveListener() {
+            @Override
+            public void onSuccess(String serviceId) {
+                service.setId(serviceId);
+                leaderboardDatabase.onServiceSaved(providerId, service, previousCategories);
+                listener.onSuccess(serviceId);
+            }
+
+            @Override
+            public void onError(String error) {
+                listener.onError(error);
+            }
+        };
+    }
+
+    // Once the service no longer shows the indexed image, drop its imageHash and release the files
+    private ProviderServiceDatabase.OnServiceSaveListener withImageRelease(
+            String providerId, String serviceId, String replacedHash,
+            ProviderServiceDatabase.OnServiceSaveListener listener) {
+        if (replacedHash == null) return listener;
+        return new ProviderServiceDatabase.OnServiceSaveListener() {
+            @Override
+            public void onSuccess(String savedId) {
+                database.dropImageHash(providerId, serviceId, replacedHash);
+                listener.onSuccess(savedId);
+            }
+
+            @Override
+            public void onError(String error) {
+                listener.onError(error);
+            }
+        };
+    }
+
+    // New photo still uploading: the write leaves the stored image alone, and the
+    // leaderboard entries built from this object should show it too
+    private static void keepStoredImage(ProviderService service, DocumentSnapshot stored) {
+        service.setImageUrl(stored.getString("imageUrl"));
+        service.setImageThumbUrl(stored.getString("imageThumbUrl"));
+        service.setImageCardUrl(stored.getString("imageCardUrl"));
+        service.setImageBlurHash(stored.getString("imageBlurHash"));
+        Long color = stored.getLong("imageColor");
+        service.setImageColor(color != null ? color.intValue() : null);
+    }
+
+    // Category ids that have at least one selected service
+    // "cat.plumbing | cat.home_services: svc.electrical_work" -> ["cat.home_services"]
+    // (legacy English names are mapped to their ids)
+    private static List<String> categoriesWithServices(String categoryString) {
+        List<String> ids = new ArrayList<>();
+        for (String category : CategorySelection.parse(categoryString).categoriesWithServices()) {
+            String id = Catalogue.categoryId(category);
+            if (!ids.contains(id)) ids.add(id);
         }
+        return ids;
     }
 
     // ------------------ LOAD LAST DRAFT ------------------
@@ -75,6 +167,11 @@ public class ProviderServiceController {
                     draft.setContactPreference(doc.getString("contactPreference"));
                     draft.setCategory(doc.getString("category"));
                     draft.setImageUrl(doc.getString("imageUrl"));
+                    draft.setImageThumbUrl(doc.getString("imageThumbUrl"));
+                    draft.setImageCardUrl(doc.getString("imageCardUrl"));
+                    draft.setImageBlurHash(doc.getString("imageBlurHash"));
+                    Long imageColor = doc.getLong("imageColor");
+                    draft.setImageColor(imageColor != null ? imageColor.intValue() : null);
 
                     listener.onDraftLoaded(draft);
                 })
@@ -114,6 +211,10 @@ public class ProviderServiceController {
         private String contactPreference;
         private String category;
         private String imageUrl;
+        private String imageThumbUrl;
+        private String imageCardUrl;
+        private String imageBlurHash;
+        private Integer imageColor;
 
         public String getId() { return id; }
         public String getServiceTitle() { return serviceTitle; }
@@ -124,6 +225,10 @@ public class ProviderServiceController {
         public String getContactPreference() { return contactPreference; }
         public String getCategory() { return category; }
         public String getImageUrl() { return imageUrl; }
+        public String getImageThumbUrl() { return imageThumbUrl; }
+        public String getImageCardUrl() { return imageCardUrl; }
+        public String getImageBlurHash() { return imageBlurHash; }
+        public Integer getImageColor() { return imageColor; }
 
         public void setId(String id) { this.id = id; }
         public void setServiceTitle(String serviceTitle) { this.serviceTitle = serviceTitle; }
@@ -134,6 +239,10 @@ public class ProviderServiceController {
         public void setContactPreference(String contactPreference) { this.contactPreference = contactPreference; }
         public void setCategory(String category) { this.category = category; }
         public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+        public void setImageThumbUrl(String imageThumbUrl) { this.imageThumbUrl = imageThumbUrl; }
+        public void setImageCardUrl(String imageCardUrl) { this.imageCardUrl = imageCardUrl; }
+        public void setImageBlurHash(String imageBlurHash) { this.imageBlurHash = imageBlurHash; }
+        public void setImageColor(Integer imageColor) { this.imageColor = imageColor; }
     }
     public interface OnDraftLoadedListener {
         void onDraftLoaded(ServiceDraft draft);
@@ -0,0 +1,140 @@
+package edu.sjsu.android.servicesfinder.controller;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import edu.sjsu.android.servicesfinder.database.ReviewDatabase;
+import edu.sjsu.android.servicesfinder.model.Provider;
+
+/* ****************************************************************************************
+ * RatingScoreService - ranking score for the "Highest Rated" sort
+ *
+ * Raw averages let a provider with a single 5-star review beat one with 400 reviews
+ * averaging 4.8. We rank by a Bayesian-smoothed average instead:
+ *
+ *      score = (PRIOR_WEIGHT * PRIOR_MEAN + ratingSum) / (PRIOR_WEIGHT + ratingCount)
+ *
+ * Each provider starts at PRIOR_MEAN and moves toward its real average as reviews
+ * accumulate. Scores are computed from the ratingCount/ratingSum aggregates stored on
+ * the provider document, cached per provider, and updated incrementally when a review
+ * is submitted, so sorting only compares cached doubles.
+ ******************************************************************************************/
+public class RatingScoreService {
+
+    // Prior: behaves as if every provider already had 5 reviews of 3.5 stars
+    static final double PRIOR_MEAN = 3.5;
+    static final double PRIOR_WEIGHT = 5.0;
+
+    private static RatingScoreService instance;
+
+    // providerId -> stored aggregates, and providerId -> cached score
+    private final Map<String, Aggregate> aggregates = new HashMap<>();
+    private final Map<String, Double> scores = new HashMap<>();
+
+    private static class Aggregate {
+        long count;
+        double sum;
+
+        Aggregate(long count, double sum) {
+            this.count = count;
+            this.sum = sum;
+        }
+    }
+
+    private RatingScoreService() {}
+
+    public static synchronized RatingScoreService getInstance() {
+        if (instance == null) {
+            instance = new RatingScoreService();
+        }
+        return instance;
+    }
+
+    // ----------------------------------------------------------------------
+    // SCORE FORMULA
+    // ----------------------------------------------------------------------
+    public static double bayesianScore(long ratingCount, double ratingSum) {
+        return (PRIOR_WEIGHT * PRIOR_MEAN + ratingSum) / (PRIOR_WEIGHT + ratingCount);
+    }
+
+    // ----------------------------------------------------------------------
+    // CACHE UPDATES
+    // ----------------------------------------------------------------------
+
+    // Replace the aggregates for a provider (e.g., values read from Firestore)
+    public synchronized void setAggregates(String providerId, long ratingCount, double ratingSum) {
+        if (providerId == null) return;
+        aggregates.put(providerId, new Aggregate(ratingCount, ratingSum));
+        scores.put(providerId, bayesianScore(ratingCount, ratingSum));
+    }
+
+    // Incremental update when a new review is saved - no re-query needed
+    public synchronized void onReviewAdded(String providerId, float rating) {
+        if (providerId == null) return;
+        Aggregate aggregate = aggregates.get(providerId);
+        if (aggregate == null) {
+            // Unknown provider: wait for the stored aggregates instead of guessing
+            return;
+        }
+        aggregate.count++;
+        aggregate.sum += rating;
+        scores.put(providerId, bayesianScore(aggregate.count, aggregate.sum));
+    }
+
+    public synchronized boolean hasScore(String providerId) {
+        return scores.containsKey(providerId);
+    }
+
+    // Cached score, or the prior for providers we know nothing about
+    public synchronized double getScore(String providerId) {
+        Double score = scores.get(providerId);
+        return score != null ? score : PRIOR_MEAN;
+    }
+
+    // ----------------------------------------------------------------------
+    // Make sure every provider has a cached score, then run onReady.
+    // Providers with stored aggregates are scored immediately; older provider
+    // documents without them fall back to one aggregation query each, and the
+    // exact count/sum is written back so the next load can skip the query.
+    // ----------------------------------------------------------------------
+    public void ensureScores(Collection<Provider> providers, Runnable onReady) {
+        Set<String> missing = new HashSet<>();
+
+        for (Provider provider : providers) {
+            String providerId = provider.getId();
+            if (providerId == null) continue;
+
+            if (provider.getRatingCount() != null && provider.getRatingSum() != null) {
+                setAggregates(providerId, provider.getRatingCount(), provider.getRatingSum());
+            } else if (!hasScore(providerId)) {
+                missing.add(providerId);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            onReady.run();
+            return;
+        }
+
+        ReviewDatabase reviewDb = new ReviewDatabase();
+        int[] pending = {missing.size()};
+
+        for (String providerId : missing) {
+            reviewDb.backfillRatingAggregates(providerId, new ReviewDatabase.OnRatingAggregatesListener() {
+                @Override
+                public void onAggregatesLoaded(long ratingCount, double ratingSum) {
+                    setAggregates(providerId, ratingCount, ratingSum);
+                    if (--pending[0] == 0) onReady.run();
+                }
+
+                @Override
+                public void onError(String error) {
+                    if (--pending[0] == 0) onReady.run();
+                }
+            });
+        }
+    }
+}
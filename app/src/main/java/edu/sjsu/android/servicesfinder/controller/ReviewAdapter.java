@@ -1,6 +1,7 @@
 package edu.sjsu.android.servicesfinder.controller;
 
 import android.content.Context;
+import android.util.LruCache;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,30 +9,137 @@ import android.widget.RatingBar;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 import edu.sjsu.android.servicesfinder.R;
 import edu.sjsu.android.servicesfinder.model.Review;
-
-public class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ReviewViewHolder> {
+import edu.sjsu.android.servicesfinder.util.AppExecutors;
+import edu.sjsu.android.servicesfinder.util.MinuteTicker;
+import edu.sjsu.android.servicesfinder.util.RelativeTime;
+
+/* ****************************************************************************
+ * RecyclerView Adapter, displays reviews on the service detail screen.
+ *
+ * Reviews become ReviewCardModels on AppExecutors.background() (long comments
+ * are precomputed there) and are diffed, so a new page or a reload only binds
+ * the rows that changed. "Time ago" lines follow the shared MinuteTicker and
+ * are refreshed for the visible rows only.
+ *********************************************************************************/
+public class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ReviewViewHolder>
+        implements MinuteTicker.Listener {
+
+    // Payload when only the relative time should be redrawn
+    public static final Object PAYLOAD_TIME = new Object();
+
+    // Built models by review id: appending a page only builds the new rows
+    private static final int MODEL_CACHE_SIZE = 200;
 
     private final Context context;
-    private List<Review> reviews;
+
+    private final AsyncListDiffer<ReviewCardModel> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    private final LruCache<String, ReviewCardModel> modelCache = new LruCache<>(MODEL_CACHE_SIZE);
+
+    // Reviews as last submitted (main thread only)
+    private List<Review> reviews = new ArrayList<>();
+
+    // Incremented per submit; a model build that finishes after a newer submit is dropped
+    private int buildGeneration = 0;
+
+    // Text metrics of the comment TextView, for PrecomputedTextCompat (null until attached)
+    private PrecomputedTextCompat.Params commentParams;
+
+    private RecyclerView recyclerView;
+
+    // Ticks only while the list is on screen
+    private final View.OnAttachStateChangeListener tickerRegistration = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(@NonNull View v) {
+            MinuteTicker.register(ReviewAdapter.this);
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(@NonNull View v) {
+            MinuteTicker.unregister(ReviewAdapter.this);
+        }
+    };
 
     public ReviewAdapter(Context context) {
         this.context = context;
-        this.reviews = new ArrayList<>();
     }
 
     public void setReviews(List<Review> reviews) {
-        this.reviews = reviews;
-        notifyDataSetChanged();
+        submitReviews(new ArrayList<>(reviews));
+    }
+
+    // Append the next page of reviews without rebinding the rows already shown
+    public void addReviews(List<Review> moreReviews) {
+        if (moreReviews == null || moreReviews.isEmpty()) return;
+        List<Review> all = new ArrayList<>(reviews);
+        all.addAll(moreReviews);
+        submitReviews(all);
+    }
+
+    // Build models off the main thread (reusing cached ones), then diff
+    private void submitReviews(List<Review> items) {
+        reviews = items;
+        int generation = ++buildGeneration;
+        PrecomputedTextCompat.Params params = commentParams;
+
+        AppExecutors.background().execute(() -> {
+            List<ReviewCardModel> models = new ArrayList<>(items.size());
+            for (Review review : items) {
+                ReviewCardModel model = review.getId() != null ? modelCache.get(review.getId()) : null;
+                if (model == null || !model.matches(review)) {   // new, or edited since cached
+                    model = ReviewCardModel.build(review, params);
+                    if (review.getId() != null) modelCache.put(review.getId(), model);
+                }
+                models.add(model);
+            }
+
+            AppExecutors.mainThread().execute(() -> {
+                if (generation == buildGeneration) differ.submitList(models);
+            });
+        });
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        if (commentParams == null) {
+            // Same layout and theme as the rows, so the params match their comment view
+            View row = LayoutInflater.from(recyclerView.getContext())
+                    .inflate(R.layout.item_review, recyclerView, false);
+            commentParams = TextViewCompat.getTextMetricsParams(row.findViewById(R.id.reviewComment));
+        }
+        recyclerView.addOnAttachStateChangeListener(tickerRegistration);
+        if (recyclerView.isAttachedToWindow()) MinuteTicker.register(this);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.removeOnAttachStateChangeListener(tickerRegistration);
+        MinuteTicker.unregister(this);
+        this.recyclerView = null;
+    }
+
+    // New minute: redraw the time line of the rows on screen only
+    @Override
+    public void onMinuteTick(long now) {
+        if (recyclerView == null || !(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) return;
+        notifyItemRangeChanged(first, last - first + 1, PAYLOAD_TIME);
     }
 
     @NonNull
@@ -44,15 +152,43 @@ public class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ReviewView
 
     @Override
     public void onBindViewHolder(@NonNull ReviewViewHolder holder, int position) {
-        Review review = reviews.get(position);
-        holder.bind(review);
+        holder.bind(differ.getCurrentList().get(position));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ReviewViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.size() == 1 && payloads.get(0) == PAYLOAD_TIME) {
+            holder.bindTime(differ.getCurrentList().get(position));
+            return;
+        }
+        super.onBindViewHolder(holder, position, payloads);
     }
 
     @Override
     public int getItemCount() {
-        return reviews.size();
+        return differ.getCurrentList().size();
     }
 
+    // =========================================================
+    // DIFF (runs on AsyncListDiffer's background executor)
+    // =========================================================
+    private static final DiffUtil.ItemCallback<ReviewCardModel> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<ReviewCardModel>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull ReviewCardModel oldItem, @NonNull ReviewCardModel newItem) {
+                    return oldItem.sameReview(newItem);
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull ReviewCardModel oldItem, @NonNull ReviewCardModel newItem) {
+                    return oldItem.equals(newItem);
+                }
+            };
+
+    // =========================================================
+    // VIEW HOLDER
+    // =========================================================
     public static class ReviewViewHolder extends RecyclerView.ViewHolder {
         private final TextView customerName;
         private final RatingBar ratingBar;
@@ -67,35 +203,31 @@ public class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ReviewView
             timestamp = itemView.findViewById(R.id.reviewTimestamp);
         }
 
-        public void bind(Review review) {
-            customerName.setText(review.getCustomerName());
-            ratingBar.setRating(review.getRating());
-            comment.setText(review.getComment());
-            timestamp.setText(getTimeAgo(review.getTimestamp()));
+        void bind(ReviewCardModel model) {
+            customerName.setText(model.customerName);
+            ratingBar.setRating(model.rating);
+            bindComment(model);
+            bindTime(model);
+        }
+
+        private void bindComment(ReviewCardModel model) {
+            if (model.precomputedComment == null) {
+                comment.setText(model.comment);
+                return;
+            }
+            try {
+                TextViewCompat.setPrecomputedText(comment, model.precomputedComment);
+            } catch (IllegalArgumentException e) {
+                comment.setText(model.comment);   // metrics changed (e.g. font scale): lay out here
+            }
         }
 
-        // Get time for customer review
-        private String getTimeAgo(long timestamp) {
-            long now = System.currentTimeMillis();
-            long diff = now - timestamp;
-
-            long seconds = diff / 1000;
-            long minutes = seconds / 60;
-            long hours = minutes / 60;
-            long days = hours / 24;
-
-            if (days > 30) {
-                SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-                return sdf.format(new Date(timestamp));
-            } else if (days > 0) {
-                return days + (days == 1 ? " day ago" : " days ago");
-            } else if (hours > 0) {
-                return hours + (hours == 1 ? " hour ago" : " hours ago");
-            } else if (minutes > 0) {
-                return minutes + (minutes == 1 ? " minute ago" : " minutes ago");
-            } else {
-                return "Just now";
+        // Only touches the view when the text actually changed
+        void bindTime(ReviewCardModel model) {
+            String text = RelativeTime.format(itemView.getResources(), model.timestamp, System.currentTimeMillis());
+            if (!text.contentEquals(timestamp.getText())) {
+                timestamp.setText(text);
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package edu.sjsu.android.servicesfinder.controller;
+
+import androidx.core.text.PrecomputedTextCompat;
+
+import java.util.Objects;
+
+import edu.sjsu.android.servicesfinder.model.Review;
+
+/* ****************************************************************************************
+ * ReviewCardModel - one review row, ready to bind
+ *
+ * Built on a background executor (see ReviewAdapter). Comments of LONG_COMMENT_CHARS or
+ * more are measured there with PrecomputedTextCompat, so the main thread skips text
+ * layout for them. The "time ago" line is not stored: it depends on the current minute
+ * and is formatted on bind / MinuteTicker refresh.
+ * Immutable; equals() compares the displayed values and drives the list diff.
+ ******************************************************************************************/
+public final class ReviewCardModel {
+
+    // Shorter comments lay out quickly enough on the main thread
+    static final int LONG_COMMENT_CHARS = 200;
+
+    final String reviewId;           // null for a review not read back yet
+    final String customerName;
+    final float rating;
+    final String comment;
+    final PrecomputedTextCompat precomputedComment;   // null = short comment, plain setText
+    final long timestamp;
+
+    private ReviewCardModel(String reviewId, String customerName, float rating, String comment,
+                            PrecomputedTextCompat precomputedComment, long timestamp) {
+        this.reviewId = reviewId;
+        this.customerName = customerName;
+        this.rating = rating;
+        this.comment = comment;
+        this.precomputedComment = precomputedComment;
+        this.timestamp = timestamp;
+    }
+
+    // =========================================================
+    // BUILD (background thread)
+    // commentParams = the comment TextView's metrics, null to skip precomputing
+    // =========================================================
+    static ReviewCardModel build(Review review, PrecomputedTextCompat.Params commentParams) {
+        String comment = review.getComment() != null ? review.getComment() : "";
+        PrecomputedTextCompat precomputed = commentParams != null && comment.length() >= LONG_COMMENT_CHARS
+                ? PrecomputedTextCompat.create(comment, commentParams)
+                : null;
+        return new ReviewCardModel(review.getId(), review.getCustomerName(), review.getRating(),
+                comment, precomputed, review.getTimestamp());
+    }
+
+    // Still shows what review holds now (an edited rating or comment needs a new model);
+    // compares the fields only, so a cache hit never pays for precomputing
+    boolean matches(Review review) {
+        String current = review.getComment() != null ? review.getComment() : "";
+        return Float.compare(rating, review.getRating()) == 0
+                && timestamp == review.getTimestamp()
+                && Objects.equals(reviewId, review.getId())
+                && Objects.equals(customerName, review.getCustomerName())
+                && comment.equals(current);
+    }
+
+    // Same review (for the diff); unsaved reviews fall back to author + time
+    boolean sameReview(ReviewCardModel other) {
+        if (reviewId != null || other.reviewId != null) return Objects.equals(reviewId, other.reviewId);
+        return timestamp == other.timestamp && Objects.equals(customerName, other.customerName);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ReviewCardModel)) return false;
+        ReviewCardModel other = (ReviewCardModel) o;
+        return Float.compare(rating, other.rating) == 0
+                && timestamp == other.timestamp
+                && Objects.equals(reviewId, other.reviewId)
+                && Objects.equals(customerName, other.customerName)
+                && Objects.equals(comment, other.comment);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(reviewId, customerName, rating, comment, timestamp);
+    }
+}
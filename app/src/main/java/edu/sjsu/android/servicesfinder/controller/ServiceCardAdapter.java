@@ -1,29 +1,41 @@
 package edu.sjsu.android.servicesfinder.controller;
 
-import static android.provider.Settings.System.getString;
-
-import android.annotation.SuppressLint;
 import android.content.Context;
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Objects;
 
 import edu.sjsu.android.servicesfinder.R;
 import edu.sjsu.android.servicesfinder.database.ReviewDatabase;
 import edu.sjsu.android.servicesfinder.model.Provider;
 import edu.sjsu.android.servicesfinder.model.ProviderService;
+import edu.sjsu.android.servicesfinder.util.AppExecutors;
+import edu.sjsu.android.servicesfinder.util.Catalogue;
 
 
 /* ****************************************************************************
@@ -36,25 +48,102 @@ import edu.sjsu.android.servicesfinder.model.ProviderService;
  *   - availability (days)
  *   - category (example: Home, Automotive)
  *   - service image from Firebase Storage
+ *
+ * Cards are ServiceCardModels formatted on AppExecutors.background(); binding
+ * only assigns their strings and starts the image load.
  *********************************************************************************/
 public class ServiceCardAdapter extends RecyclerView.Adapter<ServiceCardAdapter.ServiceCardViewHolder> {
 
     private final Context context;
 
     /**
-     * serviceItems = final list we feed to RecyclerView
-     * Each entry combines provider + service
+     * differ = holds the card models we feed to RecyclerView.
+     * New lists are diffed on a background thread; only inserted, moved or changed
+     * cards are rebound, and changed cards get a payload when possible.
      */
-    private List<ServiceItem> serviceItems;
+    private final AsyncListDiffer<ServiceCardModel> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+
+    // Items as last submitted (main thread only), to rebuild models after a language switch
+    private List<ServiceItem> serviceItems = new ArrayList<>();
 
+    // Incremented per submit; a model build that finishes after a newer submit is dropped
+    private int buildGeneration = 0;
 
     // Callback to notify your Activity when user taps a card
 
     private OnServiceClickListener listener;
 
+    // Payload when only the rating line changed
+    public static final Object PAYLOAD_RATING = new Object();
+
+    // Payload when text changed but the image did not (e.g. language switch)
+    public static final Object PAYLOAD_TEXT = new Object();
+
+    // Rows ahead of the visible ones whose images are fetched while scrolling
+    private static final int PRELOAD_ROWS = 6;
+
+    // Fallback rating query for provider documents without aggregates
+    private static final ReviewDatabase REVIEW_DATABASE = new ReviewDatabase();
+
+    // A card counts as "stable" once the list has rested this long (detail prefetch)
+    private static final long PREFETCH_STABLE_DELAY_MS = 400;
+
+    private RecyclerView recyclerView;
+    private final Runnable prefetchVisible = this::prefetchVisibleCards;
+    private final Runnable prefetchPressed = this::prefetchPressedCard;
+    private ServiceItem pressedItem;   // card under a finger that has not moved yet
+    private final RecyclerView.OnScrollListener prefetchScrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView view, int newState) {
+            if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                schedulePrefetch();
+            } else {
+                view.removeCallbacks(prefetchVisible);
+                cancelPressPrefetch();
+                DetailPrefetcher.getInstance().cancelQueued();
+            }
+        }
+    };
+
+    // A finger resting on a card for a tap timeout is likely a tap; a drag or fling moves
+    // past the touch slop first and never asks. The card's own click handling is untouched.
+    private final RecyclerView.OnItemTouchListener pressListener = new RecyclerView.SimpleOnItemTouchListener() {
+        private float downX, downY;
+
+        @Override
+        public boolean onInterceptTouchEvent(@NonNull RecyclerView view, @NonNull MotionEvent event) {
+            switch (event.getActionMasked()) {
+                case MotionEvent.ACTION_DOWN:
+                    cancelPressPrefetch();
+                    View child = view.findChildViewUnder(event.getX(), event.getY());
+                    RecyclerView.ViewHolder holder = child != null ? view.getChildViewHolder(child) : null;
+                    if (holder instanceof ServiceCardViewHolder && ((ServiceCardViewHolder) holder).model != null) {
+                        pressedItem = ((ServiceCardViewHolder) holder).model.item;
+                        downX = event.getX();
+                        downY = event.getY();
+                        view.postDelayed(prefetchPressed, ViewConfiguration.getTapTimeout());
+                    }
+                    break;
+                case MotionEvent.ACTION_MOVE:
+                    int slop = ViewConfiguration.get(view.getContext()).getScaledTouchSlop();
+                    if (Math.abs(event.getX() - downX) > slop || Math.abs(event.getY() - downY) > slop) {
+                        cancelPressPrefetch();
+                    }
+                    break;
+                case MotionEvent.ACTION_UP:
+                case MotionEvent.ACTION_CANCEL:
+                    cancelPressPrefetch();   // a quick tap opens the detail screen, which loads itself
+                    break;
+                default:
+                    break;
+            }
+            return false;
+        }
+    };
+
     public ServiceCardAdapter(Context context) {
         this.context = context;
-        this.serviceItems = new ArrayList<>();
+        setHasStableIds(true);
     }
 
     /* ****************************************************************
@@ -73,9 +162,8 @@ public class ServiceCardAdapter extends RecyclerView.Adapter<ServiceCardAdapter.
      *     ServiceItem(Provider, Service2)
      * Then RecyclerView can display each as a card.
      ****************************************************************/
-    @SuppressLint("NotifyDataSetChanged")
     public void setData(Map<Provider, List<ProviderService>> providerServiceMap) {
-        serviceItems.clear(); // remove previous content
+        List<ServiceItem> items = new ArrayList<>();
 
         // Loop through providers
         for (Map.Entry<Provider, List<ProviderService>> entry : providerServiceMap.entrySet()) {
@@ -84,18 +172,101 @@ public class ServiceCardAdapter extends RecyclerView.Adapter<ServiceCardAdapter.
 
             // Loop each service under that provider
             for (ProviderService service : services) {
-                serviceItems.add(new ServiceItem(provider, service));
+                items.add(new ServiceItem(provider, service));
             }
         }
 
-        notifyDataSetChanged(); // tell RecyclerView data changed
+        submitItems(items);
     }
 
     // Accepts already-prepared items. Useful when sorted externally.
-    @SuppressLint("NotifyDataSetChanged")
     public void setServiceItems(List<ServiceItem> items) {
-        this.serviceItems = items;
-        notifyDataSetChanged();
+        // Copy: the build runs later on another thread and callers may reuse the list
+        submitItems(new ArrayList<>(items));
+    }
+
+    /* ****************************************************************
+     * App language changed: rebuild the models for the new locale. The
+     * diff gives text-only payloads, so images and ratings stay as is.
+     ******************************************************************/
+    public void onLocaleChanged() {
+        submitItems(serviceItems);
+    }
+
+    // Format every card off the main thread, then diff against the current list
+    private void submitItems(List<ServiceItem> items) {
+        serviceItems = items;
+        int generation = ++buildGeneration;
+        int localeIndex = Catalogue.currentLocale();
+
+        AppExecutors.background().execute(() -> {
+            List<ServiceCardModel> models = new ArrayList<>(items.size());
+            for (ServiceItem item : items) {
+                models.add(ServiceCardModel.build(context, item, localeIndex));
+            }
+
+            AppExecutors.mainThread().execute(() -> {
+                if (generation == buildGeneration) differ.submitList(models, this::schedulePrefetch);
+            });
+        });
+    }
+
+    /* ****************************************************************
+     * Detail prefetch: cards fully visible while the list is at rest get
+     * a low-priority DetailPrefetcher request (a press that stays put asks high).
+     ******************************************************************/
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(prefetchScrollListener);
+        recyclerView.addOnItemTouchListener(pressListener);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.removeOnScrollListener(prefetchScrollListener);
+        recyclerView.removeOnItemTouchListener(pressListener);
+        recyclerView.removeCallbacks(prefetchVisible);
+        cancelPressPrefetch();
+        this.recyclerView = null;
+    }
+
+    private void prefetchPressedCard() {
+        ServiceItem item = pressedItem;
+        pressedItem = null;
+        if (item == null) return;
+        DetailPrefetcher.getInstance().prefetch(context, item.provider.getId(),
+                item.service.getId(), DetailPrefetcher.PRIORITY_HIGH);
+    }
+
+    private void cancelPressPrefetch() {
+        pressedItem = null;
+        if (recyclerView != null) recyclerView.removeCallbacks(prefetchPressed);
+    }
+
+    private void schedulePrefetch() {
+        if (recyclerView == null) return;
+        recyclerView.removeCallbacks(prefetchVisible);
+        recyclerView.postDelayed(prefetchVisible, PREFETCH_STABLE_DELAY_MS);
+    }
+
+    private void prefetchVisibleCards() {
+        if (recyclerView == null || recyclerView.getScrollState() != RecyclerView.SCROLL_STATE_IDLE) return;
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int first = layoutManager.findFirstCompletelyVisibleItemPosition();
+        int last = layoutManager.findLastCompletelyVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) return;
+
+        List<ServiceCardModel> models = differ.getCurrentList();
+        for (int position = last; position >= first; position--) {
+            if (position >= models.size()) continue;
+            ServiceItem item = models.get(position).item;
+            // Queue is LIFO: request bottom-up so the top card loads first
+            DetailPrefetcher.getInstance().prefetch(context, item.provider.getId(),
+                    item.service.getId(), DetailPrefetcher.PRIORITY_LOW);
+        }
     }
 
     @NonNull
@@ -114,22 +285,117 @@ public class ServiceCardAdapter extends RecyclerView.Adapter<ServiceCardAdapter.
     @Override
     public void onBindViewHolder(@NonNull ServiceCardViewHolder holder, int position) {
 
-        // Called when a view comes on screen. We grab the correct ServiceItem and bind data.
+        // Called when a view comes on screen. We grab the correct model and bind data.
+
+        ServiceCardModel model = differ.getCurrentList().get(position);
+        holder.bind(model, listener);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ServiceCardViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            super.onBindViewHolder(holder, position, payloads);
+            return;
+        }
 
-        ServiceItem item = serviceItems.get(position);
-        holder.bind(item, listener);
+        // Partial bind: only the parts named by the payloads
+        ServiceCardModel model = differ.getCurrentList().get(position);
+        holder.setModel(model);
+        if (payloads.contains(PAYLOAD_TEXT)) holder.bindText(model);
+        // Aggregate-based ratings are plain text ("New" is localized); never re-query here
+        if (payloads.contains(PAYLOAD_RATING) || model.ratingText != null) holder.bindRating(model);
+    }
+
+    // Off screen: drop the holder's pending async work before it is reused
+    @Override
+    public void onViewRecycled(@NonNull ServiceCardViewHolder holder) {
+        holder.cancelAsyncWork();
     }
 
     @Override
     public int getItemCount() {
         // Total cards displayed
-        return serviceItems.size();
+        return differ.getCurrentList().size();
+    }
+
+    // Stable per service, so RecyclerView can keep views across resorts and filters
+    @Override
+    public long getItemId(int position) {
+        return stableId(differ.getCurrentList().get(position).serviceId);
     }
 
     public List<ServiceItem> getServiceItems() {
-        return serviceItems;
+        List<ServiceItem> items = new ArrayList<>();
+        for (ServiceCardModel model : differ.getCurrentList()) items.add(model.item);
+        return items;
+    }
+
+    /* ****************************************************************
+     * Scroll listener that loads the next rows' thumbnails ahead of time,
+     * with exactly the bind request (size + options) so the cache hits.
+     *     recyclerView.addOnScrollListener(adapter.createPreloader(Glide.with(this)));
+     ******************************************************************/
+    public RecyclerViewPreloader<String> createPreloader(RequestManager glide) {
+        int sizePx = ServiceCardImages.sizePx(context);
+
+        ListPreloader.PreloadModelProvider<String> modelProvider = new ListPreloader.PreloadModelProvider<String>() {
+            @NonNull
+            @Override
+            public List<String> getPreloadItems(int position) {
+                List<ServiceCardModel> models = differ.getCurrentList();
+                if (position >= models.size() || models.get(position).imageUrl == null) {
+                    return Collections.emptyList();
+                }
+                return Collections.singletonList(models.get(position).imageUrl);
+            }
+
+            @Override
+            public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String url) {
+                return ServiceCardImages.request(glide, url, sizePx);
+            }
+        };
+
+        return new RecyclerViewPreloader<>(glide, modelProvider,
+                new FixedPreloadSizeProvider<>(sizePx, sizePx), PRELOAD_ROWS);
+    }
+
+    // 64-bit FNV-1a of the Firestore service id
+    private static long stableId(String serviceId) {
+        if (serviceId == null) return RecyclerView.NO_ID;
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < serviceId.length(); i++) {
+            hash ^= serviceId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
     }
 
+    // =========================================================
+    // DIFF (runs on AsyncListDiffer's background executor)
+    // =========================================================
+    private static final DiffUtil.ItemCallback<ServiceCardModel> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<ServiceCardModel>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull ServiceCardModel oldItem, @NonNull ServiceCardModel newItem) {
+                    return Objects.equals(oldItem.serviceId, newItem.serviceId);
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull ServiceCardModel oldItem, @NonNull ServiceCardModel newItem) {
+                    return oldItem.equals(newItem);
+                }
+
+                @Override
+                public Object getChangePayload(@NonNull ServiceCardModel oldItem, @NonNull ServiceCardModel newItem) {
+                    // Rating-only change: skip the full bind (and its image request)
+                    if (oldItem.sameExceptRating(newItem)) return PAYLOAD_RATING;
+                    // Text-only change: redraw text, keep the loaded image
+                    if (oldItem.sameImage(newItem)) return PAYLOAD_TEXT;
+                    return null;
+                }
+            };
+
     // =========================================================
     // VIEW HOLDER
     // =========================================================
@@ -149,6 +415,16 @@ public class ServiceCardAdapter extends RecyclerView.Adapter<ServiceCardAdapter.
         private final TextView categoryBadge;
         private final View verifiedBadge;
 
+        // Model currently shown (partial binds swap it without a full bind)
+        private ServiceCardModel model;
+
+        // Bumped by cancelAsyncWork(); an async result only lands if it still matches
+        private int bindGeneration = 0;
+        private RatingRequest pendingRating;
+
+        // Card thumbnail size in pixels (80dp)
+        private final int imageSizePx;
+
         public ServiceCardViewHolder(@NonNull View itemView) {
             super(itemView);
 
@@ -162,146 +438,144 @@ public class ServiceCardAdapter extends RecyclerView.Adapter<ServiceCardAdapter.
             serviceAvailability = itemView.findViewById(R.id.serviceAvailability);
             categoryBadge = itemView.findViewById(R.id.categoryBadge);
             verifiedBadge = itemView.findViewById(R.id.verifiedBadge);
+            imageSizePx = ServiceCardImages.sizePx(itemView.getContext());
         }
 
 
-        // Bind data from ServiceItem -> UI views
+        // Bind data from ServiceCardModel -> UI views (assignments only)
 
-        public void bind(ServiceItem item, OnServiceClickListener listener) {
-            Provider provider = item.provider;
-            ProviderService service = item.service;
+        public void bind(ServiceCardModel model, OnServiceClickListener listener) {
+            setModel(model);
 
-            ReviewDatabase reviewDb = new ReviewDatabase();
-            String pid = provider.getId();   // or provider.getUid(), whichever exists
-
-
-            // Title
-            serviceTitle.setText(service.getServiceTitle());
+            bindText(model);
+            bindRating(model);
 
+            // Verified badge hidden for now  (can enable when Firestore has "verified: true")
 
-            // Pricing
+            verifiedBadge.setVisibility(View.GONE);
 
-            if (service.getPricing() != null && !service.getPricing().isEmpty()) {
-                servicePricing.setText(service.getPricing());
-                servicePricing.setVisibility(View.VISIBLE);
+            // Load image using Glide (async, cached, decoded at card size);
+            // the service's blurred placeholder shows until the bytes arrive
+            Drawable placeholder = ServiceCardImages.placeholder(
+                    itemView.getContext(), model.blurHash, model.imageColor);
+            if (model.imageUrl != null) {
+                ServiceCardImages.request(Glide.with(itemView), model.imageUrl, imageSizePx, placeholder)
+                        .into(serviceImage);
             } else {
-                servicePricing.setVisibility(View.GONE); // hide empty row
+                Glide.with(itemView).clear(serviceImage);   // drop a recycled card's request
+                serviceImage.setImageDrawable(placeholder);  // e.g. upload still pending
             }
 
-
-            // Provider
-
-            //providerName.setText("Provider: " + provider.getFullName());
-            providerName.setText(itemView.getContext().getString(R.string.provider_prefix, provider.getFullName()));
-
-
-            // Rating placeholder  (You can replace with average rating logic later)
-
-            //providerRating.setText("⭐ New");
-            //providerRating.setText(itemView.getContext().getString(R.string.new_service));
-            //providerRating.setVisibility(View.VISIBLE);
-            reviewDb.getAverageRating(pid, new ReviewDatabase.OnRatingCalculatedListener() {
-                @Override
-                public void onRatingCalculated(float averageRating, int totalReviews) {
-                    if (totalReviews == 0) {
-                        providerRating.setText(itemView.getContext().getString(R.string.new_service));
-                    } else {
-                        providerRating.setText(String.format("⭐ %.1f", averageRating));
-                    }
-                }
-
-                @Override
-                public void onError(String error) {
-                    providerRating.setText("⭐ --");
+            // User tapped the card
+            itemView.setOnClickListener(v -> {
+                if (listener != null) {
+                    listener.onServiceClick(this.model.item);
                 }
             });
+        }
 
+        void setModel(ServiceCardModel model) {
+            this.model = model;
+        }
 
+        // Every text row of the card
+        void bindText(ServiceCardModel model) {
+            serviceTitle.setText(model.title);
+            setOptionalText(servicePricing, model.pricing);      // hide empty row
+            providerName.setText(model.providerLine);
+            serviceLocation.setText(model.location);
+            setOptionalText(serviceAvailability, model.availability);
+            setOptionalText(categoryBadge, model.categoryBadge);
+        }
 
-            // Location derived from serviceArea OR provider address
-            String location = service.getServiceArea();
-            if (location == null || location.isEmpty()) {
-                location = extractCity(provider.getAddress());
-            }
-            serviceLocation.setText(location);
-
-            // Availability (Mon,Tue → local)
-            if (service.getAvailability() != null && !service.getAvailability().isEmpty()) {
-                serviceAvailability.setText(
-                        FirestoreStringTranslator.get(itemView.getContext())
-                                .formatAvailabilityForDisplay(service.getAvailability())
-                );
-                serviceAvailability.setVisibility(View.VISIBLE);
-            } else {
-                serviceAvailability.setVisibility(View.GONE);
-            }
-            // Category badge (take only first category segment)
-            if (service.getCategory() != null && !service.getCategory().isEmpty()) {
-                // ADDED: Parse → Translate → Rebuild → Extract primary
-                HomeController controller = new HomeController(itemView.getContext());
-                String displayText = controller.extractProviderCategoryWithServices(service.getCategory());
-                categoryBadge.setText(displayText);
-                categoryBadge.setVisibility(View.VISIBLE);
-            } else {
-                categoryBadge.setVisibility(View.GONE);
+        void bindRating(ServiceCardModel model) {
+            // A new rating replaces whatever the previous bind was still waiting for
+            cancelAsyncWork();
+
+            if (model.ratingText != null) {
+                providerRating.setText(model.ratingText);
+                return;
             }
 
-            // Verified badge hidden for now  (can enable when Firestore has "verified: true")
+            // Older provider document without aggregates: one aggregation query
+            Provider provider = model.item.provider;
+            providerRating.setText("");   // not the recycled card's rating meanwhile
+            pendingRating = new RatingRequest(this);
+            BindMetrics.onStarted();
+            REVIEW_DATABASE.getAverageRating(provider.getId(), pendingRating);
+        }
 
-            verifiedBadge.setVisibility(View.GONE);
+        // Rebind or recycle: results of earlier async work must not reach this holder
+        void cancelAsyncWork() {
+            bindGeneration++;
+            if (pendingRating != null) {
+                pendingRating.cancel();
+                pendingRating = null;
+            }
+        }
 
-            // Load image using Glide (async, cached)
-            if (service.getImageUrl() != null && !service.getImageUrl().isEmpty()) {
-                Glide.with(itemView.getContext())
-                        .load(service.getImageUrl())
-                        .placeholder(R.drawable.ic_service_placeholder) // shown while loading
-                        .error(R.drawable.ic_service_placeholder)       // shown if download fails
-                        .centerCrop()
-                        .into(serviceImage);
+        private void showRating(float averageRating, int totalReviews) {
+            if (totalReviews == 0) {
+                providerRating.setText(itemView.getContext().getString(R.string.new_service));
             } else {
-                serviceImage.setImageResource(R.drawable.ic_service_placeholder);
+                providerRating.setText(String.format("⭐ %.1f", averageRating));
             }
+        }
 
-            // User tapped the card
-            itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onServiceClick(item);
-                }
-            });
+        private static void setOptionalText(TextView view, String text) {
+            if (text != null) {
+                view.setText(text);
+                view.setVisibility(View.VISIBLE);
+            } else {
+                view.setVisibility(View.GONE);
+            }
         }
+    }
 
-        // Try to extract city part from address "Street, City, State"
+    /* ****************************************************************
+     * Rating query started by a bind. Holds the holder weakly plus the
+     * generation it was started for: a cancelled request drops its holder
+     * at once, and a late answer for a reused holder is counted as stale.
+     ******************************************************************/
+    private static final class RatingRequest implements ReviewDatabase.OnRatingCalculatedListener {
+        private final int generation;
+        private WeakReference<ServiceCardViewHolder> holder;   // null once cancelled
 
-        private String extractCity(String address) {
-            if (address == null || address.isEmpty()) {
-                return "Location TBD";
-            }
+        RatingRequest(ServiceCardViewHolder holder) {
+            this.generation = holder.bindGeneration;
+            this.holder = new WeakReference<>(holder);
+        }
 
-            String[] parts = address.split(",");
-            if (parts.length >= 2) {
-                return parts[1].trim();
-            }
-            return address;
+        void cancel() {
+            holder = null;
         }
 
-        // Convert "Mon, Tue, Wed" => "Mon/Tue/Wed"
+        @Override
+        public void onRatingCalculated(float averageRating, int totalReviews) {
+            ServiceCardViewHolder target = target();
+            if (target != null) target.showRating(averageRating, totalReviews);
+        }
 
-        private String formatAvailability(String availability) {
-            return availability.replace(", ", "/");
+        @Override
+        public void onError(String error) {
+            ServiceCardViewHolder target = target();
+            if (target != null) target.providerRating.setText("⭐ --");
         }
 
-        /* *******************************************************************************
-         * Service category may look like:
-         *   "Home: Plumbing, Electrical | Automotive: Tire Change"       "
-         **************************************************************************************/
-        private String extractFirstCategory(String category) {
-            if (category.contains(":")) {
-                return category.split(":")[0].trim();
+        // The holder if this answer is still wanted, counting why it is not
+        private ServiceCardViewHolder target() {
+            if (holder == null) {
+                BindMetrics.onCancelledDelivery();
+                return null;
             }
-            if (category.contains("|")) {
-                return category.split("\\|")[0].trim();
+            ServiceCardViewHolder target = holder.get();
+            if (target == null || target.bindGeneration != generation) {
+                BindMetrics.onStaleDelivery();
+                return null;
             }
-            return category;
+            target.pendingRating = null;
+            BindMetrics.onDelivered();
+            return target;
         }
     }
 
@@ -0,0 +1,106 @@
+package edu.sjsu.android.servicesfinder.controller;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+import androidx.core.content.ContextCompat;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.request.RequestOptions;
+
+import edu.sjsu.android.servicesfinder.R;
+import edu.sjsu.android.servicesfinder.model.ProviderService;
+import edu.sjsu.android.servicesfinder.util.BlurHash;
+import edu.sjsu.android.servicesfinder.util.ImageRenditions;
+
+/* ****************************************************************************************
+ * ServiceCardImages - the one Glide request used for card thumbnails
+ *
+ * Bind and preload must build identical requests (same model, size and options),
+ * otherwise the preloaded bitmap is a different cache key and is never reused.
+ *   - override() to the 80dp x 80dp ImageView of item_service_card.xml, so Glide
+ *     downsamples while decoding instead of holding the full-resolution photo
+ *   - RGB_565: half the bytes of ARGB_8888; thumbnails have no alpha
+ *   - pickUrl(): smallest uploaded rendition that still covers the view, so the
+ *     network transfer shrinks too (thumb on most phones, card on xxhdpi+)
+ *   - placeholder(): the service's BlurHash (or average color) while the bytes load;
+ *     decoded 20x20 bitmaps are cached, so rebinding a card costs one small drawable
+ ******************************************************************************************/
+public final class ServiceCardImages {
+
+    // Must match serviceImage in item_service_card.xml
+    private static final int CARD_IMAGE_DP = 80;
+
+    private static final RequestOptions CARD_OPTIONS = new RequestOptions()
+            .centerCrop()
+            .format(DecodeFormat.PREFER_RGB_565)
+            .placeholder(R.drawable.ic_service_placeholder)   // shown while loading
+            .error(R.drawable.ic_service_placeholder);        // shown if download fails
+
+    // Decoded BlurHash bitmaps: 20 x 20 ARGB = 1.6 KB each
+    private static final int BLUR_DECODE_PX = 20;
+    private static final LruCache<String, Bitmap> BLUR_CACHE = new LruCache<>(256);
+
+    private ServiceCardImages() {}
+
+    public static int sizePx(Context context) {
+        return Math.round(CARD_IMAGE_DP * context.getResources().getDisplayMetrics().density);
+    }
+
+    // Smallest rendition whose size covers sizePx; falls back to larger ones, then imageUrl
+    public static String pickUrl(ProviderService service, int sizePx) {
+        if (sizePx <= ImageRenditions.THUMB_PX && !isEmpty(service.getImageThumbUrl())) {
+            return service.getImageThumbUrl();
+        }
+        if (sizePx <= ImageRenditions.CARD_PX && !isEmpty(service.getImageCardUrl())) {
+            return service.getImageCardUrl();
+        }
+        return isEmpty(service.getImageUrl()) ? null : service.getImageUrl();
+    }
+
+    public static RequestBuilder<Drawable> request(RequestManager glide, String url, int sizePx) {
+        return glide.load(url)
+                .apply(CARD_OPTIONS)
+                .override(sizePx, sizePx);
+    }
+
+    // Same request with the service's own placeholder (placeholders are not part of the cache key)
+    public static RequestBuilder<Drawable> request(RequestManager glide, String url, int sizePx, Drawable placeholder) {
+        return request(glide, url, sizePx).placeholder(placeholder);
+    }
+
+    // =========================================================
+    // PLACEHOLDERS
+    // =========================================================
+
+    // BlurHash -> average color -> generic icon
+    public static Drawable placeholder(Context context, String blurHash, Integer color) {
+        Bitmap blurred = blurBitmap(blurHash);
+        if (blurred != null) return new BitmapDrawable(context.getResources(), blurred);
+        if (color != null) return new ColorDrawable(0xFF000000 | color);
+        return ContextCompat.getDrawable(context, R.drawable.ic_service_placeholder);
+    }
+
+    // Decode (or fetch) the blurred bitmap; safe on any thread, models warm it off the main thread
+    static Bitmap blurBitmap(String blurHash) {
+        if (blurHash == null || blurHash.isEmpty()) return null;
+        Bitmap cached = BLUR_CACHE.get(blurHash);
+        if (cached != null) return cached;
+
+        int[] pixels = BlurHash.decode(blurHash, BLUR_DECODE_PX, BLUR_DECODE_PX);
+        if (pixels == null) return null;
+        Bitmap bitmap = Bitmap.createBitmap(pixels, BLUR_DECODE_PX, BLUR_DECODE_PX, Bitmap.Config.ARGB_8888);
+        BLUR_CACHE.put(blurHash, bitmap);
+        return bitmap;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,171 @@
+package edu.sjsu.android.servicesfinder.controller;
+
+import android.content.Context;
+import android.content.res.Resources;
+
+import java.util.Objects;
+
+import edu.sjsu.android.servicesfinder.R;
+import edu.sjsu.android.servicesfinder.model.CategorySelection;
+import edu.sjsu.android.servicesfinder.model.Provider;
+import edu.sjsu.android.servicesfinder.model.ProviderService;
+
+/* ****************************************************************************************
+ * ServiceCardModel - everything one home-screen card displays, already formatted
+ *
+ * Built on a background executor when the feed changes (see ServiceCardAdapter), so
+ * onBindViewHolder only assigns strings and starts the image load: no category parsing,
+ * translation, address splitting or database objects on the main thread.
+ * Immutable; equals() compares the displayed values and drives the list diff.
+ ******************************************************************************************/
+public final class ServiceCardModel {
+
+    public final ServiceCardAdapter.ServiceItem item;   // for clicks / detail screen
+
+    final String serviceId;
+    final String title;
+    final String pricing;            // null = hide row
+    final String providerLine;       // "Provider: Jane Doe"
+    final String location;
+    final String availability;       // null = hide row
+    final String categoryBadge;      // null = hide badge
+    final String ratingText;         // null = provider has no aggregates, query on bind
+    final String imageUrl;           // best-fitting rendition, null = placeholder
+    final String blurHash;           // null = no image placeholder data
+    final Integer imageColor;
+
+    private ServiceCardModel(ServiceCardAdapter.ServiceItem item, String title, String pricing,
+                             String providerLine, String location, String availability,
+                             String categoryBadge, String ratingText, String imageUrl,
+                             String blurHash, Integer imageColor) {
+        this.item = item;
+        this.serviceId = item.service.getId();
+        this.title = title;
+        this.pricing = pricing;
+        this.providerLine = providerLine;
+        this.location = location;
+        this.availability = availability;
+        this.categoryBadge = categoryBadge;
+        this.ratingText = ratingText;
+        this.imageUrl = imageUrl;
+        this.blurHash = blurHash;
+        this.imageColor = imageColor;
+    }
+
+    // =========================================================
+    // BUILD (any thread; localeIndex from Catalogue.currentLocale())
+    // =========================================================
+    public static ServiceCardModel build(Context context, ServiceCardAdapter.ServiceItem item, int localeIndex) {
+        Provider provider = item.provider;
+        ProviderService service = item.service;
+        FirestoreStringTranslator translator = FirestoreStringTranslator.get(context);
+        // Strings come from resources pinned to localeIndex, never from the app
+        // configuration, which a concurrent language switch may already have changed
+        Resources res = translator.resources(localeIndex);
+
+        // Location derived from serviceArea OR provider address
+        String location = service.getServiceArea();
+        if (location == null || location.isEmpty()) {
+            location = extractCity(provider.getAddress());
+        }
+
+        String availability = null;
+        if (service.getAvailability() != null && !service.getAvailability().isEmpty()) {
+            availability = translator.formatAvailabilityForDisplay(service.getAvailability(), localeIndex);
+        }
+
+        // Category badge: segments that have services, localized
+        String categoryBadge = null;
+        if (service.getCategory() != null && !service.getCategory().isEmpty()) {
+            String displayText = CategorySelection.parse(service.getCategory()).withServicesText();
+            categoryBadge = translator.translateCategory(displayText, localeIndex);
+        }
+
+        // Decode the blurred placeholder here, so bind only wraps a cached bitmap
+        ServiceCardImages.blurBitmap(service.getImageBlurHash());
+
+        return new ServiceCardModel(
+                item,
+                service.getServiceTitle(),
+                isEmpty(service.getPricing()) ? null : service.getPricing(),
+                res.getString(R.string.provider_prefix, provider.getFullName()),
+                location,
+                availability,
+                categoryBadge,
+                ratingText(res, provider),
+                ServiceCardImages.pickUrl(service, ServiceCardImages.sizePx(context)),
+                service.getImageBlurHash(),
+                service.getImageColor());
+    }
+
+    // Rating from the provider's ratingCount / ratingSum aggregates
+    // res = locale-pinned resources (FirestoreStringTranslator.resources)
+    static String ratingText(Resources res, Provider provider) {
+        if (provider.getRatingCount() == null) return null;
+
+        long count = provider.getRatingCount();
+        if (count == 0) return res.getString(R.string.new_service);
+
+        double sum = provider.getRatingSum() != null ? provider.getRatingSum() : 0;
+        return String.format(res.getConfiguration().getLocales().get(0), "⭐ %.1f", sum / count);
+    }
+
+    // =========================================================
+    // DIFF HELPERS
+    // =========================================================
+
+    // Same everything except the rating line
+    boolean sameExceptRating(ServiceCardModel other) {
+        return Objects.equals(title, other.title)
+                && Objects.equals(pricing, other.pricing)
+                && Objects.equals(providerLine, other.providerLine)
+                && Objects.equals(location, other.location)
+                && Objects.equals(availability, other.availability)
+                && Objects.equals(categoryBadge, other.categoryBadge)
+                && sameImage(other);
+    }
+
+    // Same image: the change (e.g. a language switch) only touches text
+    boolean sameImage(ServiceCardModel other) {
+        return Objects.equals(imageUrl, other.imageUrl)
+                && Objects.equals(blurHash, other.blurHash)
+                && Objects.equals(imageColor, other.imageColor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ServiceCardModel)) return false;
+        ServiceCardModel other = (ServiceCardModel) o;
+        return Objects.equals(serviceId, other.serviceId)
+                && sameExceptRating(other)
+                && Objects.equals(ratingText, other.ratingText);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(serviceId, title, pricing, providerLine, location,
+                availability, categoryBadge, ratingText, imageUrl, blurHash, imageColor);
+    }
+
+    // =========================================================
+    // HELPER METHODS
+    // =========================================================
+
+    // Try to extract city part from address "Street, City, State"
+    private static String extractCity(String address) {
+        if (address == null || address.isEmpty()) {
+            return "Location TBD";
+        }
+
+        String[] parts = address.split(",");
+        if (parts.length >= 2) {
+            return parts[1].trim();
+        }
+        return address;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
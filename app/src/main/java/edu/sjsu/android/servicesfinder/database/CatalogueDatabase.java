@@ -12,7 +12,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import edu.sjsu.android.servicesfinder.model.Catalogue;
+import edu.sjsu.android.servicesfinder.util.Catalogue;
 
 /* ******************************************************************************
  * Database class for READ-ONLY access to hardcoded catalogues
@@ -34,6 +34,8 @@ public class CatalogueDatabase {
     /* *****************************************************************************
      * Get catalogue map with embedded services (for dropdown)
      * Reads services array from inside catalogue documents
+     * Keys and services are stable catalogue ids: categoryId / serviceIds when the
+     * document has them, otherwise the English title / services mapped to ids
      ************************************************************************************/
     public void getCatalogueMapWithEmbeddedServices(OnCatalogueMapLoadedListener listener) {
         db.collection(COLLECTION_CATALOGUES)
@@ -44,18 +46,30 @@ public class CatalogueDatabase {
                     for (QueryDocumentSnapshot doc : querySnapshot) {
                         // Get title (or use document ID as fallback)
 
-                        String title = doc.getString("title");
-                        if (title == null || title.isEmpty()) {
-                            title = doc.getId();
+                        String categoryId = doc.getString("categoryId");
+                        if (categoryId == null || categoryId.isEmpty()) {
+                            String title = doc.getString("title");
+                            if (title == null || title.isEmpty()) {
+                                title = doc.getId();
+                            }
+                            categoryId = Catalogue.categoryId(title);
                         }
 
-                        // Get embedded services array
+                        // Get embedded services array (ids first, English names as fallback)
                         @SuppressWarnings("unchecked")
-                        List<String> services = (List<String>) doc.get("services");
+                        List<String> services = (List<String>) doc.get("serviceIds");
+                        if (services == null || services.isEmpty()) {
+                            @SuppressWarnings("unchecked")
+                            List<String> legacy = (List<String>) doc.get("services");
+                            services = new ArrayList<>();
+                            if (legacy != null) {
+                                for (String name : legacy) services.add(Catalogue.serviceId(name));
+                            }
+                        }
 
                         // Only add if services exist and are not empty
-                        if (services != null && !services.isEmpty()) {
-                            catalogueMap.put(title, services);
+                        if (!services.isEmpty()) {
+                            catalogueMap.put(categoryId, services);
                         }
                     }
 
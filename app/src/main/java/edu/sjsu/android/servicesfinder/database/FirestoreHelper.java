@@ -17,17 +17,24 @@ import edu.sjsu.android.servicesfinder.R;
 //******************************************************************************************
 public class FirestoreHelper {
     public static final String COLLECTION_PROVIDERS = "providers";
-    private static FirebaseFirestore instance;
+
+    // Initialization-on-demand holder: the JVM runs the class initializer exactly once,
+    // so every thread sees the same configured instance without locking on each call
+    private static final class Holder {
+        static final FirebaseFirestore INSTANCE = createInstance();
+    }
 
     //******************************************************************************************
-    // Get singleton Firestore instance
+    // Get singleton Firestore instance (safe from any thread)
     //******************************************************************************************
     public static FirebaseFirestore getInstance() {
-        if (instance == null) {
-            instance = FirebaseFirestore.getInstance();
-            configureFirestore(instance);
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    private static FirebaseFirestore createInstance() {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        configureFirestore(db);
+        return db;
     }
 
     //******************************************************************************************
@@ -0,0 +1,204 @@
+package edu.sjsu.android.servicesfinder.database;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.sjsu.android.servicesfinder.util.ImageRenditions;
+
+/* ***********************************************************************************************
+ * ImageHashIndex - per-provider index of uploaded images by content hash
+ *
+ * providers/{providerId}/image_hashes/{sha256} = {
+ *     imageUrl, imageThumbUrl, imageCardUrl,        // download URLs of the renditions
+ *     paths:    ["service_images/...", ...],        // Storage objects, deleted by GC
+ *     services: ["serviceId", ...],                 // services using the image (reference set)
+ *     createdAt
+ * }
+ *
+ *  - acquire():  same photo saved again -> reuse the URLs, nothing is uploaded
+ *  - register(): after a fresh upload; if another upload of the same photo won the race,
+ *                its URLs are returned and the caller deletes its own copy
+ *  - release():  service deleted or its image replaced; the last release deletes the
+ *                Storage objects and the index document
+ *  - releaseAbandoned(): upload gave up after acquire/register, before the service got
+ *                its imageHash; same as release() unless the service already uses the image
+ * Every change runs in a transaction, so a concurrent acquire and release cannot leave a
+ * service pointing at deleted files. Services are marked with imageHash for release().
+ *************************************************************************************************/
+public final class ImageHashIndex {
+
+    private static final String TAG = "ImageHashIndex";
+    private static final String COLLECTION_IMAGE_HASHES = "image_hashes";
+
+    private static final String[] URL_FIELDS = {"imageThumbUrl", "imageCardUrl", "imageUrl"};
+    private static final String[] RENDITIONS = {ImageRenditions.THUMB, ImageRenditions.CARD, ImageRenditions.FULL};
+
+    private ImageHashIndex() {}
+
+    // =========================================================
+    // STREAMING SHA-256 of the processed files (sorted by name)
+    // =========================================================
+    public static String sha256(File[] files) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);   // every Android runtime has SHA-256
+        }
+
+        File[] sorted = files.clone();
+        Arrays.sort(sorted, (a, b) -> a.getName().compareTo(b.getName()));
+        byte[] buffer = new byte[64 * 1024];
+        for (File file : sorted) {
+            digest.update(file.getName().getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = new FileInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    // =========================================================
+    // ACQUIRE: rendition name -> URL if the image is indexed (serviceId is added), else null
+    // =========================================================
+    public static Task<Map<String, String>> acquire(String providerId, String hash, String serviceId) {
+        DocumentReference doc = hashes(providerId).document(hash);
+        return FirestoreHelper.getInstance().runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(doc);
+            if (!snapshot.exists()) return null;
+            transaction.update(doc, "services", FieldValue.arrayUnion(serviceId));
+            return urlsOf(snapshot);
+        });
+    }
+
+    // =========================================================
+    // REGISTER a fresh upload; returns the URLs the service should use
+    // =========================================================
+    public static Task<Map<String, String>> register(String providerId, String hash, Map<String, String> urls,
+                                                     List<String> paths, String serviceId) {
+        DocumentReference doc = hashes(providerId).document(hash);
+        return FirestoreHelper.getInstance().runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(doc);
+            if (snapshot.exists()) {
+                // Same photo finished uploading first elsewhere: share it
+                transaction.update(doc, "services", FieldValue.arrayUnion(serviceId));
+                return urlsOf(snapshot);
+            }
+            Map<String, Object> entry = new HashMap<>();
+            for (int i = 0; i < URL_FIELDS.length; i++) {
+                entry.put(URL_FIELDS[i], urls.get(RENDITIONS[i]));
+            }
+            entry.put("paths", paths);
+            entry.put("services", Collections.singletonList(serviceId));
+            entry.put("createdAt", System.currentTimeMillis());
+            transaction.set(doc, entry);
+            return urls;
+        });
+    }
+
+    // =========================================================
+    // RELEASE: drop serviceId; the last user garbage-collects the files
+    // =========================================================
+    public static void release(String providerId, String hash, String serviceId) {
+        release(providerId, hash, serviceId, false);
+    }
+
+    // The same photo saved again: the service's imageHash still needs the reference
+    public static void releaseAbandoned(String providerId, String hash, String serviceId) {
+        release(providerId, hash, serviceId, true);
+    }
+
+    private static void release(String providerId, String hash, String serviceId, boolean keepIfCurrent) {
+        if (hash == null || hash.isEmpty()) return;   // image uploaded before the index existed
+        DocumentReference doc = hashes(providerId).document(hash);
+        DocumentReference serviceDoc = FirestoreHelper.getInstance()
+                .collection(FirestoreHelper.COLLECTION_PROVIDERS)
+                .document(providerId)
+                .collection("services")
+                .document(serviceId);
+        FirestoreHelper.getInstance().runTransaction(transaction -> {
+                    if (keepIfCurrent && hash.equals(transaction.get(serviceDoc).getString("imageHash"))) {
+                        return null;
+                    }
+                    DocumentSnapshot snapshot = transaction.get(doc);
+                    if (!snapshot.exists()) return null;
+
+                    List<String> services = stringList(snapshot.get("services"));
+                    services.remove(serviceId);
+                    if (!services.isEmpty()) {
+                        transaction.update(doc, "services", FieldValue.arrayRemove(serviceId));
+                        return null;
+                    }
+                    transaction.delete(doc);
+                    return stringList(snapshot.get("paths"));
+                })
+                .addOnSuccessListener(orphanedPaths -> {
+                    if (orphanedPaths == null) return;
+                    deleteObjects(orphanedPaths);
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Error releasing image " + hash, e));
+    }
+
+    // Storage objects nobody references (lost register race, GC)
+    public static void deleteObjects(List<String> paths) {
+        for (String path : paths) {
+            StorageHelper.storageRef().child(path).delete()
+                    .addOnFailureListener(e -> Log.w(TAG, "Could not delete " + path, e));
+        }
+    }
+
+    // =========================================================
+    // HELPER METHODS
+    // =========================================================
+    public static CollectionReference hashes(String providerId) {
+        return FirestoreHelper.getInstance()
+                .collection(FirestoreHelper.COLLECTION_PROVIDERS)
+                .document(providerId)
+                .collection(COLLECTION_IMAGE_HASHES);
+    }
+
+    private static Map<String, String> urlsOf(DocumentSnapshot snapshot) {
+        Map<String, String> urls = new HashMap<>();
+        for (int i = 0; i < URL_FIELDS.length; i++) {
+            urls.put(RENDITIONS[i], snapshot.getString(URL_FIELDS[i]));
+        }
+        return urls;
+    }
+
+    private static List<String> stringList(Object raw) {
+        List<String> values = new ArrayList<>();
+        if (raw instanceof List) {
+            for (Object item : (List<?>) raw) {
+                if (item instanceof String) values.add((String) item);
+            }
+        }
+        return values;
+    }
+}
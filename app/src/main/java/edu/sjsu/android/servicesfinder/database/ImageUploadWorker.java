@@ -0,0 +1,612 @@
+package edu.sjsu.android.servicesfinder.database;
+
+import android.Manifest;
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.content.pm.ServiceInfo;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.ForegroundInfo;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.storage.StorageException;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import edu.sjsu.android.servicesfinder.R;
+import edu.sjsu.android.servicesfinder.model.ProviderService;
+import edu.sjsu.android.servicesfinder.util.AppExecutors;
+import edu.sjsu.android.servicesfinder.util.ImageRenditions;
+
+/* *****************************************************************************************************
+ * ImageUploadWorker - uploads a service photo in the background, surviving the activity
+ *
+ *  1. stage(): before the service is saved, the photo is encoded into renditions
+ *     (ImageRenditions) under files/pending_uploads/, while the picker's URI grant is
+ *     still valid. The BlurHash / average color go on a new service with its first save.
+ *     enqueue(): once the service is saved with imageStatus = "pending", the staged
+ *     folder becomes {serviceId}_{time}/ and the work is queued - no URI, no encoding.
+ *  2. doWork(): uploads each file with putFile. The Storage session URI is kept in
+ *     SharedPreferences, so a retry after a network drop or process death resumes the
+ *     file instead of starting from zero; finished files are not uploaded again.
+ *     Before uploading, the files' SHA-256 is looked up in ImageHashIndex: a photo the
+ *     provider already uploaded reuses its URLs and nothing is sent.
+ *  3. Patches imageUrl / imageThumbUrl / imageCardUrl / imageHash / placeholder on the service,
+ *     removes the pending marker, releases the replaced image (GC) and refreshes the
+ *     service's leaderboard entries.
+ *
+ * Progress: the worker runs in the foreground, so WorkManager owns the ongoing notification
+ * and removes it on retry, cancel or stop; progress(serviceId) as LiveData for any screen.
+ **********************************************************************************************************/
+public class ImageUploadWorker extends Worker {
+
+    private static final String TAG = "ImageUploadWorker";
+
+    public static final String WORK_TAG = "image-upload";
+    public static final String KEY_PROGRESS = "progress";
+    public static final int PROGRESS_FAILED = -1;
+
+    private static final String KEY_PROVIDER_ID = "providerId";
+    private static final String KEY_SERVICE_ID = "serviceId";
+    private static final String KEY_DIR = "dir";
+    private static final String KEY_BLUR_HASH = "blurHash";
+    private static final String KEY_COLOR = "color";
+    private static final int NO_COLOR = -1;   // colors are 0xRRGGBB, never negative
+
+    private static final int MAX_ATTEMPTS = 6;
+    private static final String PENDING_DIR = "pending_uploads";
+    private static final String STAGED_PREFIX = "staged_";
+    private static final long STAGED_MAX_AGE_MS = TimeUnit.DAYS.toMillis(1);
+    private static final String PREFS = "image_upload_sessions";
+    private static final String URL_SUFFIX = ".url";
+    private static final String CHANNEL_ID = "image_uploads";
+
+    private int lastProgress = -1;
+    private boolean foreground;          // WorkManager shows the progress notification
+    private volatile boolean finished;   // late progress callbacks must not re-post it
+
+    public ImageUploadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    // =======================================================================================
+    // STAGE (encoding on the background pool, callback on the main thread)
+    // Reads the picked photo while the caller still holds the picker's URI grant and
+    // writes its renditions under files/pending_uploads/, so nothing later needs the URI.
+    // =======================================================================================
+    public static void stage(Context context, Uri source, OnStagedListener listener) {
+        Context app = context.getApplicationContext();
+        AppExecutors.background().execute(() -> {
+            File root = new File(app.getFilesDir(), PENDING_DIR);
+            deleteAbandonedStaging(root);
+
+            File dir = new File(root, STAGED_PREFIX + System.currentTimeMillis());
+            try {
+                ImageRenditions.Processed processed = writeRenditions(app, source, dir);
+                StagedImage staged = new StagedImage(dir,
+                        processed != null ? processed.blurHash : null,
+                        processed != null ? processed.color : null);
+                AppExecutors.mainThread().execute(() -> listener.onStaged(staged));
+            } catch (IOException e) {
+                Log.e(TAG, "Could not read the selected image", e);
+                deleteRecursively(dir);
+                AppExecutors.mainThread().execute(() -> listener.onError(e.getMessage()));
+            }
+        });
+    }
+
+    // The service save failed: drop the staged files
+    public static void discard(StagedImage staged) {
+        AppExecutors.background().execute(() -> deleteRecursively(staged.dir));
+    }
+
+    // =======================================================================================
+    // ENQUEUE (main thread, right after the service was saved with imageStatus = "pending")
+    // Only moves the staged folder and queues the work, so the caller may finish() after it.
+    // =======================================================================================
+    public static void enqueue(Context context, StagedImage staged, String providerId, String serviceId) {
+        Context app = context.getApplicationContext();
+        File root = new File(app.getFilesDir(), PENDING_DIR);
+        deletePreviousUploads(app, root, serviceId);   // the REPLACE below cancels their work
+
+        File dir = new File(root, serviceId + "_" + System.currentTimeMillis());
+        if (!staged.dir.renameTo(dir)) dir = staged.dir;
+
+        Data input = new Data.Builder()
+                .putString(KEY_PROVIDER_ID, providerId)
+                .putString(KEY_SERVICE_ID, serviceId)
+                .putString(KEY_DIR, dir.getAbsolutePath())
+                .putString(KEY_BLUR_HASH, staged.blurHash)
+                .putInt(KEY_COLOR, staged.color != null ? staged.color : NO_COLOR)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(ImageUploadWorker.class)
+                .setInputData(input)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .addTag(WORK_TAG)
+                .build();
+        WorkManager.getInstance(app)
+                .enqueueUniqueWork(uniqueName(serviceId), ExistingWorkPolicy.REPLACE, request);
+    }
+
+    // A photo encoded into app storage, waiting for its service to be saved
+    public static final class StagedImage {
+        final File dir;
+        public final String blurHash;    // null if the format could not be decoded
+        public final Integer color;
+
+        StagedImage(File dir, String blurHash, Integer color) {
+            this.dir = dir;
+            this.blurHash = blurHash;
+            this.color = color;
+        }
+    }
+
+    public interface OnStagedListener {
+        void onStaged(StagedImage staged);
+        void onError(String error);
+    }
+
+    // Renditions, or the original bytes as "full" if the format cannot be decoded (returns null)
+    private static ImageRenditions.Processed writeRenditions(Context context, Uri source, File dir) throws IOException {
+        if (!dir.mkdirs() && !dir.isDirectory()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        try {
+            ImageRenditions.Processed processed = ImageRenditions.create(context.getContentResolver(), source);
+            for (ImageRenditions.Rendition rendition : processed.renditions) {
+                try (OutputStream out = new FileOutputStream(new File(dir, rendition.name + "." + rendition.extension))) {
+                    out.write(rendition.bytes);
+                }
+            }
+            return processed;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Rendition encoding failed, uploading original", e);
+            deleteContents(dir);
+            try (InputStream in = context.getContentResolver().openInputStream(source);
+                 OutputStream out = new FileOutputStream(new File(dir, ImageRenditions.FULL + ".jpg"))) {
+                if (in == null) throw new IOException("Cannot open " + source);
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            return null;
+        }
+    }
+
+    // =======================================================================================
+    // PROGRESS AS LIVEDATA
+    // =======================================================================================
+
+    // 0..100 while queued / running, 100 when done, PROGRESS_FAILED, or null if no upload
+    public static LiveData<Integer> progress(Context context, String serviceId) {
+        LiveData<List<WorkInfo>> source = WorkManager.getInstance(context.getApplicationContext())
+                .getWorkInfosForUniqueWorkLiveData(uniqueName(serviceId));
+        MediatorLiveData<Integer> progress = new MediatorLiveData<>();
+        progress.addSource(source, infos -> progress.setValue(progressOf(infos)));
+        return progress;
+    }
+
+    // Number of finished uploads WorkManager still remembers; grows when an image lands
+    public static LiveData<Integer> completedCount(Context context) {
+        LiveData<List<WorkInfo>> source = WorkManager.getInstance(context.getApplicationContext())
+                .getWorkInfosByTagLiveData(WORK_TAG);
+        MediatorLiveData<Integer> completed = new MediatorLiveData<>();
+        completed.addSource(source, infos -> {
+            int count = 0;
+            for (WorkInfo info : infos) {
+                if (info.getState() == WorkInfo.State.SUCCEEDED) count++;
+            }
+            completed.setValue(count);
+        });
+        return completed;
+    }
+
+    private static Integer progressOf(List<WorkInfo> infos) {
+        if (infos == null || infos.isEmpty()) return null;
+        WorkInfo info = infos.get(infos.size() - 1);
+        switch (info.getState()) {
+            case SUCCEEDED:
+                return 100;
+            case FAILED:
+            case CANCELLED:
+                return PROGRESS_FAILED;
+            case RUNNING:
+                return info.getProgress().getInt(KEY_PROGRESS, 0);
+            default:
+                return 0;
+        }
+    }
+
+    // =======================================================================================
+    // WORK (WorkManager background thread; blocking calls are fine here)
+    // =======================================================================================
+    @NonNull
+    @Override
+    public Result doWork() {
+        String providerId = getInputData().getString(KEY_PROVIDER_ID);
+        String serviceId = getInputData().getString(KEY_SERVICE_ID);
+        String dirPath = getInputData().getString(KEY_DIR);
+        if (providerId == null || serviceId == null || dirPath == null) return Result.failure();
+
+        File dir = new File(dirPath);
+        File[] files = dir.listFiles();
+        if (files == null || files.length == 0) {
+            clearPendingMarker(providerId, serviceId);
+            return Result.failure();
+        }
+
+        long total = 0;
+        for (File file : files) total += file.length();
+
+        foreground = startForeground(serviceId);
+        String indexedHash = null;   // serviceId is listed in this index entry
+        try {
+            // Same photo already uploaded by this provider: reuse its URLs, upload nothing
+            String hash = ImageHashIndex.sha256(files);
+            Map<String, String> urls = Tasks.await(ImageHashIndex.acquire(providerId, hash, serviceId));
+            if (urls != null) indexedHash = hash;
+
+            if (urls == null) {
+                Map<String, String> uploaded = new HashMap<>();
+                List<String> paths = new ArrayList<>();
+                long done = 0;
+                for (File file : files) {
+                    String path = storagePath(providerId, dir.getName(), file);
+                    uploaded.put(renditionName(file), uploadFile(path, dir.getName(), serviceId, file, done, total));
+                    paths.add(path);
+                    done += file.length();
+                }
+                urls = Tasks.await(ImageHashIndex.register(providerId, hash, uploaded, paths, serviceId));
+                indexedHash = hash;
+                if (urls != uploaded) ImageHashIndex.deleteObjects(paths);   // lost the race: drop our copy
+            }
+            int color = getInputData().getInt(KEY_COLOR, NO_COLOR);
+            patchService(providerId, serviceId, urls, hash,
+                    getInputData().getString(KEY_BLUR_HASH), color != NO_COLOR ? color : null);
+
+            clearSessions(dir.getName(), files);
+            deleteRecursively(dir);
+            notifyFinished(serviceId, true);
+            return Result.success(new Data.Builder().putInt(KEY_PROGRESS, 100).build());
+
+        } catch (IOException | ExecutionException | InterruptedException e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            Log.w(TAG, "Upload attempt " + (getRunAttemptCount() + 1) + " failed", e);
+
+            if (isStopped() || getRunAttemptCount() + 1 < MAX_ATTEMPTS) {
+                return Result.retry();   // sessions are kept, the next attempt resumes
+            }
+            clearPendingMarker(providerId, serviceId);
+            // The service never got this imageHash, so nothing else would release the files
+            if (indexedHash != null) ImageHashIndex.releaseAbandoned(providerId, indexedHash, serviceId);
+            clearSessions(dir.getName(), files);
+            deleteRecursively(dir);
+            notifyFinished(serviceId, false);
+            return Result.failure(new Data.Builder().putInt(KEY_PROGRESS, PROGRESS_FAILED).build());
+        } finally {
+            finished = true;
+            cancelProgress(serviceId);
+        }
+    }
+
+    // REPLACE cancelled the work, or the constraints no longer hold
+    @Override
+    public void onStopped() {
+        finished = true;
+        String serviceId = getInputData().getString(KEY_SERVICE_ID);
+        if (serviceId != null) cancelProgress(serviceId);
+    }
+
+    // Upload one file, resuming a previous session if there is one; returns its download URL
+    private String uploadFile(String path, String uploadName, String serviceId, File file,
+                              long doneBefore, long total) throws ExecutionException, InterruptedException {
+        SharedPreferences prefs = getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        String key = uploadName + "/" + file.getName();
+
+        String finishedUrl = prefs.getString(key + URL_SUFFIX, null);
+        if (finishedUrl != null) return finishedUrl;
+
+        StorageReference ref = StorageHelper.storageRef().child(path);
+        String session = prefs.getString(key, null);
+        Uri fileUri = Uri.fromFile(file);
+        UploadTask task = session != null
+                ? ref.putFile(fileUri, StorageHelper.renditionMetadata(contentType(file)), Uri.parse(session))
+                : ref.putFile(fileUri, StorageHelper.renditionMetadata(contentType(file)));
+
+        String[] savedSession = {session};
+        task.addOnProgressListener(Runnable::run, snapshot -> {
+            Uri sessionUri = snapshot.getUploadSessionUri();
+            if (sessionUri != null && !sessionUri.toString().equals(savedSession[0])) {
+                savedSession[0] = sessionUri.toString();
+                prefs.edit().putString(key, savedSession[0]).apply();
+            }
+            reportProgress(serviceId, doneBefore + snapshot.getBytesTransferred(), total);
+        });
+
+        try {
+            Tasks.await(task);
+        } catch (ExecutionException e) {
+            // Expired / unknown session: start this file over on the next attempt
+            if (session != null && e.getCause() instanceof StorageException) {
+                int code = ((StorageException) e.getCause()).getHttpResultCode();
+                if (code == 404 || code == 410) prefs.edit().remove(key).apply();
+            }
+            throw e;
+        }
+
+        String url = Tasks.await(ref.getDownloadUrl()).toString();
+        prefs.edit().remove(key).putString(key + URL_SUFFIX, url).apply();
+        return url;
+    }
+
+    // Path: /service_images/{providerId}/{serviceId}_{time}_{rendition}.{webp|jpg}
+    private static String storagePath(String providerId, String uploadName, File file) {
+        return "service_images/" + providerId + "/" + uploadName + "_" + file.getName();
+    }
+
+    private static void patchService(String providerId, String serviceId, Map<String, String> urls, String hash,
+                                     String blurHash, Integer color)
+            throws ExecutionException, InterruptedException {
+        DocumentReference doc = serviceDoc(providerId, serviceId);
+        DocumentSnapshot before = Tasks.await(doc.get());
+        String previousHash = before.getString("imageHash");
+
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("imageUrl", urls.get(ImageRenditions.FULL));
+        patch.put("imageThumbUrl", urls.get(ImageRenditions.THUMB));
+        patch.put("imageCardUrl", urls.get(ImageRenditions.CARD));
+        patch.put("imageHash", hash);
+        patch.put("imageBlurHash", blurHash);
+        patch.put("imageColor", color);
+        patch.put("imageStatus", FieldValue.delete());
+
+        if (!before.exists()) {
+            ImageHashIndex.release(providerId, hash, serviceId);   // service deleted while uploading
+            return;
+        }
+        try {
+            Tasks.await(doc.update(patch));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FirebaseFirestoreException
+                    && ((FirebaseFirestoreException) e.getCause()).getCode() == FirebaseFirestoreException.Code.NOT_FOUND) {
+                ImageHashIndex.release(providerId, hash, serviceId);
+                return;
+            }
+            throw e;
+        }
+
+        // The replaced photo may now be unused
+        if (previousHash != null && !previousHash.equals(hash)) {
+            ImageHashIndex.release(providerId, previousHash, serviceId);
+        }
+
+        // Leaderboard entries carry a copy of the image fields
+        DocumentSnapshot snapshot = Tasks.await(doc.get());
+        ProviderService service = snapshot.toObject(ProviderService.class);
+        if (service != null) {
+            service.setId(serviceId);
+            new LeaderboardDatabase().onServiceSaved(providerId, service, service.getCategories());
+        }
+    }
+
+    // Upload abandoned: drop the marker so the card shows the placeholder, not "pending" forever
+    private static void clearPendingMarker(String providerId, String serviceId) {
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("imageStatus", FieldValue.delete());
+        serviceDoc(providerId, serviceId).update(patch)
+                .addOnFailureListener(e -> Log.w(TAG, "Could not clear pending image marker", e));
+    }
+
+    private static DocumentReference serviceDoc(String providerId, String serviceId) {
+        return FirestoreHelper.getInstance()
+                .collection(FirestoreHelper.COLLECTION_PROVIDERS)
+                .document(providerId)
+                .collection("services")
+                .document(serviceId);
+    }
+
+    // =======================================================================================
+    // NOTIFICATION + PROGRESS
+    // =======================================================================================
+    private void reportProgress(String serviceId, long transferred, long total) {
+        int progress = total > 0 ? (int) Math.min(100, 100 * transferred / total) : 0;
+        if (progress == lastProgress || finished || isStopped()) return;
+        lastProgress = progress;
+
+        setProgressAsync(new Data.Builder().putInt(KEY_PROGRESS, progress).build());
+
+        Notification notification = progressNotification(progress);
+        if (foreground) {
+            setForegroundAsync(foregroundInfo(serviceId, notification));
+        } else {
+            notify(getApplicationContext(), progressId(serviceId), notification);
+        }
+    }
+
+    // Foreground while uploading; refused e.g. when started from the background on Android 12+,
+    // then the worker posts the notification itself and cancels it on every exit
+    private boolean startForeground(String serviceId) {
+        try {
+            setForegroundAsync(foregroundInfo(serviceId, progressNotification(0))).get();
+            return true;
+        } catch (ExecutionException | IllegalStateException e) {
+            Log.w(TAG, "Uploading without a foreground notification", e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static ForegroundInfo foregroundInfo(String serviceId, Notification notification) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            return new ForegroundInfo(progressId(serviceId), notification,
+                    ServiceInfo.FOREGROUND_SERVICE_TYPE_DATA_SYNC);
+        }
+        return new ForegroundInfo(progressId(serviceId), notification);
+    }
+
+    private Notification progressNotification(int progress) {
+        Context context = getApplicationContext();
+        createChannel(context);
+        return new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(android.R.drawable.stat_sys_upload)
+                .setContentTitle(context.getString(R.string.message_uploading_image_progress, progress))
+                .setProgress(100, progress, false)
+                .setOnlyAlertOnce(true)
+                .setOngoing(true)
+                .build();
+    }
+
+    private void cancelProgress(String serviceId) {
+        NotificationManagerCompat.from(getApplicationContext()).cancel(progressId(serviceId));
+    }
+
+    // Own id: WorkManager removes the foreground notification when the work ends
+    private void notifyFinished(String serviceId, boolean success) {
+        Context context = getApplicationContext();
+        notify(context, finishedId(serviceId), new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(success ? android.R.drawable.stat_sys_upload_done : android.R.drawable.stat_notify_error)
+                .setContentTitle(context.getString(success
+                        ? R.string.success_image_uploaded : R.string.dialog_title_upload_failed))
+                .setAutoCancel(true)
+                .build());
+    }
+
+    private static void notify(Context context, int id, Notification notification) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            return;   // progress is still available through progress()
+        }
+        createChannel(context);
+        NotificationManagerCompat.from(context).notify(id, notification);
+    }
+
+    private static void createChannel(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationManager manager = context.getSystemService(NotificationManager.class);
+            manager.createNotificationChannel(new NotificationChannel(CHANNEL_ID,
+                    context.getString(R.string.notification_channel_uploads), NotificationManager.IMPORTANCE_LOW));
+        }
+    }
+
+    private static int progressId(String serviceId) {
+        return serviceId.hashCode();
+    }
+
+    private static int finishedId(String serviceId) {
+        return ("done-" + serviceId).hashCode();
+    }
+
+    // =======================================================================================
+    // FILE HELPERS
+    // =======================================================================================
+    private static String uniqueName(String serviceId) {
+        return WORK_TAG + "-" + serviceId;
+    }
+
+    // "thumb.webp" -> "thumb"
+    private static String renditionName(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String contentType(File file) {
+        return file.getName().endsWith(".webp") ? "image/webp" : "image/jpeg";
+    }
+
+    private void clearSessions(String uploadName, File[] files) {
+        SharedPreferences.Editor editor = getApplicationContext()
+                .getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit();
+        for (File file : files) {
+            String key = uploadName + "/" + file.getName();
+            editor.remove(key).remove(key + URL_SUFFIX);
+        }
+        editor.apply();
+    }
+
+    private static void deletePreviousUploads(Context context, File root, String serviceId) {
+        File[] previous = root.listFiles((parent, name) -> name.startsWith(serviceId + "_"));
+        if (previous == null) return;
+        SharedPreferences.Editor editor = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit();
+        for (File dir : previous) {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    String key = dir.getName() + "/" + file.getName();
+                    editor.remove(key).remove(key + URL_SUFFIX);
+                }
+            }
+            deleteRecursively(dir);
+        }
+        editor.apply();
+    }
+
+    // Staged photos whose service save never completed (failed, or the process died)
+    private static void deleteAbandonedStaging(File root) {
+        File[] staged = root.listFiles((parent, name) -> name.startsWith(STAGED_PREFIX));
+        if (staged == null) return;
+        long cutoff = System.currentTimeMillis() - STAGED_MAX_AGE_MS;
+        for (File dir : staged) {
+            if (dir.lastModified() < cutoff) deleteRecursively(dir);
+        }
+    }
+
+    private static void deleteContents(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            if (!file.delete()) Log.w(TAG, "Could not delete " + file);
+        }
+    }
+
+    private static void deleteRecursively(File dir) {
+        deleteContents(dir);
+        if (dir.exists() && !dir.delete()) Log.w(TAG, "Could not delete " + dir);
+    }
+}
@@ -0,0 +1,300 @@
+package edu.sjsu.android.servicesfinder.database;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.sjsu.android.servicesfinder.controller.RatingScoreService;
+import edu.sjsu.android.servicesfinder.model.Provider;
+import edu.sjsu.android.servicesfinder.model.ProviderService;
+
+/* ***********************************************************************************************
+ * LeaderboardDatabase - per-category "top providers" documents
+ *
+ * leaderboards/{categoryId} = {
+ *     category: "cat.hair_care",
+ *     updatedAt: 1700000000000,
+ *     entries: [ {providerId, serviceId, score, providerName, serviceTitle, ...}, ... ]   // top K
+ * }
+ *
+ * Entries carry the card fields, so a category chip can render its first screen from a
+ * single document read. Documents are maintained incrementally:
+ *  - after a review is saved  -> re-score every Active service of that provider
+ *  - after a service is saved -> upsert it in its categories, remove it from dropped ones
+ *  - after a provider is deleted -> remove its services
+ *  - after an account migration -> re-upsert the cloned services under the new provider id
+ *************************************************************************************************/
+public class LeaderboardDatabase {
+
+    private static final String TAG = "LeaderboardDatabase";
+    private static final String COLLECTION_LEADERBOARDS = "leaderboards";
+
+    // Number of services kept per category
+    public static final int TOP_K = 50;
+
+    private final FirebaseFirestore db;
+
+    public LeaderboardDatabase() {
+        this.db = FirestoreHelper.getInstance();
+    }
+
+    // =========================================================
+    // READ ONE LEADERBOARD (1 document read)
+    // Returns Provider -> services, in leaderboard order
+    // =========================================================
+    public void getLeaderboard(String category, OnLeaderboardLoadedListener listener) {
+        db.collection(COLLECTION_LEADERBOARDS)
+                .document(category)
+                .get()
+                .addOnSuccessListener(doc -> {
+                    Map<String, Provider> providersById = new HashMap<>();
+                    Map<Provider, List<ProviderService>> result = new LinkedHashMap<>();
+
+                    for (Map<String, Object> entry : readEntries(doc)) {
+                        String providerId = (String) entry.get("providerId");
+                        Provider provider = providersById.get(providerId);
+                        if (provider == null) {
+                            provider = entryToProvider(entry);
+                            providersById.put(providerId, provider);
+                            result.put(provider, new ArrayList<>());
+                        }
+                        result.get(provider).add(entryToService(entry));
+                    }
+
+                    listener.onLeaderboardLoaded(result);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error loading leaderboard " + category, e);
+                    listener.onError(e.getMessage());
+                });
+    }
+
+    // =========================================================
+    // AFTER A REVIEW: re-score all Active services of the provider
+    // =========================================================
+    public void onProviderRatingChanged(String providerId) {
+        DocumentReference providerRef = db.collection(FirestoreHelper.COLLECTION_PROVIDERS).document(providerId);
+
+        providerRef.get()
+                .addOnSuccessListener(providerDoc -> providerRef.collection("services")
+                        .whereEqualTo("status", "Active")
+                        .get()
+                        .addOnSuccessListener(servicesSnapshot -> {
+                            for (QueryDocumentSnapshot serviceDoc : servicesSnapshot) {
+                                ProviderService service = serviceDoc.toObject(ProviderService.class);
+                                service.setId(serviceDoc.getId());
+
+                                Map<String, Object> entry = buildEntry(providerDoc, service);
+                                for (String category : service.getCategories()) {
+                                    upsertEntry(category, service.getId(), entry);
+                                }
+                            }
+                        })
+                        .addOnFailureListener(e -> Log.e(TAG, "Error loading services for leaderboard", e)))
+                .addOnFailureListener(e -> Log.e(TAG, "Error loading provider for leaderboard", e));
+    }
+
+    // =========================================================
+    // AFTER A SERVICE SAVE: upsert in current categories and
+    // remove from categories the service no longer belongs to
+    // =========================================================
+    public void onServiceSaved(String providerId, ProviderService service, List<String> previousCategories) {
+        db.collection(FirestoreHelper.COLLECTION_PROVIDERS)
+                .document(providerId)
+                .get()
+                .addOnSuccessListener(providerDoc -> {
+                    List<String> current = service.getCategories();
+                    boolean active = "Active".equals(service.getStatus());
+                    Map<String, Object> entry = buildEntry(providerDoc, service);
+
+                    for (String category : current) {
+                        upsertEntry(category, service.getId(), active ? entry : null);
+                    }
+                    for (String category : previousCategories) {
+                        if (!current.contains(category)) {
+                            upsertEntry(category, service.getId(), null);
+                        }
+                    }
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Error loading provider for leaderboard", e));
+    }
+
+    // =========================================================
+    // AFTER A PROVIDER IS DELETED: remove its services' entries.
+    // Matched on the provider id too: an account migration deletes
+    // the old provider after cloning its service ids to the new one.
+    // =========================================================
+    public void onProviderDeleted(String providerId, List<ProviderService> services) {
+        for (ProviderService service : services) {
+            for (String category : service.getCategories()) {
+                updateEntry(category, service.getId(), providerId, null);
+            }
+        }
+    }
+
+    // =========================================================
+    // AFTER AN ACCOUNT MIGRATION: the cloned services replace the
+    // old provider's entries (same service ids, new provider id)
+    // =========================================================
+    public void onServicesMoved(String toProviderId) {
+        onProviderRatingChanged(toProviderId);
+    }
+
+    // =========================================================
+    // TRANSACTIONAL UPSERT (entry == null removes the service)
+    // =========================================================
+    private void upsertEntry(String category, String serviceId, Map<String, Object> entry) {
+        updateEntry(category, serviceId, null, entry);
+    }
+
+    // providerId != null: only an entry of that provider is replaced / removed
+    private void updateEntry(String category, String serviceId, String providerId, Map<String, Object> entry) {
+        if (category == null || category.isEmpty() || serviceId == null) return;
+
+        DocumentReference ref = db.collection(COLLECTION_LEADERBOARDS).document(category);
+
+        db.runTransaction(transaction -> {
+                    DocumentSnapshot doc = transaction.get(ref);
+                    List<Map<String, Object>> entries = readEntries(doc);
+
+                    boolean wasListed = entries.removeIf(e -> serviceId.equals(e.get("serviceId"))
+                            && (providerId == null || providerId.equals(e.get("providerId"))));
+
+                    if (entry == null) {
+                        if (!wasListed) return null;  // nothing to remove
+                    } else {
+                        // Full board and the service does not beat the last entry: no write
+                        if (!wasListed && entries.size() >= TOP_K
+                                && scoreOf(entry) <= scoreOf(entries.get(entries.size() - 1))) {
+                            return null;
+                        }
+                        entries.add(entry);
+                    }
+
+                    entries.sort((a, b) -> {
+                        int byScore = Double.compare(scoreOf(b), scoreOf(a));
+                        return byScore != 0 ? byScore : Long.compare(timestampOf(b), timestampOf(a));
+                    });
+                    if (entries.size() > TOP_K) {
+                        entries = new ArrayList<>(entries.subList(0, TOP_K));
+                    }
+
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("category", category);
+                    data.put("updatedAt", System.currentTimeMillis());
+                    data.put("entries", entries);
+                    transaction.set(ref, data);
+                    return null;
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Error updating leaderboard " + category, e));
+    }
+
+    // =========================================================
+    // HELPER METHODS
+    // =========================================================
+    private Map<String, Object> buildEntry(DocumentSnapshot providerDoc, ProviderService service) {
+        Long ratingCount = providerDoc.getLong("ratingCount");
+        Double ratingSum = providerDoc.getDouble("ratingSum");
+        double score = RatingScoreService.bayesianScore(
+                ratingCount != null ? ratingCount : 0,
+                ratingSum != null ? ratingSum : 0);
+
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("providerId", providerDoc.getId());
+        entry.put("providerName", providerDoc.getString("fullName"));
+        entry.put("providerEmail", providerDoc.getString("email"));
+        entry.put("providerPhone", providerDoc.getString("phone"));
+        entry.put("providerAddress", providerDoc.getString("address"));
+        entry.put("serviceId", service.getId());
+        entry.put("serviceTitle", service.getServiceTitle());
+        entry.put("description", service.getDescription());
+        entry.put("pricing", service.getPricing());
+        entry.put("category", service.getCategory());
+        entry.put("serviceArea", service.getServiceArea());
+        entry.put("availability", service.getAvailability());
+        entry.put("contactPreference", service.getContactPreference());
+        entry.put("imageUrl", service.getImageUrl());
+        entry.put("imageThumbUrl", service.getImageThumbUrl());
+        entry.put("imageCardUrl", service.getImageCardUrl());
+        entry.put("imageBlurHash", service.getImageBlurHash());
+        entry.put("imageColor", service.getImageColor());
+        entry.put("timestamp", service.getTimestamp());
+        entry.put("score", score);
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> readEntries(DocumentSnapshot doc) {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        if (doc != null && doc.exists()) {
+            Object raw = doc.get("entries");
+            if (raw instanceof List) {
+                for (Object item : (List<Object>) raw) {
+                    if (item instanceof Map) {
+                        entries.add(new HashMap<>((Map<String, Object>) item));
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static double scoreOf(Map<String, Object> entry) {
+        Object score = entry.get("score");
+        return score instanceof Number ? ((Number) score).doubleValue() : 0;
+    }
+
+    private static long timestampOf(Map<String, Object> entry) {
+        Object timestamp = entry.get("timestamp");
+        return timestamp instanceof Number ? ((Number) timestamp).longValue() : 0;
+    }
+
+    private static Provider entryToProvider(Map<String, Object> entry) {
+        Provider provider = new Provider();
+        provider.setId((String) entry.get("providerId"));
+        provider.setFullName((String) entry.get("providerName"));
+        provider.setEmail((String) entry.get("providerEmail"));
+        provider.setPhone((String) entry.get("providerPhone"));
+        provider.setAddress((String) entry.get("providerAddress"));
+        return provider;
+    }
+
+    private static ProviderService entryToService(Map<String, Object> entry) {
+        ProviderService service = new ProviderService();
+        service.setId((String) entry.get("serviceId"));
+        service.setProviderId((String) entry.get("providerId"));
+        service.setServiceTitle((String) entry.get("serviceTitle"));
+        service.setDescription((String) entry.get("description"));
+        service.setPricing((String) entry.get("pricing"));
+        service.setCategory((String) entry.get("category"));
+        service.setServiceArea((String) entry.get("serviceArea"));
+        service.setAvailability((String) entry.get("availability"));
+        service.setContactPreference((String) entry.get("contactPreference"));
+        service.setImageUrl((String) entry.get("imageUrl"));
+        service.setImageThumbUrl((String) entry.get("imageThumbUrl"));
+        service.setImageCardUrl((String) entry.get("imageCardUrl"));
+        service.setImageBlurHash((String) entry.get("imageBlurHash"));
+        Object imageColor = entry.get("imageColor");
+        service.setImageColor(imageColor instanceof Number ? ((Number) imageColor).intValue() : null);
+        service.setTimestamp(timestampOf(entry));
+        service.setStatus("Active");
+        return service;
+    }
+
+    // =========================================================
+    // CALLBACK INTERFACES
+    // =========================================================
+    public interface OnLeaderboardLoadedListener {
+        void onLeaderboardLoaded(Map<Provider, List<ProviderService>> providerServiceMap);
+        void onError(String errorMessage);
+    }
+}
@@ -5,12 +5,16 @@ import android.util.Log;
 
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import edu.sjsu.android.servicesfinder.R;
 import edu.sjsu.android.servicesfinder.model.Provider;
+import edu.sjsu.android.servicesfinder.model.ProviderService;
 
 /* ***********************************************************************************************
  * ProviderDatabase - Data Access Layer for Provider operations
@@ -166,9 +170,20 @@ public class ProviderDatabase {
                 .collection("services")
                 .get()
                 .addOnSuccessListener(query -> {
+                    List<ProviderService> deleted = new ArrayList<>();
                     for (DocumentSnapshot doc : query.getDocuments()) {
                         doc.getReference().delete();
+                        // Image files are deleted once no other service uses them
+                        ImageHashIndex.release(providerId, doc.getString("imageHash"), doc.getId());
+
+                        ProviderService service = doc.toObject(ProviderService.class);
+                        if (service != null) {
+                            service.setId(doc.getId());
+                            deleted.add(service);
+                        }
                     }
+                    // Category chips must not keep showing the deleted services
+                    new LeaderboardDatabase().onProviderDeleted(providerId, deleted);
 
                     // Step 2: Delete the provider document itself
                     db.collection(COLLECTION_PROVIDERS)
@@ -207,10 +222,33 @@ public class ProviderDatabase {
                                     .set(serviceData);
                         }
                     }
-                    listener.onSuccess("Services cloned");
+                    new LeaderboardDatabase().onServicesMoved(toProviderId);
+                    moveImageIndex(fromProviderId, toProviderId, listener);
+                })
+                .addOnFailureListener(e -> {
+                    listener.onError("Failed to clone services: " + e.getMessage());
+                });
+    }
+
+    // The image hash index moves with the services, before the old provider is deleted:
+    // otherwise deleteProvider() would garbage-collect files the cloned services still use
+    private void moveImageIndex(String fromProviderId, String toProviderId, OnProviderOperationListener listener) {
+        ImageHashIndex.hashes(fromProviderId)
+                .get()
+                .addOnSuccessListener(query -> {
+                    WriteBatch batch = db.batch();
+                    for (DocumentSnapshot doc : query.getDocuments()) {
+                        Map<String, Object> entry = doc.getData();
+                        if (entry == null) continue;
+                        batch.set(ImageHashIndex.hashes(toProviderId).document(doc.getId()), entry);
+                        batch.delete(doc.getReference());
+                    }
+                    batch.commit()
+                            .addOnSuccessListener(aVoid -> listener.onSuccess("Services cloned"))
+                            .addOnFailureListener(e -> listener.onError("Failed to clone services: " + e.getMessage()));
                 })
                 .addOnFailureListener(e -> {
                     listener.onError("Failed to clone services: " + e.getMessage());
                 });
     }
-}
\ No newline at end of file
+}
@@ -3,19 +3,30 @@ package edu.sjsu.android.servicesfinder.database;
 import android.content.Context;
 import android.util.Log;
 
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
 import edu.sjsu.android.servicesfinder.controller.FirestoreStringTranslator;
-import edu.sjsu.android.servicesfinder.controller.HomeController;
+import edu.sjsu.android.servicesfinder.model.CategorySelection;
 import edu.sjsu.android.servicesfinder.model.Provider;
 import edu.sjsu.android.servicesfinder.model.ProviderService;
 
@@ -34,6 +45,16 @@ public class ProviderServiceDatabase {
     private final FirebaseFirestore db;
     private final Context context;
 
+    // Most ids a single whereIn filter accepts
+    private static final int WHERE_IN_LIMIT = 30;
+
+    // Service fields an edit writes while its new photo is still uploading
+    // (the image* fields are left to ImageUploadWorker)
+    private static final List<String> FIELDS_EXCEPT_IMAGE = Arrays.asList(
+            "providerId", "serviceTitle", "description", "pricing", "category", "categories",
+            "serviceArea", "availability", "contactPreference", "imageStatus",
+            "timestamp", "status", "rating");
+
     public ProviderServiceDatabase(Context context) {
         this.db = FirestoreHelper.getInstance();
         this.context = context.getApplicationContext();
@@ -97,6 +118,179 @@ public class ProviderServiceDatabase {
                 });
     }
 
+    /* **********************************************************************************
+     * Load only the given providers (e.g. a customer's favorites) with their Active services
+     * Providers are read in whereIn chunks of WHERE_IN_LIMIT ids, then one services query
+     * per provider found: cost grows with the number of ids, not with the marketplace.
+     *
+     * Cache first: onSuccess() fires with the locally cached data (if any providers are
+     * cached), then again with the server result. onError() only if nothing was shown.
+     * A provider whose services query fails on the server keeps its cached entry; with no
+     * cached entry the server result is not delivered (it would drop that provider).
+     * The map keeps the order of providerIds.
+     ************************************************************************************/
+    public void getProvidersWithServicesByIds(List<String> providerIds, OnProvidersWithServicesLoadedListener listener) {
+        List<String> ids = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(providerIds)) {
+            if (id != null && !id.isEmpty()) ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            listener.onSuccess(new LinkedHashMap<>());
+            return;
+        }
+
+        loadProvidersByIds(ids, Source.CACHE, null).addOnCompleteListener(cacheTask -> {
+            boolean shownFromCache = cacheTask.isSuccessful() && !cacheTask.getResult().isEmpty();
+            if (shownFromCache) {
+                listener.onSuccess(cacheTask.getResult());
+            }
+
+            Map<Provider, List<ProviderService>> cached = cacheTask.isSuccessful()
+                    ? cacheTask.getResult() : new LinkedHashMap<>();
+            loadProvidersByIds(ids, Source.DEFAULT, cached)
+                    .addOnSuccessListener(listener::onSuccess)
+                    .addOnFailureListener(e -> {
+                        Log.w("ProviderServiceDatabase", "Refreshing providers by id failed", e);
+                        if (!shownFromCache) {
+                            listener.onError(FirestoreHelper.handleFirestoreError(context, e));
+                        }
+                    });
+        });
+    }
+
+    // cached == null: a provider whose services query fails is left out (not in the cache).
+    // Otherwise it keeps its entry from cached, and the whole load fails if it has none.
+    private Task<Map<Provider, List<ProviderService>>> loadProvidersByIds(List<String> ids, Source source,
+                                                                         Map<Provider, List<ProviderService>> cached) {
+        return loadProviderDocs(ids, source).continueWithTask(docsTask -> {
+            Map<String, DocumentSnapshot> providerDocs = docsTask.getResult();
+
+            // Services of each provider found, in the requested order
+            List<DocumentSnapshot> found = new ArrayList<>();
+            List<Task<QuerySnapshot>> serviceTasks = new ArrayList<>();
+            for (String id : ids) {
+                DocumentSnapshot providerDoc = providerDocs.get(id);
+                if (providerDoc == null) continue;   // deleted provider still in the list
+                found.add(providerDoc);
+                serviceTasks.add(providerDoc.getReference()
+                        .collection("services")
+                        .whereEqualTo("status", "Active")
+                        .get(source));
+            }
+
+            return Tasks.whenAllComplete(serviceTasks).continueWith(servicesTask -> {
+                Map<Provider, List<ProviderService>> result = new LinkedHashMap<>();
+                for (int i = 0; i < found.size(); i++) {
+                    Task<QuerySnapshot> task = serviceTasks.get(i);
+                    if (!task.isSuccessful()) {
+                        if (cached == null) continue;
+                        Map.Entry<Provider, List<ProviderService>> previous = findEntry(cached, found.get(i).getId());
+                        if (previous == null) {
+                            throw task.getException() != null ? task.getException()
+                                    : new IllegalStateException("Services query cancelled");
+                        }
+                        result.put(previous.getKey(), previous.getValue());
+                        continue;
+                    }
+
+                    List<ProviderService> services = new ArrayList<>();
+                    for (DocumentSnapshot serviceDoc : task.getResult().getDocuments()) {
+                        services.add(documentToProviderService(serviceDoc));
+                    }
+                    // Only add providers that have services
+                    if (!services.isEmpty()) {
+                        result.put(documentToProvider(found.get(i)), services);
+                    }
+                }
+                return result;
+            });
+        });
+    }
+
+    private static Map.Entry<Provider, List<ProviderService>> findEntry(Map<Provider, List<ProviderService>> map,
+                                                                        String providerId) {
+        for (Map.Entry<Provider, List<ProviderService>> entry : map.entrySet()) {
+            if (providerId.equals(entry.getKey().getId())) return entry;
+        }
+        return null;
+    }
+
+    // Provider documents by id, read in whereIn chunks of WHERE_IN_LIMIT
+    private Task<Map<String, DocumentSnapshot>> loadProviderDocs(List<String> ids, Source source) {
+        List<Task<QuerySnapshot>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += WHERE_IN_LIMIT) {
+            List<String> chunk = ids.subList(start, Math.min(ids.size(), start + WHERE_IN_LIMIT));
+            chunks.add(db.collection(FirestoreHelper.COLLECTION_PROVIDERS)
+                    .whereIn(FieldPath.documentId(), new ArrayList<>(chunk))
+                    .get(source));
+        }
+
+        return Tasks.whenAllSuccess(chunks).continueWith(chunksTask -> {
+            Map<String, DocumentSnapshot> providerDocs = new HashMap<>();
+            for (Object snapshot : chunksTask.getResult()) {
+                for (DocumentSnapshot doc : ((QuerySnapshot) snapshot).getDocuments()) {
+                    providerDocs.put(doc.getId(), doc);
+                }
+            }
+            return providerDocs;
+        });
+    }
+
+    /* **********************************************************************************
+     * One page of a category's Active services across all providers, in document order
+     * (the ranked top of a category comes from LeaderboardDatabase; this is "show more").
+     * Pass startAfter = null for the first page, then the cursor returned by the previous
+     * page. The page's providers are read in whereIn chunks.
+     * Uses the index services(status ASC, categories CONTAINS).
+     ************************************************************************************/
+    public void getCategoryServicesPage(String categoryId, DocumentSnapshot startAfter, int pageSize,
+                                        OnCategoryPageLoadedListener listener) {
+        Query query = db.collectionGroup("services")
+                .whereEqualTo("status", "Active")
+                .whereArrayContains("categories", categoryId)
+                .limit(pageSize);
+
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+
+        query.get()
+                .addOnSuccessListener(servicesSnapshot -> {
+                    List<DocumentSnapshot> docs = servicesSnapshot.getDocuments();
+                    DocumentSnapshot lastVisible = docs.isEmpty() ? startAfter : docs.get(docs.size() - 1);
+                    boolean hasMore = docs.size() == pageSize;
+
+                    // providers/{providerId}/services/{serviceId}, grouped by provider
+                    Map<String, List<ProviderService>> servicesByProvider = new LinkedHashMap<>();
+                    for (DocumentSnapshot serviceDoc : docs) {
+                        String providerId = serviceDoc.getReference().getParent().getParent().getId();
+                        List<ProviderService> services = servicesByProvider.get(providerId);
+                        if (services == null) {
+                            services = new ArrayList<>();
+                            servicesByProvider.put(providerId, services);
+                        }
+                        services.add(documentToProviderService(serviceDoc));
+                    }
+
+                    loadProviderDocs(new ArrayList<>(servicesByProvider.keySet()), Source.DEFAULT)
+                            .addOnSuccessListener(providerDocs -> {
+                                Map<Provider, List<ProviderService>> page = new LinkedHashMap<>();
+                                for (Map.Entry<String, List<ProviderService>> entry : servicesByProvider.entrySet()) {
+                                    DocumentSnapshot providerDoc = providerDocs.get(entry.getKey());
+                                    if (providerDoc != null) {
+                                        page.put(documentToProvider(providerDoc), entry.getValue());
+                                    }
+                                }
+                                listener.onPageLoaded(page, lastVisible, hasMore);
+                            })
+                            .addOnFailureListener(e -> listener.onError(FirestoreHelper.handleFirestoreError(context, e)));
+                })
+                .addOnFailureListener(e -> {
+                    Log.e("ProviderServiceDatabase", "Error loading category page", e);
+                    listener.onError(FirestoreHelper.handleFirestoreError(context, e));
+                });
+    }
+
     /* ***************************************************************************************
      * Search providers and services by keyword
      * Searches in: provider name, service title, service description, category, service area
@@ -228,6 +422,29 @@ public class ProviderServiceDatabase {
                     listener.onError(FirestoreHelper.handleFirestoreError(context, e));
                 });
     }
+    // =========================================================
+    // COUNT ACTIVE SERVICES (server-side aggregation, 1 read)
+    // category = catalogue id ("cat.hair_care"), or null/empty for all.
+    // Uses the "categories" array written when a service is saved;
+    // older services get it from scripts/backfill-service-categories.js
+    // =========================================================
+    public void countActiveServices(String category, OnCountLoadedListener listener) {
+        Query query = db.collectionGroup("services")
+                .whereEqualTo("status", "Active");
+
+        if (category != null && !category.isEmpty()) {
+            query = query.whereArrayContains("categories", category);
+        }
+
+        query.count()
+                .get(AggregateSource.SERVER)
+                .addOnSuccessListener(snapshot -> listener.onCountLoaded(snapshot.getCount()))
+                .addOnFailureListener(e -> {
+                    Log.e("ProviderServiceDatabase", "Error counting services", e);
+                    listener.onError(FirestoreHelper.handleFirestoreError(context, e));
+                });
+    }
+
     // =========================================================
     // HELPER METHODS
     // =========================================================
@@ -246,8 +463,7 @@ public class ProviderServiceDatabase {
         // Category — CLEAN FIRST → THEN TRANSLATE → SEARCH
         if (service.getCategory() != null) {
             // Extract only categories that actually have services
-            HomeController controller = new HomeController(context);
-            String cleaned = controller.extractProviderCategoryWithServices(service.getCategory());
+            String cleaned = CategorySelection.parse(service.getCategory()).withServicesText();
 
             // Translate the cleaned string
             FirestoreStringTranslator translator = FirestoreStringTranslator.get(context);
@@ -268,17 +484,19 @@ public class ProviderServiceDatabase {
         return false;
     }
 
-    private Provider documentToProvider(DocumentSnapshot doc) {
+    static Provider documentToProvider(DocumentSnapshot doc) {
         Provider provider = new Provider();
         provider.setId(doc.getId());
         provider.setFullName(doc.getString("fullName"));
         provider.setEmail(doc.getString("email"));
         provider.setPhone(doc.getString("phone"));
         provider.setAddress(doc.getString("address"));
+        provider.setRatingCount(doc.getLong("ratingCount"));
+        provider.setRatingSum(doc.getDouble("ratingSum"));
         return provider;
     }
 
-    private ProviderService documentToProviderService(QueryDocumentSnapshot doc) {
+    static ProviderService documentToProviderService(DocumentSnapshot doc) {
         ProviderService service = new ProviderService();
         service.setId(doc.getId());
         service.setProviderId(doc.getString("providerId"));
@@ -290,6 +508,18 @@ public class ProviderServiceDatabase {
         service.setAvailability(doc.getString("availability"));
         service.setContactPreference(doc.getString("contactPreference"));
         service.setImageUrl(doc.getString("imageUrl"));
+        service.setImageThumbUrl(doc.getString("imageThumbUrl"));
+        service.setImageCardUrl(doc.getString("imageCardUrl"));
+        service.setImageStatus(doc.getString("imageStatus"));
+        service.setImageBlurHash(doc.getString("imageBlurHash"));
+        Long imageColor = doc.getLong("imageColor");
+        service.setImageColor(imageColor != null ? imageColor.intValue() : null);
+
+        @SuppressWarnings("unchecked")
+        List<String> categories = (List<String>) doc.get("categories");
+        if (categories != null) {
+            service.setCategories(categories);
+        }
 
         Long timestamp = doc.getLong("timestamp");
         if (timestamp != null) {
@@ -308,6 +538,16 @@ public class ProviderServiceDatabase {
         void onError(String errorMessage);
     }
 
+    public interface OnCategoryPageLoadedListener {
+        void onPageLoaded(Map<Provider, List<ProviderService>> page, DocumentSnapshot lastVisible, boolean hasMore);
+        void onError(String errorMessage);
+    }
+
+    public interface OnCountLoadedListener {
+        void onCountLoaded(long count);
+        void onError(String errorMessage);
+    }
+
     // =========================================================
     // FIRESTORE SAVE / UPDATE
     // =========================================================
@@ -325,16 +565,37 @@ public class ProviderServiceDatabase {
 
     public void updateService(String providerId, String serviceId, ProviderService service,
                               OnServiceSaveListener listener) {
+        // merge keeps the rating aggregates written by ReviewDatabase.saveReview().
+        // While a new photo is pending, the current image stays until
+        // ImageUploadWorker patches it (or stays for good if the upload fails).
+        SetOptions options = ProviderService.IMAGE_PENDING.equals(service.getImageStatus())
+                ? SetOptions.mergeFields(FIELDS_EXCEPT_IMAGE)
+                : SetOptions.merge();
+
         FirebaseFirestore db = FirestoreHelper.getInstance();
         db.collection("providers")
                 .document(providerId)
                 .collection("services")
                 .document(serviceId)
-                .set(service)
+                .set(service, options)
                 .addOnSuccessListener(v -> listener.onSuccess(serviceId))
                 .addOnFailureListener(e -> listener.onError(e.getMessage()));
     }
 
+    // The service's image was removed or replaced outside ImageUploadWorker: the stored
+    // imageHash no longer describes it. Released only once the field is gone, so the
+    // document never points at files the index already deleted.
+    public void dropImageHash(String providerId, String serviceId, String hash) {
+        FirestoreHelper.getInstance()
+                .collection("providers")
+                .document(providerId)
+                .collection("services")
+                .document(serviceId)
+                .update("imageHash", FieldValue.delete())
+                .addOnSuccessListener(v -> ImageHashIndex.release(providerId, hash, serviceId))
+                .addOnFailureListener(e -> Log.w("ProviderServiceDatabase", "Could not drop image hash", e));
+    }
+
     // Callback interface for save/update result
     public interface OnServiceSaveListener {
         void onSuccess(String serviceId);
@@ -3,17 +3,40 @@ package edu.sjsu.android.servicesfinder.database;
 import android.content.Context;
 import android.util.Log;
 
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateField;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.Source;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 import edu.sjsu.android.servicesfinder.model.Review;
 
 public class ReviewDatabase {
     private static final String TAG = "ReviewDatabase";
+    private static final String COLLECTION_REVIEWS = "reviews";
+
+    // Number of reviews fetched per page on the detail screen
+    public static final int REVIEW_PAGE_SIZE = 10;
+
+    // serviceId of reviews not tied to one service (written before reviews were
+    // tagged, or from a screen without a service); shown with every service of the provider
+    public static final String PROVIDER_WIDE = "";
+
+    // Recounts before giving up when reviews keep arriving during a backfill
+    private static final int BACKFILL_ATTEMPTS = 3;
+
     private final FirebaseFirestore db;
 
     public ReviewDatabase() {
@@ -24,11 +47,48 @@ public class ReviewDatabase {
     // SAVE REVIEW
     // =========================================================
     public void saveReview(Review review, OnReviewSaveListener listener) {
-        db.collection("reviews")
-                .add(review)
-                .addOnSuccessListener(docRef -> {
-                    review.setId(docRef.getId());
-                    listener.onSuccess(docRef.getId());
+        if (review.getServiceId() == null) {
+            review.setServiceId(PROVIDER_WIDE);
+        }
+
+        DocumentReference reviewRef = db.collection(COLLECTION_REVIEWS).document();
+        DocumentReference providerRef = db.collection(FirestoreHelper.COLLECTION_PROVIDERS)
+                .document(review.getProviderId());
+        DocumentReference serviceRef = !PROVIDER_WIDE.equals(review.getServiceId())
+                ? providerRef.collection("services").document(review.getServiceId())
+                : null;
+
+        // Review + provider aggregates in one transaction so ratingCount/ratingSum
+        // on the provider document always match the stored reviews.
+        // Older provider documents have no aggregates yet: leave them absent so
+        // backfillRatingAggregates() can compute them from all reviews, and bump
+        // reviewWrites so a backfill racing this review knows to recount.
+        // Service aggregates only ever count reviews tagged with a serviceId,
+        // so they can start from zero on any service document.
+        db.runTransaction(transaction -> {
+                    DocumentSnapshot provider = transaction.get(providerRef);
+                    DocumentSnapshot service = serviceRef != null ? transaction.get(serviceRef) : null;
+
+                    transaction.set(reviewRef, review);
+                    if (provider.contains("ratingCount") && provider.contains("ratingSum")) {
+                        transaction.update(providerRef,
+                                "ratingCount", FieldValue.increment(1),
+                                "ratingSum", FieldValue.increment(review.getRating()));
+                    } else if (provider.exists()) {
+                        transaction.update(providerRef, "reviewWrites", FieldValue.increment(1));
+                    }
+                    if (service != null && service.exists()) {
+                        transaction.update(serviceRef,
+                                "ratingCount", FieldValue.increment(1),
+                                "ratingSum", FieldValue.increment(review.getRating()),
+                                "ratingHistogram." + histogramBucket(review.getRating()), FieldValue.increment(1));
+                    }
+                    return null;
+                })
+                .addOnSuccessListener(unused -> {
+                    review.setId(reviewRef.getId());
+                    new LeaderboardDatabase().onProviderRatingChanged(review.getProviderId());
+                    listener.onSuccess(reviewRef.getId());
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error saving review", e);
@@ -36,58 +96,227 @@ public class ReviewDatabase {
                 });
     }
 
+    // Star bucket "1".."5" for the histogram map (half stars round up)
+    private static String histogramBucket(float rating) {
+        return String.valueOf(Math.max(1, Math.min(5, Math.round(rating))));
+    }
+
+    // =========================================================
+    // BACKFILL PROVIDER AGGREGATES (older provider documents)
+    // Counts the provider's reviews with one aggregation query and
+    // writes ratingCount/ratingSum if they are still missing. The
+    // write only happens if no review was saved since the provider
+    // was read (reviewWrites unchanged); otherwise it recounts.
+    // =========================================================
+    public void backfillRatingAggregates(String providerId, OnRatingAggregatesListener listener) {
+        DocumentReference providerRef = db.collection(FirestoreHelper.COLLECTION_PROVIDERS).document(providerId);
+        backfillRatingAggregates(providerRef, BACKFILL_ATTEMPTS, listener);
+    }
+
+    private void backfillRatingAggregates(DocumentReference providerRef, int attemptsLeft,
+                                          OnRatingAggregatesListener listener) {
+        AggregateField.SumAggregateField ratingSum = AggregateField.sum("rating");
+        Query reviews = db.collection(COLLECTION_REVIEWS)
+                .whereEqualTo("providerId", providerRef.getId())
+                .whereEqualTo("status", "Active");
+
+        providerRef.get(Source.SERVER)
+                .continueWithTask(read -> {
+                    DocumentSnapshot before = read.getResult();
+                    if (!before.exists()) {
+                        return Tasks.forException(new IllegalStateException("Provider not found"));
+                    }
+                    if (before.contains("ratingCount") && before.contains("ratingSum")) {
+                        return Tasks.forResult(RatingTotals.of(before));
+                    }
+                    Long writesSeen = before.getLong("reviewWrites");
+
+                    return reviews.aggregate(AggregateField.count(), ratingSum)
+                            .get(AggregateSource.SERVER)
+                            .continueWithTask(counted -> {
+                                long count = counted.getResult().getCount();
+                                Number total = counted.getResult().get(ratingSum);
+                                double sum = total != null ? total.doubleValue() : 0;
+
+                                return db.runTransaction(transaction -> {
+                                    DocumentSnapshot provider = transaction.get(providerRef);
+                                    if (!provider.exists()) return null;
+                                    if (provider.contains("ratingCount") && provider.contains("ratingSum")) {
+                                        return RatingTotals.of(provider);   // backfilled meanwhile
+                                    }
+                                    if (!Objects.equals(writesSeen, provider.getLong("reviewWrites"))) {
+                                        return null;                        // a review landed after the count
+                                    }
+                                    transaction.update(providerRef,
+                                            "ratingCount", count,
+                                            "ratingSum", sum);
+                                    return new RatingTotals(count, sum);
+                                });
+                            });
+                })
+                .addOnSuccessListener(totals -> {
+                    if (totals != null) {
+                        listener.onAggregatesLoaded(totals.count, totals.sum);
+                    } else if (attemptsLeft > 1) {
+                        backfillRatingAggregates(providerRef, attemptsLeft - 1, listener);
+                    } else {
+                        listener.onError("Reviews changed during backfill");
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error backfilling rating aggregates", e);
+                    listener.onError(e.getMessage());
+                });
+    }
+
+    // Stored or freshly counted provider aggregates
+    private static final class RatingTotals {
+        final long count;
+        final double sum;
+
+        RatingTotals(long count, double sum) {
+            this.count = count;
+            this.sum = sum;
+        }
+
+        static RatingTotals of(DocumentSnapshot provider) {
+            Long count = provider.getLong("ratingCount");
+            Double sum = provider.getDouble("ratingSum");
+            return new RatingTotals(count != null ? count : 0, sum != null ? sum : 0);
+        }
+    }
+
+    // =========================================================
+    // LOAD ONE PAGE OF REVIEWS FOR A PROVIDER (newest first)
+    // Pass startAfter = null for the first page, then the cursor
+    // returned by the previous page. Needs the composite index
+    // reviews(providerId ASC, status ASC, timestamp DESC).
+    // =========================================================
+    public void getReviewsPageForProvider(String providerId, DocumentSnapshot startAfter,
+                                          int pageSize, OnReviewsPageLoadedListener listener) {
+        Query query = db.collection(COLLECTION_REVIEWS)
+                .whereEqualTo("providerId", providerId)
+                .whereEqualTo("status", "Active");
+
+        loadReviewsPage(query, startAfter, pageSize, listener);
+    }
+
     // =========================================================
-    // LOAD REVIEWS FOR A PROVIDER
+    // LOAD ONE PAGE OF REVIEWS FOR A SINGLE SERVICE (newest first)
+    // Reviews tagged with serviceId merged with the provider's
+    // PROVIDER_WIDE reviews in one stream. Needs the composite index
+    // reviews(providerId ASC, serviceId ASC, status ASC, timestamp DESC).
     // =========================================================
-    public void getReviewsForProvider(String providerId, OnReviewsLoadedListener listener) {
-        Log.e("DEBUG_REVIEW", "Querying reviews for providerId = " + providerId);
-        db.collection("reviews")
+    public void getReviewsPageForService(String providerId, String serviceId, DocumentSnapshot startAfter,
+                                         int pageSize, OnReviewsPageLoadedListener listener) {
+        Query query = db.collection(COLLECTION_REVIEWS)
                 .whereEqualTo("providerId", providerId)
-                //.whereEqualTo("status", "Active")
-                //.orderBy("timestamp", Query.Direction.DESCENDING)
-                .get()
+                .whereIn("serviceId", Arrays.asList(serviceId, PROVIDER_WIDE))
+                .whereEqualTo("status", "Active");
+
+        loadReviewsPage(query, startAfter, pageSize, listener);
+    }
+
+    private void loadReviewsPage(Query filtered, DocumentSnapshot startAfter,
+                                 int pageSize, OnReviewsPageLoadedListener listener) {
+        Query query = filtered
+                .orderBy("timestamp", Query.Direction.DESCENDING)
+                .limit(pageSize);
+
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+
+        query.get()
                 .addOnSuccessListener(querySnapshot -> {
                     List<Review> reviews = new ArrayList<>();
                     for (QueryDocumentSnapshot doc : querySnapshot) {
-                        Log.e("DEBUG_REVIEW", "Retrieved doc: " + doc.getData());
                         Review review = doc.toObject(Review.class);
                         review.setId(doc.getId());
                         reviews.add(review);
                     }
-                    Log.e("DEBUG_REVIEW", "Fetched " + reviews.size() + " reviews from DB");
-                    listener.onReviewsLoaded(reviews);
+
+                    List<DocumentSnapshot> docs = querySnapshot.getDocuments();
+                    DocumentSnapshot lastVisible = docs.isEmpty() ? startAfter : docs.get(docs.size() - 1);
+                    boolean hasMore = docs.size() == pageSize;
+
+                    listener.onPageLoaded(reviews, lastVisible, hasMore);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error loading reviews page", e);
+                    listener.onError(e.getMessage());
+                });
+    }
+
+    // =========================================================
+    // SERVICE RATING STATS (1 document read + 1 aggregation)
+    // Same set of reviews as getReviewsPageForService(): the
+    // ratingCount / ratingSum / ratingHistogram kept on
+    // providers/{providerId}/services/{serviceId} by saveReview(),
+    // plus the provider-wide (untagged) reviews counted on the server
+    // =========================================================
+    public void getServiceRatingStats(String providerId, String serviceId, OnServiceRatingLoadedListener listener) {
+        AggregateField.SumAggregateField ratingSum = AggregateField.sum("rating");
+
+        Task<DocumentSnapshot> tagged = db.collection(FirestoreHelper.COLLECTION_PROVIDERS)
+                .document(providerId)
+                .collection("services")
+                .document(serviceId)
+                .get();
+        Task<AggregateQuerySnapshot> untagged = db.collection(COLLECTION_REVIEWS)
+                .whereEqualTo("providerId", providerId)
+                .whereEqualTo("serviceId", PROVIDER_WIDE)
+                .whereEqualTo("status", "Active")
+                .aggregate(AggregateField.count(), ratingSum)
+                .get(AggregateSource.SERVER);
+
+        Tasks.whenAllSuccess(tagged, untagged)
+                .addOnSuccessListener(results -> {
+                    DocumentSnapshot doc = tagged.getResult();
+                    Long count = doc.getLong("ratingCount");
+                    Double sum = doc.getDouble("ratingSum");
+
+                    // Untagged reviews have no buckets: the histogram covers tagged ones only
+                    long[] histogram = new long[5];
+                    for (int stars = 1; stars <= 5; stars++) {
+                        Long bucket = doc.getLong("ratingHistogram." + stars);
+                        histogram[stars - 1] = bucket != null ? bucket : 0;
+                    }
+
+                    Number untaggedSum = untagged.getResult().get(ratingSum);
+                    listener.onRatingLoaded(new RatingStats(
+                            (count != null ? count : 0) + untagged.getResult().getCount(),
+                            (sum != null ? sum : 0) + (untaggedSum != null ? untaggedSum.doubleValue() : 0),
+                            histogram));
                 })
                 .addOnFailureListener(e -> {
-                    Log.e("DEBUG_REVIEW", "Error loading reviews", e);
+                    Log.e(TAG, "Error loading service rating", e);
                     listener.onError(e.getMessage());
                 });
     }
 
     // =========================================================
     // CALCULATE AVERAGE RATING
+    // Runs count/average as one server-side aggregation,
+    // billed as a single read instead of one read per review.
     // =========================================================
     public void getAverageRating(String providerId, OnRatingCalculatedListener listener) {
-        db.collection("reviews")
+        AggregateField.AverageAggregateField averageRating = AggregateField.average("rating");
+
+        db.collection(COLLECTION_REVIEWS)
                 .whereEqualTo("providerId", providerId)
                 .whereEqualTo("status", "Active")
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (querySnapshot.isEmpty()) {
+                .aggregate(AggregateField.count(), averageRating)
+                .get(AggregateSource.SERVER)
+                .addOnSuccessListener(snapshot -> {
+                    int count = (int) snapshot.getCount();
+                    if (count == 0) {
                         listener.onRatingCalculated(0.0f, 0);
                         return;
                     }
 
-                    float totalRating = 0;
-                    int count = 0;
-
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        Review review = doc.toObject(Review.class);
-                        totalRating += review.getRating();
-                        count++;
-                    }
-
-                    float average = totalRating / count;
-                    listener.onRatingCalculated(average, count);
+                    Double average = snapshot.get(averageRating);
+                    listener.onRatingCalculated(average != null ? average.floatValue() : 0.0f, count);
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error calculating rating", e);
@@ -103,8 +332,8 @@ public class ReviewDatabase {
         void onError(String error);
     }
 
-    public interface OnReviewsLoadedListener {
-        void onReviewsLoaded(List<Review> reviews);
+    public interface OnReviewsPageLoadedListener {
+        void onPageLoaded(List<Review> reviews, DocumentSnapshot lastVisible, boolean hasMore);
         void onError(String error);
     }
 
@@ -112,4 +341,33 @@ public class ReviewDatabase {
         void onRatingCalculated(float averageRating, int totalReviews);
         void onError(String error);
     }
+
+    public interface OnRatingAggregatesListener {
+        void onAggregatesLoaded(long ratingCount, double ratingSum);
+        void onError(String error);
+    }
+
+    public interface OnServiceRatingLoadedListener {
+        void onRatingLoaded(RatingStats stats);
+        void onError(String error);
+    }
+
+    // =========================================================
+    // RATING STATS (count, average, 1-5 star histogram)
+    // =========================================================
+    public static class RatingStats {
+        private final long count;
+        private final double sum;
+        private final long[] histogram;     // histogram[0] = 1 star ... histogram[4] = 5 stars
+
+        public RatingStats(long count, double sum, long[] histogram) {
+            this.count = count;
+            this.sum = sum;
+            this.histogram = histogram;
+        }
+
+        public long getCount() { return count; }
+        public double getAverage() { return count > 0 ? sum / count : 0; }
+        public long getStarCount(int stars) { return histogram[stars - 1]; }
+    }
 }
\ No newline at end of file
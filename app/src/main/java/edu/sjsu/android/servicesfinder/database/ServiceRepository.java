@@ -0,0 +1,153 @@
+package edu.sjsu.android.servicesfinder.database;
+
+import android.util.LruCache;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import edu.sjsu.android.servicesfinder.model.Provider;
+import edu.sjsu.android.servicesfinder.model.ProviderService;
+
+/* ***********************************************************************************************
+ * ServiceRepository - process-wide, size-bounded cache of (provider, service) pairs
+ *
+ * Lists put the pair they already hold before opening a detail screen, so the Intent only
+ * carries providerId + serviceId and ServiceDetailActivity renders from memory at once.
+ *  - get():   cached entry or null (LRU, MAX_ENTRIES pairs)
+ *  - load():  provider + service documents in parallel; refreshes the entry
+ *  - stale entries (older than STALE_AFTER_MS) are shown, then refreshed in the background.
+ *    A list's copy has no known age (leaderboard entries can be hours old), so it is stale.
+ * Also remembers the signed-in customer's favorite provider ids, so the heart does not
+ * need a customer read on every detail open; they go stale the same way and are re-read.
+ * Main thread only, like the Firestore callbacks.
+ *************************************************************************************************/
+public final class ServiceRepository {
+
+    public static final long STALE_AFTER_MS = 5 * 60 * 1000L;
+    private static final int MAX_ENTRIES = 200;
+
+    private static final ServiceRepository INSTANCE = new ServiceRepository();
+
+    private final LruCache<String, Entry> entries = new LruCache<>(MAX_ENTRIES);
+
+    // Favorite provider ids of favoritesCustomerId (null = not loaded)
+    private String favoritesCustomerId;
+    private Set<String> favoriteProviderIds;
+    private long favoritesLoadedAt;
+
+    private ServiceRepository() {}
+
+    public static ServiceRepository getInstance() {
+        return INSTANCE;
+    }
+
+    // =========================================================
+    // CACHED PAIR
+    // =========================================================
+    public static final class Entry {
+        public final Provider provider;
+        public final ProviderService service;
+        private final long loadedAt;
+
+        Entry(Provider provider, ProviderService service, long loadedAt) {
+            this.provider = provider;
+            this.service = service;
+            this.loadedAt = loadedAt;
+        }
+
+        public boolean isStale() {
+            return System.currentTimeMillis() - loadedAt > STALE_AFTER_MS;
+        }
+    }
+
+    // =========================================================
+    // SERVICES
+    // =========================================================
+    // A list's copy: shown at once, refreshed on open. A fresh entry from load() is kept.
+    public void putListCopy(Provider provider, ProviderService service) {
+        if (provider == null || service == null || provider.getId() == null || service.getId() == null) return;
+        String key = key(provider.getId(), service.getId());
+        Entry current = entries.get(key);
+        if (current != null && !current.isStale()) return;
+        entries.put(key, new Entry(provider, service, 0));
+    }
+
+    public Entry get(String providerId, String serviceId) {
+        if (providerId == null || serviceId == null) return null;
+        return entries.get(key(providerId, serviceId));
+    }
+
+    // Reads both documents (2 reads, in parallel) and caches the result
+    public void load(String providerId, String serviceId, OnServiceLoadedListener listener) {
+        DocumentReference providerRef = FirestoreHelper.getInstance()
+                .collection(FirestoreHelper.COLLECTION_PROVIDERS)
+                .document(providerId);
+        Task<DocumentSnapshot> providerTask = providerRef.get();
+        Task<DocumentSnapshot> serviceTask = providerRef.collection("services").document(serviceId).get();
+
+        Tasks.whenAllSuccess(providerTask, serviceTask)
+                .addOnSuccessListener(results -> {
+                    DocumentSnapshot providerDoc = providerTask.getResult();
+                    DocumentSnapshot serviceDoc = serviceTask.getResult();
+                    if (!providerDoc.exists() || !serviceDoc.exists()) {
+                        entries.remove(key(providerId, serviceId));
+                        listener.onError("Service not found");
+                        return;
+                    }
+                    Entry entry = new Entry(
+                            ProviderServiceDatabase.documentToProvider(providerDoc),
+                            ProviderServiceDatabase.documentToProviderService(serviceDoc),
+                            System.currentTimeMillis());
+                    entries.put(key(providerId, serviceId), entry);
+                    listener.onSuccess(entry);
+                })
+                .addOnFailureListener(e -> listener.onError(e.getMessage()));
+    }
+
+    // =========================================================
+    // FAVORITES OF THE SIGNED-IN CUSTOMER
+    // =========================================================
+    public void setFavorites(String customerId, Collection<String> providerIds) {
+        favoritesCustomerId = customerId;
+        favoriteProviderIds = providerIds == null ? new HashSet<>() : new HashSet<>(providerIds);
+        favoritesLoadedAt = System.currentTimeMillis();
+    }
+
+    // true when this customer's favorites are unknown or old enough to re-read
+    // (changes made on another device only show up through a re-read)
+    public boolean favoritesStale(String customerId) {
+        return isFavorite(customerId, "") == null
+                || System.currentTimeMillis() - favoritesLoadedAt > STALE_AFTER_MS;
+    }
+
+    // true / false when known for this customer (possibly stale), null if it still has to be read
+    public Boolean isFavorite(String customerId, String providerId) {
+        if (favoriteProviderIds == null || customerId == null || !customerId.equals(favoritesCustomerId)) {
+            return null;
+        }
+        return favoriteProviderIds.contains(providerId);
+    }
+
+    public void updateFavorite(String customerId, String providerId, boolean favorite) {
+        if (favoriteProviderIds == null || customerId == null || !customerId.equals(favoritesCustomerId)) return;
+        if (favorite) favoriteProviderIds.add(providerId); else favoriteProviderIds.remove(providerId);
+    }
+
+    private static String key(String providerId, String serviceId) {
+        return providerId + '/' + serviceId;
+    }
+
+    // =========================================================
+    // CALLBACK INTERFACE
+    // =========================================================
+    public interface OnServiceLoadedListener {
+        void onSuccess(Entry entry);
+        void onError(String errorMessage);
+    }
+}
@@ -1,98 +1,76 @@
 package edu.sjsu.android.servicesfinder.database;
 
-import android.app.ProgressDialog;
-import android.content.Context;
-import android.net.Uri;
-import android.widget.Toast;
-
-import androidx.appcompat.app.AlertDialog;
-
-import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageMetadata;
 import com.google.firebase.storage.StorageReference;
 
-import edu.sjsu.android.servicesfinder.R;
+import edu.sjsu.android.servicesfinder.model.ProviderService;
 
 /* *****************************************************************************************************
  * StorageHelper
  *
  * Handles:
- *  - Uploading image files to Firebase Storage
- *  - Returning a download URL when finished
- *  - Translating errors into user-friendly messages
+ *  - The shared Firebase Storage root reference
+ *  - Metadata for uploaded image renditions
+ *  - UploadedImage: the rendition URLs stored on a service
+ *
+ * The upload itself runs in ImageUploadWorker (WorkManager), so it outlives the
+ * activity and resumes after network drops.
  **********************************************************************************************************/
 public class StorageHelper {
 
-    private static final String TAG = "StorageHelper";
+    // Every upload gets a new file name, so clients may cache renditions forever
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
 
-    // Root reference to Firebase Storage bucket
-    private static final StorageReference storageRef =
-            FirebaseStorage.getInstance().getReference();
+    // Root reference to Firebase Storage bucket, created on first use.
+    // Holder class: lazy, created once, safely published to every thread.
+    private static final class Holder {
+        static final StorageReference ROOT = FirebaseStorage.getInstance().getReference();
+    }
+
+    public static StorageReference storageRef() {
+        return Holder.ROOT;
+    }
 
     // =======================================================================================
-    // Uploads an image file to Firebase Storage.
+    // Metadata for rendition files (uploads run in ImageUploadWorker)
     // =======================================================================================
+    static StorageMetadata renditionMetadata(String contentType) {
+        return new StorageMetadata.Builder()
+                .setContentType(contentType)
+                .setCacheControl(IMMUTABLE_CACHE_CONTROL)
+                .build();
+    }
 
-    public static void uploadImageToFirebase(Context context, Uri imageUri,
-                                             String providerId, OnSuccessListener<String> callback) {
+    // =======================================================================================
+    // Download URLs of one uploaded image (thumb / card may be null for the fallback upload)
+    // =======================================================================================
+    public static final class UploadedImage {
+        public final String thumbUrl;
+        public final String cardUrl;
+        public final String fullUrl;
+        public final String blurHash;   // placeholder fields, null for older images
+        public final Integer color;
 
-        if (imageUri == null) {
-            Toast.makeText(context, context.getString(R.string.error_no_image_selected), Toast.LENGTH_SHORT).show();
-            callback.onSuccess(null);
-            return;
+        public UploadedImage(String thumbUrl, String cardUrl, String fullUrl, String blurHash, Integer color) {
+            this.thumbUrl = thumbUrl;
+            this.cardUrl = cardUrl;
+            this.fullUrl = fullUrl;
+            this.blurHash = blurHash;
+            this.color = color;
         }
 
-        // Show progress dialog
-        ProgressDialog dialog = new ProgressDialog(context);
-        dialog.setMessage(context.getString(R.string.message_uploading_image));
-        dialog.setCancelable(false);
-        dialog.show();
-
-        // File path: /service_images/{providerId}/{timestamp}.jpg
-        String fileName = "service_images/" + providerId + "/" + System.currentTimeMillis() + ".jpg";
-        StorageReference fileRef = storageRef.child(fileName);
-
-        // Begin upload
-        fileRef.putFile(imageUri)
-                .addOnSuccessListener(taskSnapshot -> {
-                    fileRef.getDownloadUrl().addOnSuccessListener(downloadUri -> {
-                        dialog.dismiss();
-                        Toast.makeText(context, context.getString(R.string.success_image_uploaded), Toast.LENGTH_SHORT).show();
-                        callback.onSuccess(downloadUri.toString());
-                    });
-                })
-                .addOnFailureListener(e -> {
-                    dialog.dismiss();
-                    String errorMsg = getImageUploadErrorMessage(context, e);
-                    new AlertDialog.Builder(context)
-                            .setTitle(context.getString(R.string.dialog_title_upload_failed))
-                            .setMessage(context.getString(R.string.dialog_message_continue_without_image, errorMsg))
-                            .setPositiveButton(context.getString(R.string.action_continue), (d, w) -> callback.onSuccess(null))
-                            .setNegativeButton(context.getString(R.string.action_cancel), null)
-                            .show();
-                })
-                .addOnProgressListener(snapshot -> {
-                    double progress = (100.0 * snapshot.getBytesTransferred())
-                            / snapshot.getTotalByteCount();
-                    dialog.setMessage(context.getString(R.string.message_uploading_image_progress, (int) progress));
-                });
-    }
+        // An already-hosted image without renditions (older services)
+        public static UploadedImage single(String url) {
+            return new UploadedImage(null, null, url, null, null);
+        }
 
-    // =======================================================================================
-    // Converts confusing Firebase exceptions into friendly sentences.
-    // =======================================================================================
-    private static String getImageUploadErrorMessage(Context context, Exception e) {
-        String message = e.getMessage();
-        if (message == null) return context.getString(R.string.error_upload_unknown);
-        if (message.contains("permission") || message.contains("PERMISSION_DENIED"))
-            return context.getString(R.string.error_upload_permission_denied);
-        if (message.contains("network") || message.contains("UNAVAILABLE"))
-            return context.getString(R.string.error_upload_network);
-        if (message.contains("quota"))
-            return context.getString(R.string.error_upload_quota);
-        if (message.contains("unauthorized") || message.contains("UNAUTHENTICATED"))
-            return context.getString(R.string.error_upload_unauthorized);
-        return context.getString(R.string.error_upload_failed, message);
+        public void applyTo(ProviderService service) {
+            service.setImageUrl(fullUrl != null ? fullUrl : "");
+            service.setImageThumbUrl(thumbUrl);
+            service.setImageCardUrl(cardUrl);
+            service.setImageBlurHash(blurHash);
+            service.setImageColor(color);
+        }
     }
-
 }
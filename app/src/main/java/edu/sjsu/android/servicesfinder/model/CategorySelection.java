@@ -0,0 +1,165 @@
+package edu.sjsu.android.servicesfinder.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.sjsu.android.servicesfinder.util.Catalogue;
+
+/* ****************************************************************************************
+ * CategorySelection - parsed form of a stored category string
+ *
+ *   "cat.cleaning_maintenance: svc.deep_cleaning, svc.pool_cleaning | cat.plumbing"
+ *      -> [ Entry("cat.cleaning_maintenance", [svc.deep_cleaning, svc.pool_cleaning]),
+ *           Entry("cat.plumbing", []) ]
+ *
+ * Legacy documents store English names in the same grammar and parse the same way.
+ *
+ * Immutable, so one instance is shared by every caller. parse() keeps the most recently
+ * used results in an LRU memo keyed by the raw string: the same category string is split
+ * once, not once per bind / search / translation. Names are interned so equal
+ * categories and services across services share one String.
+ ******************************************************************************************/
+public final class CategorySelection {
+
+    private static final int MEMO_SIZE = 256;
+
+    public static final CategorySelection EMPTY = new CategorySelection(Collections.emptyList());
+
+    // Access-ordered LinkedHashMap = LRU
+    private static final Map<String, CategorySelection> MEMO =
+            new LinkedHashMap<String, CategorySelection>(MEMO_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CategorySelection> eldest) {
+                    return size() > MEMO_SIZE;
+                }
+            };
+
+    private final List<Entry> entries;
+    private final String withServicesText;
+
+    private CategorySelection(List<Entry> entries) {
+        this.entries = entries;
+
+        // Only the segments that have services, joined with " | ";
+        // falls back to the first segment when none has services
+        List<String> parts = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.hasServices()) parts.add(entry.text);
+        }
+        if (!parts.isEmpty()) {
+            this.withServicesText = String.join(" | ", parts);
+        } else {
+            this.withServicesText = entries.isEmpty() ? "" : entries.get(0).text;
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // PARSE (memoized)
+    // ----------------------------------------------------------------------
+    public static CategorySelection parse(String raw) {
+        if (raw == null || raw.trim().isEmpty()) return EMPTY;
+
+        synchronized (MEMO) {
+            CategorySelection cached = MEMO.get(raw);
+            if (cached != null) return cached;
+        }
+
+        CategorySelection parsed = doParse(raw);
+        synchronized (MEMO) {
+            MEMO.put(raw, parsed);
+        }
+        return parsed;
+    }
+
+    private static CategorySelection doParse(String raw) {
+        List<Entry> entries = new ArrayList<>();
+
+        for (String part : raw.split("\\|")) {
+            part = part.trim();
+            if (part.isEmpty()) continue;
+
+            if (!part.contains(":")) {
+                entries.add(new Entry(part.intern(), Collections.emptyList(), part));
+                continue;
+            }
+
+            String[] split = part.split(":", 2);
+            List<String> services = new ArrayList<>();
+            for (String svc : split[1].split(",")) {
+                svc = svc.trim();
+                if (!svc.isEmpty()) services.add(svc.intern());
+            }
+            entries.add(new Entry(split[0].trim().intern(), Collections.unmodifiableList(services), part));
+        }
+
+        return new CategorySelection(Collections.unmodifiableList(entries));
+    }
+
+    // ----------------------------------------------------------------------
+    // QUERIES
+    // ----------------------------------------------------------------------
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    // True if the provider picked at least one service in this category
+    // (stable ids and legacy English names compare equal)
+    public boolean hasServicesIn(String category) {
+        String wanted = Catalogue.categoryId(category);
+        for (Entry entry : entries) {
+            if (entry.hasServices() && Catalogue.categoryId(entry.category).equals(wanted)) return true;
+        }
+        return false;
+    }
+
+    // Categories that have services, in stored order, without duplicates
+    public List<String> categoriesWithServices() {
+        Set<String> result = new LinkedHashSet<>();
+        for (Entry entry : entries) {
+            if (entry.hasServices()) result.add(entry.category);
+        }
+        return new ArrayList<>(result);
+    }
+
+    // "Cat A: x | Cat B | Cat C: y" -> "Cat A: x | Cat C: y"
+    public String withServicesText() {
+        return withServicesText;
+    }
+
+    // Mutable copy: category -> services (legacy Map shape used by the translator/dropdown)
+    public Map<String, Set<String>> toMap() {
+        Map<String, Set<String>> result = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            result.put(entry.category, new LinkedHashSet<>(entry.services));
+        }
+        return result;
+    }
+
+    // =========================================================
+    // ENTRY - one "Category: Service, Service" segment
+    // =========================================================
+    public static final class Entry {
+        private final String category;
+        private final List<String> services;
+        private final String text;         // trimmed segment as stored
+
+        private Entry(String category, List<String> services, String text) {
+            this.category = category;
+            this.services = services;
+            this.text = text;
+        }
+
+        public String getCategory() { return category; }
+        public List<String> getServices() { return services; }
+        public boolean hasServices() { return !services.isEmpty(); }
+    }
+}
@@ -8,6 +8,8 @@ public class Provider {
     private String address;
     private String phone;
     private String password;  // (demo only!)
+    private Long ratingCount; // stored review aggregates (null on older provider docs)
+    private Double ratingSum;
 
     public Provider() {}
 
@@ -58,4 +60,20 @@ public class Provider {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    public Long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(Long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public Double getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(Double ratingSum) {
+        this.ratingSum = ratingSum;
+    }
 }
@@ -1,6 +1,11 @@
 package edu.sjsu.android.servicesfinder.model;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ProviderService {
+    public static final String IMAGE_PENDING = "pending";
+
     private String id;
     private String providerId;
     private String serviceTitle;
@@ -10,10 +15,16 @@ public class ProviderService {
     private String serviceArea;
     private String availability;
     private String contactPreference;
-    private String imageUrl;
+    private String imageUrl;       // full rendition (or the original upload for older services)
+    private String imageThumbUrl;  // small / medium renditions, null for older services
+    private String imageCardUrl;
+    private String imageStatus;    // IMAGE_PENDING while ImageUploadWorker runs, else null
+    private String imageBlurHash;  // placeholder drawn before the image loads (util.BlurHash)
+    private Integer imageColor;    // 0xRRGGBB average color, fallback placeholder
     private long timestamp;
     private String status;   // e.g., "Active" or "Inactive"
     private double rating;   // average rating (for future reviews)
+    private List<String> categories = new ArrayList<>();  // English categories that have services (for counts)
 
 
     public ProviderService() {}
@@ -50,6 +61,21 @@ public class ProviderService {
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
 
+    public String getImageThumbUrl() { return imageThumbUrl; }
+    public void setImageThumbUrl(String imageThumbUrl) { this.imageThumbUrl = imageThumbUrl; }
+
+    public String getImageCardUrl() { return imageCardUrl; }
+    public void setImageCardUrl(String imageCardUrl) { this.imageCardUrl = imageCardUrl; }
+
+    public String getImageStatus() { return imageStatus; }
+    public void setImageStatus(String imageStatus) { this.imageStatus = imageStatus; }
+
+    public String getImageBlurHash() { return imageBlurHash; }
+    public void setImageBlurHash(String imageBlurHash) { this.imageBlurHash = imageBlurHash; }
+
+    public Integer getImageColor() { return imageColor; }
+    public void setImageColor(Integer imageColor) { this.imageColor = imageColor; }
+
     public long getTimestamp() { return timestamp; }
     public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
     public String getStatus() { return status; }
@@ -58,4 +84,7 @@ public class ProviderService {
     public double getRating() { return rating; }
     public void setRating(double rating) { this.rating = rating; }
 
+    public List<String> getCategories() { return categories; }
+    public void setCategories(List<String> categories) { this.categories = categories; }
+
 }
@@ -0,0 +1,60 @@
+package edu.sjsu.android.servicesfinder.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* ****************************************************************************************
+ * AppExecutors - shared threads for work that must stay off the main thread
+ *
+ *   background(): small pool for parsing / formatting / indexing (CPU work, no network)
+ *   mainThread(): posts results back to the UI
+ *
+ * One process-wide pool instead of a thread per screen; threads are daemons with a
+ * background priority so they never compete with rendering.
+ ******************************************************************************************/
+public final class AppExecutors {
+
+    private static final int BACKGROUND_THREADS =
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+    private static final class Holder {
+        static final ExecutorService BACKGROUND =
+                Executors.newFixedThreadPool(BACKGROUND_THREADS, namedThreads("app-bg"));
+        static final Executor MAIN = new Executor() {
+            private final Handler handler = new Handler(Looper.getMainLooper());
+
+            @Override
+            public void execute(Runnable command) {
+                handler.post(command);
+            }
+        };
+    }
+
+    private AppExecutors() {}
+
+    public static ExecutorService background() {
+        return Holder.BACKGROUND;
+    }
+
+    public static Executor mainThread() {
+        return Holder.MAIN;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(() -> {
+                android.os.Process.setThreadPriority(android.os.Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,212 @@
+package edu.sjsu.android.servicesfinder.util;
+
+/* ****************************************************************************************
+ * BlurHash - compact text form of a blurred image (https://blurha.sh, same format)
+ *
+ * Encoded at upload time from a small copy of the photo and stored on the service
+ * (imageBlurHash, ~28 chars for 4x3 components), so a card can paint a blurred preview
+ * straight from the document before any image bytes arrive.
+ *
+ *   encode(): ARGB pixels -> hash   (background thread, a 32px image is plenty)
+ *   decode(): hash -> ARGB pixels   (20x20 is enough; the ImageView scales it up)
+ *   averageColor(): the DC component, used as the dominant color
+ *
+ * Pure Java on int[] pixels so it has no Android dependency.
+ ******************************************************************************************/
+public final class BlurHash {
+
+    private static final String CHARS =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    private BlurHash() {}
+
+    // =========================================================
+    // ENCODE
+    // =========================================================
+    public static String encode(int[] pixels, int width, int height, int componentsX, int componentsY) {
+        if (componentsX < 1 || componentsX > 9 || componentsY < 1 || componentsY > 9) {
+            throw new IllegalArgumentException("BlurHash components must be 1..9");
+        }
+        if (pixels.length < width * height) {
+            throw new IllegalArgumentException("Not enough pixels");
+        }
+
+        // Linear color lookup for the 256 sRGB channel values
+        double[] linear = new double[256];
+        for (int i = 0; i < 256; i++) linear[i] = srgbToLinear(i);
+
+        double[][] factors = new double[componentsX * componentsY][3];
+        for (int j = 0; j < componentsY; j++) {
+            for (int i = 0; i < componentsX; i++) {
+                double normalisation = (i == 0 && j == 0) ? 1 : 2;
+                double r = 0, g = 0, b = 0;
+                for (int y = 0; y < height; y++) {
+                    double cosY = Math.cos(Math.PI * j * y / height);
+                    for (int x = 0; x < width; x++) {
+                        double basis = normalisation * Math.cos(Math.PI * i * x / width) * cosY;
+                        int pixel = pixels[y * width + x];
+                        r += basis * linear[(pixel >> 16) & 0xFF];
+                        g += basis * linear[(pixel >> 8) & 0xFF];
+                        b += basis * linear[pixel & 0xFF];
+                    }
+                }
+                double scale = 1.0 / (width * height);
+                double[] factor = factors[j * componentsX + i];
+                factor[0] = r * scale;
+                factor[1] = g * scale;
+                factor[2] = b * scale;
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        encode83((componentsX - 1) + (componentsY - 1) * 9, 1, hash);
+
+        double maximumValue = 1;
+        if (factors.length > 1) {
+            double actualMaximum = 0;
+            for (int k = 1; k < factors.length; k++) {
+                for (double channel : factors[k]) actualMaximum = Math.max(actualMaximum, Math.abs(channel));
+            }
+            int quantisedMaximum = (int) Math.max(0, Math.min(82, Math.floor(actualMaximum * 166 - 0.5)));
+            maximumValue = (quantisedMaximum + 1) / 166.0;
+            encode83(quantisedMaximum, 1, hash);
+        } else {
+            encode83(0, 1, hash);
+        }
+
+        double[] dc = factors[0];
+        encode83((linearToSrgb(dc[0]) << 16) + (linearToSrgb(dc[1]) << 8) + linearToSrgb(dc[2]), 4, hash);
+        for (int k = 1; k < factors.length; k++) {
+            double[] ac = factors[k];
+            int quantR = quantiseAc(ac[0], maximumValue);
+            int quantG = quantiseAc(ac[1], maximumValue);
+            int quantB = quantiseAc(ac[2], maximumValue);
+            encode83(quantR * 19 * 19 + quantG * 19 + quantB, 2, hash);
+        }
+        return hash.toString();
+    }
+
+    // =========================================================
+    // DECODE (returns null for a malformed hash)
+    // =========================================================
+    public static int[] decode(String hash, int width, int height) {
+        if (!isValid(hash)) return null;
+
+        int sizeFlag = decode83(hash, 0, 1);
+        int componentsY = sizeFlag / 9 + 1;
+        int componentsX = sizeFlag % 9 + 1;
+        double maximumValue = (decode83(hash, 1, 2) + 1) / 166.0;
+
+        double[][] colors = new double[componentsX * componentsY][];
+        colors[0] = decodeDc(decode83(hash, 2, 6));
+        for (int k = 1; k < colors.length; k++) {
+            colors[k] = decodeAc(decode83(hash, 4 + k * 2, 6 + k * 2), maximumValue);
+        }
+
+        // Cosines depend only on (x, i) and (y, j): compute them once
+        double[] cosX = new double[width * componentsX];
+        for (int x = 0; x < width; x++) {
+            for (int i = 0; i < componentsX; i++) cosX[x * componentsX + i] = Math.cos(Math.PI * x * i / width);
+        }
+        double[] cosY = new double[height * componentsY];
+        for (int y = 0; y < height; y++) {
+            for (int j = 0; j < componentsY; j++) cosY[y * componentsY + j] = Math.cos(Math.PI * y * j / height);
+        }
+
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double r = 0, g = 0, b = 0;
+                for (int j = 0; j < componentsY; j++) {
+                    for (int i = 0; i < componentsX; i++) {
+                        double basis = cosX[x * componentsX + i] * cosY[y * componentsY + j];
+                        double[] color = colors[j * componentsX + i];
+                        r += color[0] * basis;
+                        g += color[1] * basis;
+                        b += color[2] * basis;
+                    }
+                }
+                pixels[y * width + x] = 0xFF000000
+                        | (linearToSrgb(r) << 16) | (linearToSrgb(g) << 8) | linearToSrgb(b);
+            }
+        }
+        return pixels;
+    }
+
+    // Average color (0xRRGGBB) of the encoded image, or null for a malformed hash
+    public static Integer averageColor(String hash) {
+        if (!isValid(hash)) return null;
+        return decode83(hash, 2, 6) & 0xFFFFFF;
+    }
+
+    public static boolean isValid(String hash) {
+        if (hash == null || hash.length() < 6) return false;
+        for (int i = 0; i < hash.length(); i++) {
+            if (CHARS.indexOf(hash.charAt(i)) < 0) return false;
+        }
+        int sizeFlag = decode83(hash, 0, 1);
+        int components = (sizeFlag / 9 + 1) * (sizeFlag % 9 + 1);
+        return hash.length() == 4 + 2 * components;
+    }
+
+    // =========================================================
+    // HELPER METHODS
+    // =========================================================
+    private static int quantiseAc(double value, double maximumValue) {
+        return (int) Math.max(0, Math.min(18, Math.floor(signPow(value / maximumValue, 0.5) * 9 + 9.5)));
+    }
+
+    private static double[] decodeDc(int value) {
+        return new double[]{
+                srgbToLinear((value >> 16) & 0xFF),
+                srgbToLinear((value >> 8) & 0xFF),
+                srgbToLinear(value & 0xFF)};
+    }
+
+    private static double[] decodeAc(int value, double maximumValue) {
+        int quantR = value / (19 * 19);
+        int quantG = (value / 19) % 19;
+        int quantB = value % 19;
+        return new double[]{
+                signPow((quantR - 9) / 9.0, 2) * maximumValue,
+                signPow((quantG - 9) / 9.0, 2) * maximumValue,
+                signPow((quantB - 9) / 9.0, 2) * maximumValue};
+    }
+
+    private static double signPow(double value, double exponent) {
+        return Math.copySign(Math.pow(Math.abs(value), exponent), value);
+    }
+
+    private static double srgbToLinear(int value) {
+        double v = value / 255.0;
+        return v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    private static int linearToSrgb(double value) {
+        double v = Math.max(0, Math.min(1, value));
+        return v <= 0.0031308
+                ? (int) (v * 12.92 * 255 + 0.5)
+                : (int) ((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static void encode83(int value, int length, StringBuilder out) {
+        for (int i = 1; i <= length; i++) {
+            int digit = (value / pow83(length - i)) % 83;
+            out.append(CHARS.charAt(digit));
+        }
+    }
+
+    private static int decode83(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 83 + CHARS.indexOf(text.charAt(i));
+        }
+        return value;
+    }
+
+    private static int pow83(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) result *= 83;
+        return result;
+    }
+}
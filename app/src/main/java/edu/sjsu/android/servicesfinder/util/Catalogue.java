@@ -0,0 +1,163 @@
+package edu.sjsu.android.servicesfinder.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/* ****************************************************************************************
+ * Catalogue - category / service names without Resources
+ *
+ * Backed by CatalogueStrings, which the generateCatalogueStrings Gradle task builds
+ * from the strings_catalogue.xml of every values folder. An id is the index of a
+ * cat_* / svc_* resource name; each locale has a collision-free hash table per kind,
+ * so finding the id of a display string is one hash and one probe. Plain Java: safe
+ * on any thread and usable in JVM unit tests.
+ *
+ * Stored data uses stable ids derived from the resource names instead of display text:
+ *      cat_tech_digital_services -> "cat.tech_digital_services"
+ *      svc_computer_repair       -> "svc.computer_repair"
+ * categoryId() / serviceId() also accept legacy English names, so documents written
+ * before the switch keep working until scripts/migrate-catalogue-ids.js rewrites them.
+ ******************************************************************************************/
+public final class Catalogue {
+
+    public static final int KIND_CATEGORY = 0;
+    public static final int KIND_SERVICE = 1;
+
+    // LOCALES[0] is always the default (English) values folder
+    public static final int ENGLISH = 0;
+
+    // Stable id of the "All" chip (cat_all)
+    public static final String ALL_CATEGORY_ID = "cat.all";
+
+    // "cat.hair_care" -> index into KEYS
+    private static final Map<String, Integer> STABLE_IDS = new HashMap<>();
+
+    static {
+        for (int id = 0; id < CatalogueStrings.KEYS.length; id++) {
+            STABLE_IDS.put(stableId(id), id);
+        }
+    }
+
+    private Catalogue() {}
+
+    public static int size() {
+        return CatalogueStrings.KEYS.length;
+    }
+
+    // Resource name of an id, e.g. "cat_hair_care"
+    public static String key(int id) {
+        return CatalogueStrings.KEYS[id];
+    }
+
+    public static boolean isCategory(int id) {
+        return CatalogueStrings.KEYS[id].startsWith("cat_");
+    }
+
+    // ----------------------------------------------------------------------
+    // LOCALES
+    // Exact language-region match first ("es-US"), then language only
+    // ("es" -> "es-US"), otherwise English - same idea as resource fallback.
+    // ----------------------------------------------------------------------
+    public static int localeIndex(Locale locale) {
+        if (locale == null) return ENGLISH;
+
+        String language = locale.getLanguage();
+        String tag = locale.getCountry().isEmpty() ? language : language + "-" + locale.getCountry();
+
+        int languageMatch = -1;
+        for (int i = 0; i < CatalogueStrings.LOCALES.length; i++) {
+            String candidate = CatalogueStrings.LOCALES[i];
+            if (candidate.equalsIgnoreCase(tag)) return i;
+            if (languageMatch < 0 && candidate.split("-")[0].equalsIgnoreCase(language)) {
+                languageMatch = i;
+            }
+        }
+        return languageMatch >= 0 ? languageMatch : ENGLISH;
+    }
+
+    public static int localeCount() {
+        return CatalogueStrings.LOCALES.length;
+    }
+
+    // Locale of a table index, e.g. for a Resources pinned to that language
+    public static Locale locale(int localeIndex) {
+        return Locale.forLanguageTag(CatalogueStrings.LOCALES[localeIndex]);
+    }
+
+    // App language (MainActivity sets the default locale when the language changes)
+    public static int currentLocale() {
+        return localeIndex(Locale.getDefault());
+    }
+
+    // ----------------------------------------------------------------------
+    // LOOKUPS
+    // ----------------------------------------------------------------------
+    public static String displayName(int id, int localeIndex) {
+        return CatalogueStrings.VALUES[localeIndex][id];
+    }
+
+    // Id of a display string in the given locale (case-insensitive), or -1
+    public static int find(int localeIndex, int kind, String text) {
+        if (text == null) return -1;
+
+        String normalized = text.trim().toLowerCase(Locale.ROOT);
+        int[] table = CatalogueStrings.TABLES[localeIndex][kind];
+        int slot = slot(normalized.hashCode(),
+                CatalogueStrings.SEEDS[localeIndex][kind],
+                CatalogueStrings.BITS[localeIndex][kind]);
+
+        int id = table[slot];
+        if (id < 0) return -1;
+
+        // The table is only collision-free for known names - confirm the match
+        String candidate = CatalogueStrings.VALUES[localeIndex][id];
+        return candidate.trim().toLowerCase(Locale.ROOT).equals(normalized) ? id : -1;
+    }
+
+    // ----------------------------------------------------------------------
+    // STABLE IDS
+    // ----------------------------------------------------------------------
+    public static String stableId(int id) {
+        return CatalogueStrings.KEYS[id].replaceFirst("_", ".");
+    }
+
+    public static boolean isStableId(String token) {
+        return token != null && STABLE_IDS.containsKey(token.trim());
+    }
+
+    // Every category id in catalogue order ("cat.all" first)
+    public static List<String> categoryIds() {
+        List<String> ids = new ArrayList<>();
+        for (int id = 0; id < size(); id++) {
+            if (isCategory(id)) ids.add(stableId(id));
+        }
+        return ids;
+    }
+
+    // Index of a stable id or of a legacy English name, or -1
+    public static int resolve(int kind, String token) {
+        if (token == null) return -1;
+        Integer id = STABLE_IDS.get(token.trim());
+        if (id != null) return isCategory(id) == (kind == KIND_CATEGORY) ? id : -1;
+        return find(ENGLISH, kind, token);
+    }
+
+    // Compatibility readers: stable id for an id or legacy English name; unknown names unchanged
+    public static String categoryId(String token) {
+        int id = resolve(KIND_CATEGORY, token);
+        return id >= 0 ? stableId(id) : token;
+    }
+
+    public static String serviceId(String token) {
+        int id = resolve(KIND_SERVICE, token);
+        return id >= 0 ? stableId(id) : token;
+    }
+
+    // Must match slot() in GenerateCatalogueStringsTask (app/build.gradle.kts)
+    static int slot(int hash, int seed, int bits) {
+        return ((hash ^ seed) * 0x9E3779B9) >>> (32 - bits);
+    }
+}
@@ -0,0 +1,247 @@
+package edu.sjsu.android.servicesfinder.util;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/* ****************************************************************************************
+ * ImageRenditions - turns a camera / gallery photo into the sizes the app actually shows
+ *
+ *   thumb : short edge 160px,  WebP q70  (home cards on mdpi..xhdpi)
+ *   card  : short edge 480px,  WebP q80  (home cards on xxhdpi+, favorites, previews)
+ *   full  : long edge 1600px,  JPEG q85  (service detail screen)
+ *
+ * The source is decoded once with inSampleSize (never at camera resolution), rotated
+ * by its EXIF orientation, then scaled down per rendition. A BlurHash and the average
+ * color are taken from the same bitmap for instant placeholders. Blocking: call it from
+ * AppExecutors.background(), never the main thread.
+ ******************************************************************************************/
+public final class ImageRenditions {
+
+    public static final String THUMB = "thumb";
+    public static final String CARD = "card";
+    public static final String FULL = "full";
+
+    // Largest pixel size each rendition is meant for (ServiceCardImages picks by these)
+    public static final int THUMB_PX = 160;
+    public static final int CARD_PX = 480;
+    public static final int FULL_PX = 1600;
+
+    private static final int BLUR_SOURCE_PX = 32;
+
+    private static final List<Spec> SPECS = Collections.unmodifiableList(Arrays.asList(
+            new Spec(THUMB, THUMB_PX, true, true, 70),
+            new Spec(CARD, CARD_PX, true, true, 80),
+            new Spec(FULL, FULL_PX, false, false, 85)));
+
+    private ImageRenditions() {}
+
+    // =========================================================
+    // ENCODED OUTPUT
+    // =========================================================
+    public static final class Rendition {
+        public final String name;          // THUMB / CARD / FULL
+        public final byte[] bytes;
+        public final String contentType;   // "image/webp" or "image/jpeg"
+        public final String extension;     // "webp" or "jpg"
+
+        Rendition(String name, byte[] bytes, boolean webp) {
+            this.name = name;
+            this.bytes = bytes;
+            this.contentType = webp ? "image/webp" : "image/jpeg";
+            this.extension = webp ? "webp" : "jpg";
+        }
+    }
+
+    // Everything produced from one photo
+    public static final class Processed {
+        public final List<Rendition> renditions;
+        public final String blurHash;      // placeholder drawn before any image bytes arrive
+        public final Integer color;        // 0xRRGGBB average color
+
+        Processed(List<Rendition> renditions, String blurHash, Integer color) {
+            this.renditions = renditions;
+            this.blurHash = blurHash;
+            this.color = color;
+        }
+    }
+
+    private static final class Spec {
+        final String name;
+        final int edgePx;
+        final boolean shortEdge;   // true: fill a centerCrop square, false: fit the long edge
+        final boolean webp;
+        final int quality;
+
+        Spec(String name, int edgePx, boolean shortEdge, boolean webp, int quality) {
+            this.name = name;
+            this.edgePx = edgePx;
+            this.shortEdge = shortEdge;
+            this.webp = webp;
+            this.quality = quality;
+        }
+    }
+
+    // =========================================================
+    // PROCESS (background thread)
+    // =========================================================
+    public static Processed create(ContentResolver resolver, Uri source) throws IOException {
+        Bitmap oriented = decodeOriented(resolver, source);
+        try {
+            List<Rendition> renditions = new ArrayList<>(SPECS.size());
+            for (Spec spec : SPECS) {
+                Bitmap scaled = scale(oriented, spec);
+                try {
+                    renditions.add(new Rendition(spec.name, encode(scaled, spec), spec.webp));
+                } finally {
+                    if (scaled != oriented) scaled.recycle();
+                }
+            }
+            String blurHash = blurHash(oriented);
+            return new Processed(renditions, blurHash, BlurHash.averageColor(blurHash));
+        } finally {
+            oriented.recycle();
+        }
+    }
+
+    // 4x3 components from a copy at most BLUR_SOURCE_PX wide; more pixels add nothing
+    private static String blurHash(Bitmap source) {
+        float ratio = Math.min(1f, BLUR_SOURCE_PX / (float) Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, Math.round(source.getHeight() * ratio));
+        Bitmap small = Bitmap.createScaledBitmap(source, width, height, true);
+        try {
+            int[] pixels = new int[width * height];
+            small.getPixels(pixels, 0, width, 0, 0, width, height);
+            return BlurHash.encode(pixels, width, height, 4, 3);
+        } finally {
+            if (small != source) small.recycle();
+        }
+    }
+
+    // Decode at the smallest power-of-two that still covers FULL_PX, then apply EXIF rotation
+    private static Bitmap decodeOriented(ContentResolver resolver, Uri source) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not a decodable image: " + source);
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize(bounds.outWidth, bounds.outHeight, FULL_PX);
+        Bitmap decoded;
+        try (InputStream in = open(resolver, source)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("Not a decodable image: " + source);
+        }
+
+        int orientation;
+        try (InputStream in = open(resolver, source)) {
+            orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        } catch (IOException e) {
+            orientation = ExifInterface.ORIENTATION_NORMAL;   // no EXIF: keep as decoded
+        }
+
+        Matrix matrix = orientationMatrix(orientation);
+        if (matrix == null) return decoded;
+
+        Bitmap rotated = Bitmap.createBitmap(decoded, 0, 0,
+                decoded.getWidth(), decoded.getHeight(), matrix, true);
+        if (rotated != decoded) decoded.recycle();
+        return rotated;
+    }
+
+    // Largest power of two that keeps the long edge >= targetPx
+    static int sampleSize(int width, int height, int targetPx) {
+        int longEdge = Math.max(width, height);
+        int sample = 1;
+        while (longEdge / (sample * 2) >= targetPx) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    private static Matrix orientationMatrix(int orientation) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(270);
+                matrix.postScale(-1, 1);
+                break;
+            default:
+                return null;
+        }
+        return matrix;
+    }
+
+    // Only ever scales down; a small source is encoded at its own size
+    private static Bitmap scale(Bitmap source, Spec spec) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int edge = spec.shortEdge ? Math.min(width, height) : Math.max(width, height);
+        if (edge <= spec.edgePx) return source;
+
+        float ratio = spec.edgePx / (float) edge;
+        int targetWidth = Math.max(1, Math.round(width * ratio));
+        int targetHeight = Math.max(1, Math.round(height * ratio));
+        return Bitmap.createScaledBitmap(source, targetWidth, targetHeight, true);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static byte[] encode(Bitmap bitmap, Spec spec) {
+        Bitmap.CompressFormat format;
+        if (!spec.webp) {
+            format = Bitmap.CompressFormat.JPEG;
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            format = Bitmap.CompressFormat.WEBP_LOSSY;
+        } else {
+            format = Bitmap.CompressFormat.WEBP;   // lossy when quality < 100
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(format, spec.quality, out);
+        return out.toByteArray();
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri source) throws IOException {
+        InputStream in = resolver.openInputStream(source);
+        if (in == null) throw new IOException("Cannot open " + source);
+        return in;
+    }
+}
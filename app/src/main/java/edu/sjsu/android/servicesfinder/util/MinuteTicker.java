@@ -0,0 +1,53 @@
+package edu.sjsu.android.servicesfinder.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* ****************************************************************************************
+ * MinuteTicker - one shared main-thread tick at the start of every wall-clock minute
+ *
+ * Lists with relative times ("5 minutes ago") register while attached and refresh only
+ * their visible rows on each tick. Nothing is scheduled while nobody is registered.
+ ******************************************************************************************/
+public final class MinuteTicker {
+
+    public interface Listener {
+        void onMinuteTick(long now);
+    }
+
+    private static final long MINUTE_MS = 60 * 1000L;
+
+    private static final Handler HANDLER = new Handler(Looper.getMainLooper());
+    private static final List<Listener> LISTENERS = new ArrayList<>();
+    private static final Runnable TICK = MinuteTicker::tick;
+
+    private MinuteTicker() {}
+
+    public static void register(Listener listener) {
+        if (LISTENERS.contains(listener)) return;
+        LISTENERS.add(listener);
+        if (LISTENERS.size() == 1) scheduleNext();
+    }
+
+    public static void unregister(Listener listener) {
+        LISTENERS.remove(listener);
+        if (LISTENERS.isEmpty()) HANDLER.removeCallbacks(TICK);
+    }
+
+    private static void tick() {
+        long now = System.currentTimeMillis();
+        // Copy: a listener may unregister while being notified
+        for (Listener listener : new ArrayList<>(LISTENERS)) {
+            listener.onMinuteTick(now);
+        }
+        if (!LISTENERS.isEmpty()) scheduleNext();
+    }
+
+    private static void scheduleNext() {
+        HANDLER.removeCallbacks(TICK);
+        HANDLER.postDelayed(TICK, MINUTE_MS - System.currentTimeMillis() % MINUTE_MS);
+    }
+}
@@ -23,6 +23,25 @@ public class NetworkHelper {
         return false;
     }
 
+    /**
+     * Check if the active network is metered (mobile data, hotspot); unknown counts as metered
+     */
+    public static boolean isMetered(Context context) {
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        return connectivityManager == null || connectivityManager.isActiveNetworkMetered();
+    }
+
+    /**
+     * Check if the user turned on Data Saver for this app
+     */
+    public static boolean isDataSaverOn(Context context) {
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        return connectivityManager != null && connectivityManager.getRestrictBackgroundStatus()
+                == ConnectivityManager.RESTRICT_BACKGROUND_STATUS_ENABLED;
+    }
+
     /**
      * Get user-friendly network error message
      */
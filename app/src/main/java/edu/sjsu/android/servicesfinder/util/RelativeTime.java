@@ -0,0 +1,56 @@
+package edu.sjsu.android.servicesfinder.util;
+
+import android.content.res.Resources;
+
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import edu.sjsu.android.servicesfinder.R;
+
+/* ****************************************************************************************
+ * RelativeTime - "5 minutes ago" / "3 days ago" / "Mar 5, 2024" in the app language
+ *
+ * Up to 30 days uses the review_time_* plurals; older dates use a medium DateFormat,
+ * created once per locale and reused (main thread only, DateFormat is not thread safe).
+ ******************************************************************************************/
+public final class RelativeTime {
+
+    private static final long MINUTE_MS = 60 * 1000L;
+    private static final long HOUR_MS = 60 * MINUTE_MS;
+    private static final long DAY_MS = 24 * HOUR_MS;
+    private static final int RELATIVE_DAYS = 30;
+
+    private static final Map<Locale, DateFormat> DATE_FORMATS = new HashMap<>();
+
+    private RelativeTime() {}
+
+    public static String format(Resources res, long timestamp, long now) {
+        long diff = Math.max(0, now - timestamp);
+        long days = diff / DAY_MS;
+        long hours = diff / HOUR_MS;
+        long minutes = diff / MINUTE_MS;
+
+        if (days > RELATIVE_DAYS) {
+            return dateFormat(Locale.getDefault()).format(new Date(timestamp));
+        } else if (days > 0) {
+            return res.getQuantityString(R.plurals.review_time_days_ago, (int) days, (int) days);
+        } else if (hours > 0) {
+            return res.getQuantityString(R.plurals.review_time_hours_ago, (int) hours, (int) hours);
+        } else if (minutes > 0) {
+            return res.getQuantityString(R.plurals.review_time_minutes_ago, (int) minutes, (int) minutes);
+        }
+        return res.getString(R.string.review_time_just_now);
+    }
+
+    private static DateFormat dateFormat(Locale locale) {
+        DateFormat format = DATE_FORMATS.get(locale);
+        if (format == null) {
+            format = DateFormat.getDateInstance(DateFormat.MEDIUM, locale);
+            DATE_FORMATS.put(locale, format);
+        }
+        return format;
+    }
+}
@@ -0,0 +1,68 @@
+package edu.sjsu.android.servicesfinder.util;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+
+import java.io.InputStream;
+
+/* ****************************************************************************************
+ * ServicesGlideModule - Glide caches sized to the device class
+ *
+ *   low-RAM / small heap : 1 screen of bitmaps in memory,  64 MB on disk
+ *   regular              : Glide default (2 screens),      150 MB on disk
+ *   large heap (>=256MB) : 3 screens of bitmaps in memory, 250 MB on disk
+ *
+ * The feed shows many small, repeated thumbnails, so a bigger disk cache saves more
+ * network than a bigger memory cache; memory stays modest to avoid GC during scroll.
+ * Firebase Storage URLs are cached by object path, not token (StorageUrlLoader).
+ ******************************************************************************************/
+@GlideModule
+public final class ServicesGlideModule extends AppGlideModule {
+
+    private static final long MB = 1024L * 1024L;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        boolean lowRam = activityManager == null || activityManager.isLowRamDevice()
+                || activityManager.getMemoryClass() < 128;
+        boolean largeHeap = activityManager != null && activityManager.getMemoryClass() >= 256;
+
+        MemorySizeCalculator.Builder memory = new MemorySizeCalculator.Builder(context);
+        long diskBytes = 150 * MB;
+        if (lowRam) {
+            memory.setMemoryCacheScreens(1).setBitmapPoolScreens(1);
+            diskBytes = 64 * MB;
+        } else if (largeHeap) {
+            memory.setMemoryCacheScreens(3);
+            diskBytes = 250 * MB;
+        }
+
+        MemorySizeCalculator calculator = memory.build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setMemorySizeCalculator(calculator);
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, diskBytes));
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.prepend(String.class, InputStream.class, new StorageUrlLoader.Factory());
+    }
+
+    // No legacy manifest modules in this app
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
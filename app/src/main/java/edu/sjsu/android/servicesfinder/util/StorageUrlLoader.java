@@ -0,0 +1,120 @@
+package edu.sjsu.android.servicesfinder.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+
+/* ****************************************************************************************
+ * StorageUrlLoader - Glide disk-cache keys that ignore Firebase Storage access tokens
+ *
+ * A download URL looks like
+ *   https://firebasestorage.googleapis.com/v0/b/{bucket}/o/{path}?alt=media&token={token}
+ * and the token changes when it is revoked or regenerated. Glide keys its disk cache on
+ * the whole URL, so the same bytes were fetched again. Here the key is
+ *   firebase-storage:{bucket}/{path}[#{generation}]
+ * while the real URL (with token) is still what gets downloaded.
+ *
+ * Uploaded objects are never overwritten (every upload has a new name, duplicates reuse
+ * the existing object), so bucket + path already identifies the bytes; a "generation"
+ * query parameter is added to the key when a URL carries one.
+ * Registered for String models in ServicesGlideModule; other URLs fall through.
+ ******************************************************************************************/
+public final class StorageUrlLoader implements ModelLoader<String, InputStream> {
+
+    private static final String HOST_PREFIX = "https://firebasestorage.googleapis.com/v0/b/";
+
+    private final ModelLoader<GlideUrl, InputStream> urlLoader;
+
+    StorageUrlLoader(ModelLoader<GlideUrl, InputStream> urlLoader) {
+        this.urlLoader = urlLoader;
+    }
+
+    @Nullable
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull String model, int width, int height,
+                                               @NonNull Options options) {
+        String key = cacheKey(model);
+        if (key == null) return null;
+        return urlLoader.buildLoadData(new StorageGlideUrl(model, key), width, height, options);
+    }
+
+    @Override
+    public boolean handles(@NonNull String model) {
+        return model.startsWith(HOST_PREFIX);
+    }
+
+    // =========================================================
+    // KEY: "firebase-storage:{bucket}/{path}[#{generation}]" or null if not a Storage URL
+    // =========================================================
+    static String cacheKey(String url) {
+        if (!url.startsWith(HOST_PREFIX)) return null;
+
+        int bucketEnd = url.indexOf("/o/", HOST_PREFIX.length());
+        if (bucketEnd < 0) return null;
+        String bucket = url.substring(HOST_PREFIX.length(), bucketEnd);
+
+        int query = url.indexOf('?', bucketEnd);
+        String encodedPath = query < 0 ? url.substring(bucketEnd + 3) : url.substring(bucketEnd + 3, query);
+        if (encodedPath.isEmpty()) return null;
+
+        StringBuilder key = new StringBuilder("firebase-storage:")
+                .append(bucket).append('/').append(decode(encodedPath));
+        String generation = query < 0 ? null : queryParameter(url.substring(query + 1), "generation");
+        if (generation != null) key.append('#').append(generation);
+        return key.toString();
+    }
+
+    private static String queryParameter(String query, String name) {
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) return pair.substring(eq + 1);
+        }
+        return null;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            return value;   // UTF-8 is always supported
+        }
+    }
+
+    // Downloads the full URL, caches under the token-free key
+    private static final class StorageGlideUrl extends GlideUrl {
+        private final String cacheKey;
+
+        StorageGlideUrl(String url, String cacheKey) {
+            super(url);
+            this.cacheKey = cacheKey;
+        }
+
+        @Override
+        public String getCacheKey() {
+            return cacheKey;
+        }
+    }
+
+    // =========================================================
+    // FACTORY
+    // =========================================================
+    public static final class Factory implements ModelLoaderFactory<String, InputStream> {
+        @NonNull
+        @Override
+        public ModelLoader<String, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new StorageUrlLoader(multiFactory.build(GlideUrl.class, InputStream.class));
+        }
+
+        @Override
+        public void teardown() {}
+    }
+}
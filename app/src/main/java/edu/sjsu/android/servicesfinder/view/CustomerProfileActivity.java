@@ -8,7 +8,8 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
-import java.util.HashMap;
+import com.bumptech.glide.Glide;
+
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +18,7 @@ import edu.sjsu.android.servicesfinder.controller.ServiceCardAdapter;
 import edu.sjsu.android.servicesfinder.controller.SessionManager;
 import edu.sjsu.android.servicesfinder.database.CustomerDatabase;
 import edu.sjsu.android.servicesfinder.database.ProviderServiceDatabase;
+import edu.sjsu.android.servicesfinder.database.ServiceRepository;
 import edu.sjsu.android.servicesfinder.databinding.ActivityCustomerProfileBinding;
 import edu.sjsu.android.servicesfinder.model.Customer;
 import edu.sjsu.android.servicesfinder.model.Provider;
@@ -69,6 +71,7 @@ public class CustomerProfileActivity extends AppCompatActivity implements Servic
         serviceAdapter.setOnServiceClickListener(this);
         binding.favoritesRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         binding.favoritesRecyclerView.setAdapter(serviceAdapter);
+        binding.favoritesRecyclerView.addOnScrollListener(serviceAdapter.createPreloader(Glide.with(this)));
     }
 
     private void setupButtons() {
@@ -106,6 +109,7 @@ public class CustomerProfileActivity extends AppCompatActivity implements Servic
             @Override
             public void onSuccess(Customer customer) {
                 displayCustomerInfo(customer);
+                ServiceRepository.getInstance().setFavorites(customerId, customer.getFavoriteProviders());
                 loadFavoriteServices(customer.getFavoriteProviders());
             }
 
@@ -139,19 +143,11 @@ public class CustomerProfileActivity extends AppCompatActivity implements Servic
             return;
         }
 
-        // Load all providers with services
-        providerServiceDatabase.getAllProvidersWithServices(this, new ProviderServiceDatabase.OnProvidersWithServicesLoadedListener() {
+        // Only the favorited providers (cached copy first, then the server's)
+        providerServiceDatabase.getProvidersWithServicesByIds(favoriteProviderIds, new ProviderServiceDatabase.OnProvidersWithServicesLoadedListener() {
             @Override
-            public void onSuccess(Map<Provider, List<ProviderService>> allProvidersMap) {
-                // Filter to only favorite providers
-                Map<Provider, List<ProviderService>> favoriteProvidersMap = new HashMap<>();
-
-                for (Map.Entry<Provider, List<ProviderService>> entry : allProvidersMap.entrySet()) {
-                    if (favoriteProviderIds.contains(entry.getKey().getId())) {
-                        favoriteProvidersMap.put(entry.getKey(), entry.getValue());
-                    }
-                }
-
+            public void onSuccess(Map<Provider, List<ProviderService>> favoriteProvidersMap) {
+                if (binding == null) return;   // the server refresh can land after onDestroy
                 if (favoriteProvidersMap.isEmpty()) {
                     showEmptyState();
                 } else {
@@ -202,27 +198,7 @@ public class CustomerProfileActivity extends AppCompatActivity implements Servic
     @Override
     public void onServiceClick(ServiceCardAdapter.ServiceItem item) {
         // Navigate to service detail
-        Intent intent = new Intent(this, ServiceDetailActivity.class);
-
-        ProviderService service = item.service;
-        Provider provider = item.provider;
-
-        intent.putExtra("serviceTitle", service.getServiceTitle());
-        intent.putExtra("serviceDescription", service.getDescription());
-        intent.putExtra("servicePricing", service.getPricing());
-        intent.putExtra("serviceCategory", service.getCategory());
-        intent.putExtra("serviceArea", service.getServiceArea());
-        intent.putExtra("serviceAvailability", service.getAvailability());
-        intent.putExtra("serviceContactPreference", service.getContactPreference());
-        intent.putExtra("serviceImageUrl", service.getImageUrl());
-
-        intent.putExtra("providerName", provider.getFullName());
-        intent.putExtra("providerPhone", provider.getPhone());
-        intent.putExtra("providerEmail", provider.getEmail());
-        intent.putExtra("providerAddress", provider.getAddress());
-        intent.putExtra("providerId", provider.getId());
-
-        startActivity(intent);
+        ServiceDetailActivity.open(this, item.provider, item.service);
     }
 
     @Override
@@ -10,25 +10,33 @@
     import android.view.View;
     import android.widget.Toast;
 
+    import androidx.annotation.NonNull;
     import androidx.annotation.Nullable;
+    import androidx.annotation.StringRes;
     import androidx.appcompat.app.AppCompatActivity;
     import androidx.recyclerview.widget.LinearLayoutManager;
+    import androidx.recyclerview.widget.RecyclerView;
 
+    import com.bumptech.glide.Glide;
     import com.google.android.material.chip.Chip;
 
     import java.util.ArrayList;
     import java.util.HashMap;
+    import java.util.LinkedHashMap;
     import java.util.List;
     import java.util.Map;
 
     import edu.sjsu.android.servicesfinder.R;
     import edu.sjsu.android.servicesfinder.controller.HomeController;
+    import edu.sjsu.android.servicesfinder.controller.RatingScoreService;
     import edu.sjsu.android.servicesfinder.controller.ServiceCardAdapter;
     import edu.sjsu.android.servicesfinder.controller.SessionManager;
-    import edu.sjsu.android.servicesfinder.database.ReviewDatabase;
+    import edu.sjsu.android.servicesfinder.database.ImageUploadWorker;
+    import edu.sjsu.android.servicesfinder.database.ProviderServiceDatabase;
     import edu.sjsu.android.servicesfinder.databinding.ActivityMainBinding;
     import edu.sjsu.android.servicesfinder.model.Provider;
     import edu.sjsu.android.servicesfinder.model.ProviderService;
+    import edu.sjsu.android.servicesfinder.util.Catalogue;
 
 
     public class MainActivity extends AppCompatActivity
@@ -37,6 +45,7 @@
             ServiceCardAdapter.OnServiceClickListener {
 
         private static final int SEARCH_DELAY_MS = 300;
+        private static final int LOAD_MORE_THRESHOLD = 5;   // rows from the end of a category list
 
         private ActivityMainBinding binding;
         private HomeController homeController;
@@ -44,14 +53,18 @@
         private Handler searchHandler;
         private Runnable searchRunnable;
 
-        // IMPORTANT: Always English (filter keys must never translate)
-        private final Map<String, String> categoryMap = new HashMap<>();
+        // IMPORTANT: keys are stable catalogue ids (filter keys must never translate)
+        private final Map<String, String> categoryMap = new LinkedHashMap<>();
+
+        // Last chip counts by catalogue id, so a language switch relabels without re-counting
+        private final Map<String, Long> categoryCounts = new HashMap<>();
 
         private String currentSearchQuery = "";
-        private String currentCategoryFilter = "";   // ALWAYS ENGLISH KEY
+        private String currentCategoryFilter = "";   // ALWAYS A CATALOGUE ID ("cat.hair_care")
         private SortOption currentSortOption = SortOption.MOST_RECENT;
-
-        private boolean skipDataReload = false;
+        private int completedUploads = -1;   // ImageUploadWorker successes seen so far
+        @StringRes private int emptyStateRes = 0;   // message shown in the empty state (0 = none)
+        private Object[] emptyStateArgs = new Object[0];
 
         @Override
         protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -78,26 +91,37 @@
             setupCustomerButton();
             setupSortButton();
             setupLanguageButton();
+            observeImageUploads();
             showLoading();
             homeController.loadAllProvidersWithServices();
         }
 
+        // Reload when a background image upload finishes, so its card shows the photo
+        private void observeImageUploads() {
+            ImageUploadWorker.completedCount(this).observe(this, count -> {
+                if (completedUploads >= 0 && count > completedUploads) {
+                    homeController.loadAllProvidersWithServices();
+                }
+                completedUploads = count;
+            });
+        }
+
         // ============================================================
-        // CATEGORY MAP (English keys → translated display)
+        // CATEGORY MAP (catalogue ids → translated display)
         // ============================================================
         private void setupCategoryKeys() {
-            categoryMap.put("All", getString(R.string.cat_all));
-            categoryMap.put("Automotive Services", getString(R.string.cat_automotive_services));
-            categoryMap.put("Child & Elder Care", getString(R.string.cat_child_elder_care));
-            categoryMap.put("Cleaning & Maintenance", getString(R.string.cat_cleaning_maintenance));
-            categoryMap.put("Construction", getString(R.string.cat_construction));
-            categoryMap.put("Hair Care", getString(R.string.cat_hair_care));
-            categoryMap.put("Home Services", getString(R.string.cat_home_services));
-            categoryMap.put("Moving & Delivery", getString(R.string.cat_moving_delivery));
-            categoryMap.put("Pet Services", getString(R.string.cat_pet_services));
-            categoryMap.put("Tech & Digital Services", getString(R.string.cat_tech_digital_services));
-            categoryMap.put("Education Services", getString(R.string.cat_education_services));
-            categoryMap.put("Nail Services", getString(R.string.cat_nail_services));
+            categoryMap.put(Catalogue.ALL_CATEGORY_ID, getString(R.string.cat_all));
+            categoryMap.put("cat.automotive_services", getString(R.string.cat_automotive_services));
+            categoryMap.put("cat.child_elder_care", getString(R.string.cat_child_elder_care));
+            categoryMap.put("cat.cleaning_maintenance", getString(R.string.cat_cleaning_maintenance));
+            categoryMap.put("cat.construction", getString(R.string.cat_construction));
+            categoryMap.put("cat.hair_care", getString(R.string.cat_hair_care));
+            categoryMap.put("cat.home_services", getString(R.string.cat_home_services));
+            categoryMap.put("cat.moving_delivery", getString(R.string.cat_moving_delivery));
+            categoryMap.put("cat.pet_services", getString(R.string.cat_pet_services));
+            categoryMap.put("cat.tech_digital_services", getString(R.string.cat_tech_digital_services));
+            categoryMap.put("cat.education_services", getString(R.string.cat_education_services));
+            categoryMap.put("cat.nail_services", getString(R.string.cat_nail_services));
         }
 
         // ============================================================
@@ -106,6 +130,21 @@
             serviceAdapter = new ServiceCardAdapter(this);
             serviceAdapter.setOnServiceClickListener(this);
             binding.servicesRecyclerView.setAdapter(serviceAdapter);
+            binding.servicesRecyclerView.addOnScrollListener(serviceAdapter.createPreloader(Glide.with(this)));
+
+            // Category lists: read the services past the leaderboard near the end only.
+            // dy == 0 after a layout, so a list too short to scroll still asks for more.
+            binding.servicesRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                    if (dy < 0 || currentCategoryFilter.isEmpty()) return;
+                    LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                    if (layoutManager != null && layoutManager.findLastVisibleItemPosition()
+                            >= serviceAdapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                        homeController.loadMoreInCategory();
+                    }
+                }
+            });
         }
 
         // ============================================================
@@ -129,29 +168,29 @@
         // ============================================================
         private void setupFilterChips() {
 
-            for (String englishCategory : categoryMap.keySet()) {
+            for (String categoryId : categoryMap.keySet()) {
 
-                String translatedLabel = categoryMap.get(englishCategory);
+                String translatedLabel = categoryMap.get(categoryId);
 
                 Chip chip = new Chip(this);
                 chip.setCheckable(true);
                 chip.setText(translatedLabel);
 
-                // Important: store ENGLISH KEY for filtering
-                chip.setTag(englishCategory);
+                // Important: store CATALOGUE ID for filtering
+                chip.setTag(categoryId);
 
-                if (englishCategory.equals("All")) chip.setChecked(true);
+                if (categoryId.equals(Catalogue.ALL_CATEGORY_ID)) chip.setChecked(true);
 
                 chip.setOnCheckedChangeListener((button, isChecked) -> {
                     if (isChecked) {
                         uncheckOtherChips(chip);
 
-                        currentCategoryFilter = englishCategory.equals("All")
+                        currentCategoryFilter = categoryId.equals(Catalogue.ALL_CATEGORY_ID)
                                 ? ""
-                                : englishCategory;
+                                : categoryId;
 
 
-                        Log.e("CAT_UI", "User selected chip: " + englishCategory);
+                        Log.e("CAT_UI", "User selected chip: " + categoryId);
                         Log.e("CAT_UI", "Category key used for filtering: " + currentCategoryFilter);
 
                         if (currentCategoryFilter.isEmpty()) {
@@ -167,6 +206,38 @@
 
                 binding.filterChipGroup.addView(chip);
             }
+
+            loadCategoryCounts();
+        }
+
+        // One aggregation read per chip instead of downloading the feed to count it
+        private void loadCategoryCounts() {
+            for (int i = 0; i < binding.filterChipGroup.getChildCount(); i++) {
+                Chip chip = (Chip) binding.filterChipGroup.getChildAt(i);
+                String categoryId = (String) chip.getTag();
+                String countKey = categoryId.equals(Catalogue.ALL_CATEGORY_ID) ? "" : categoryId;
+
+                homeController.countServicesInCategory(countKey, new ProviderServiceDatabase.OnCountLoadedListener() {
+                    @Override
+                    public void onCountLoaded(long count) {
+                        if (binding == null) return;
+                        categoryCounts.put(categoryId, count);
+                        updateChipLabel(chip);
+                    }
+
+                    @Override
+                    public void onError(String errorMessage) {
+                        Log.e("CAT_UI", "Count failed for " + categoryId + ": " + errorMessage);
+                    }
+                });
+            }
+        }
+
+        private void updateChipLabel(Chip chip) {
+            String categoryId = (String) chip.getTag();
+            String label = categoryMap.get(categoryId);
+            Long count = categoryCounts.get(categoryId);
+            chip.setText(count == null ? label : getString(R.string.chip_label_with_count, label, count));
         }
 
         private void uncheckOtherChips(Chip selected) {
@@ -249,7 +320,7 @@
 
             // Apply current sort option
             if (currentSortOption == SortOption.RATING) {
-                // Special handling for rating sort - needs to fetch ratings from ReviewDatabase
+                // Special handling for rating sort - scores may need one aggregation query for older providers
                 sortItemsByRating(items);
             } else {
                 sortItems(items);
@@ -285,8 +356,13 @@
                     break;
 
                 case RATING:
-                    // Sort by provider rating (if available)
-                    items.sort((a, b) -> Double.compare(b.service.getRating(), a.service.getRating()));
+                    // Sort by cached provider score (call ensureScores first)
+                    RatingScoreService scores = RatingScoreService.getInstance();
+                    Map<String, Double> keys = new HashMap<>();
+                    for (ServiceCardAdapter.ServiceItem item : items) {
+                        keys.put(item.provider.getId(), scores.getScore(item.provider.getId()));
+                    }
+                    items.sort((a, b) -> Double.compare(keys.get(b.provider.getId()), keys.get(a.provider.getId())));
                     break;
 
                 case POPULAR:
@@ -315,71 +391,18 @@
             return Double.MAX_VALUE;
         }
 
-        // Sort items by rating - requires fetching ratings from ReviewDatabase
+        // Sort items by Bayesian rating score (cached per provider in RatingScoreService)
         private void sortItemsByRating(List<ServiceCardAdapter.ServiceItem> items) {
-            ReviewDatabase reviewDb = new ReviewDatabase();
-
-            // Create a map to store provider ratings
-            Map<String, Float> providerRatings = new HashMap<>();
-            int[] pendingCallbacks = {items.size()};
-
-            // Fetch ratings for all providers
+            List<Provider> providers = new ArrayList<>();
             for (ServiceCardAdapter.ServiceItem item : items) {
-                String providerId = item.provider.getId();
-
-                // Skip if already fetched
-                if (providerRatings.containsKey(providerId)) {
-                    pendingCallbacks[0]--;
-                    continue;
-                }
-
-                reviewDb.getAverageRating(providerId, new ReviewDatabase.OnRatingCalculatedListener() {
-                    @Override
-                    public void onRatingCalculated(float averageRating, int totalReviews) {
-                        providerRatings.put(providerId, averageRating);
-                        pendingCallbacks[0]--;
-
-                        // When all ratings are fetched, sort and display
-                        if (pendingCallbacks[0] == 0) {
-                            items.sort((a, b) -> {
-                                float ratingA = providerRatings.getOrDefault(a.provider.getId(), 0f);
-                                float ratingB = providerRatings.getOrDefault(b.provider.getId(), 0f);
-                                return Float.compare(ratingB, ratingA); // Descending order
-                            });
-
-                            runOnUiThread(() -> {
-                                serviceAdapter.setServiceItems(items);
-                                updateResultCount(items.size());
-                            });
-                        }
-                    }
-
-                    @Override
-                    public void onError(String error) {
-                        providerRatings.put(providerId, 0f); // Default to 0 on error
-                        pendingCallbacks[0]--;
-
-                        if (pendingCallbacks[0] == 0) {
-                            items.sort((a, b) -> {
-                                float ratingA = providerRatings.getOrDefault(a.provider.getId(), 0f);
-                                float ratingB = providerRatings.getOrDefault(b.provider.getId(), 0f);
-                                return Float.compare(ratingB, ratingA);
-                            });
-
-                            runOnUiThread(() -> {
-                                serviceAdapter.setServiceItems(items);
-                                updateResultCount(items.size());
-                            });
-                        }
-                    }
-                });
+                providers.add(item.provider);
             }
 
-            // Handle case where all providers already cached
-            if (pendingCallbacks[0] == 0) {
+            RatingScoreService.getInstance().ensureScores(providers, () -> runOnUiThread(() -> {
+                sortItems(items);
                 serviceAdapter.setServiceItems(items);
                 updateResultCount(items.size());
-            }
+            }));
         }
 
         // ============================================================
@@ -395,11 +418,14 @@
             binding.emptyStateView.setVisibility(View.GONE);
         }
 
-        private void showEmptyState(String msg) {
+        // Kept as a resource id + arguments so a language switch can set the message again
+        private void showEmptyState(@StringRes int messageRes, Object... formatArgs) {
+            emptyStateRes = messageRes;
+            emptyStateArgs = formatArgs;
             binding.loadingProgressBar.setVisibility(View.GONE);
             binding.servicesRecyclerView.setVisibility(View.GONE);
             binding.emptyStateView.setVisibility(View.VISIBLE);
-            binding.emptyStateText.setText(msg);
+            binding.emptyStateText.setText(getString(messageRes, formatArgs));
         }
 
         private void updateResultCount(int count) {
@@ -414,7 +440,7 @@
         // ============================================================
         @Override
         public void onProvidersWithServicesLoaded(Map<Provider, List<ProviderService>> map) {
-            if (map.isEmpty()) showEmptyState(getString(R.string.empty_state_no_services));
+            if (map.isEmpty()) showEmptyState(R.string.empty_state_no_services);
             else {
                 showContent();
                 applySorting(map);
@@ -423,7 +449,7 @@
 
         @Override
         public void onSearchResultsLoaded(Map<Provider, List<ProviderService>> map, String query) {
-            if (map.isEmpty()) showEmptyState(getString(R.string.empty_state_no_results, query));
+            if (map.isEmpty()) showEmptyState(R.string.empty_state_no_results, query);
             else {
                 showContent();
                 applySorting(map);
@@ -432,15 +458,15 @@
 
         @Override
         public void onSearchResultsEmpty(String query) {
-            showEmptyState(getString(R.string.empty_state_no_results, query));
+            showEmptyState(R.string.empty_state_no_results, query);
         }
 
         @Override public void onProviderDetailsLoaded(Provider provider, List<ProviderService> services) {}
         @Override public void onNoDataAvailable() {
-            showEmptyState(getString(R.string.empty_state_no_data));
+            showEmptyState(R.string.empty_state_no_data);
         }
         @Override public void onError(String errorMessage) {
-            showEmptyState("Error: " + errorMessage);
+            showEmptyState(R.string.error_generic, errorMessage);
         }
 
         // ============================================================
@@ -448,25 +474,7 @@
         // ============================================================
         @Override
         public void onServiceClick(ServiceCardAdapter.ServiceItem item) {
-            Intent i = new Intent(this, ServiceDetailActivity.class);
-
-            i.putExtra("providerId", item.provider.getId());
-            i.putExtra("providerName", item.provider.getFullName());
-            i.putExtra("providerPhone", item.provider.getPhone());
-            i.putExtra("providerEmail", item.provider.getEmail());
-            i.putExtra("providerAddress", item.provider.getAddress());
-
-            i.putExtra("serviceId", item.service.getId());
-            i.putExtra("serviceTitle", item.service.getServiceTitle());
-            i.putExtra("serviceDescription", item.service.getDescription());
-            i.putExtra("servicePricing", item.service.getPricing());
-            i.putExtra("serviceCategory", item.service.getCategory());
-            i.putExtra("serviceArea", item.service.getServiceArea());
-            i.putExtra("serviceAvailability", item.service.getAvailability());
-            i.putExtra("serviceContactPreference", item.service.getContactPreference());
-            i.putExtra("serviceImageUrl", item.service.getImageUrl());
-
-            startActivity(i);
+            ServiceDetailActivity.open(this, item.provider, item.service);
         }
 
         // ============================================================
@@ -490,14 +498,8 @@
         protected void onResume() {
             super.onResume();
             updateCustomerButtonState();
-
-            if (!skipDataReload) {
-                showLoading();
-                homeController.loadAllProvidersWithServices();
-            } else {
-                skipDataReload = false;
-                showContent();   // << skip reloading data
-            }
+            showLoading();
+            homeController.loadAllProvidersWithServices();
         }
 
         // ============================================================
@@ -647,19 +649,44 @@
             android.content.SharedPreferences prefs = getSharedPreferences("app_prefs", MODE_PRIVATE);
             prefs.edit().putString("app_language", languageCode).apply();
 
-            skipDataReload = true;
-
             java.util.Locale locale = new java.util.Locale(languageCode);
             java.util.Locale.setDefault(locale);
 
             android.content.res.Configuration config = new android.content.res.Configuration();
             config.setLocale(locale);
             getResources().updateConfiguration(config, getResources().getDisplayMetrics());
+            // Translator / adapters resolve strings through the application context
+            getApplicationContext().getResources()
+                    .updateConfiguration(config, getApplicationContext().getResources().getDisplayMetrics());
+
+            // No restart, no refetch: models hold catalogue ids, so only text is redrawn
+            refreshLocalizedViews();
+        }
+
+        // Re-read every string this screen shows from the new locale
+        private void refreshLocalizedViews() {
+            binding.appTitle.setText(R.string.services_finder);
+            binding.appSubtitle.setText(R.string.browse_available_services);
+            binding.searchEditText.setHint(R.string.search_services_providers_or_categories);
+            binding.sortButton.setText(R.string.sort);
+            binding.supplyServicesText.setText(R.string.want_to_supply_services);
+            binding.providerBtn.setText(R.string.provider_register);
+            updateCustomerButtonState();
+            updateLanguageButtonText();
 
-            // Restart activity to apply language change
-            Intent intent = getIntent();
-            finish();
-            startActivity(intent);
+            setupCategoryKeys();
+            for (int i = 0; i < binding.filterChipGroup.getChildCount(); i++) {
+                updateChipLabel((Chip) binding.filterChipGroup.getChildAt(i));
+            }
+
+            if (binding.resultCountText.getVisibility() == View.VISIBLE) {
+                updateResultCount(serviceAdapter.getItemCount());
+            }
+            if (binding.emptyStateView.getVisibility() == View.VISIBLE && emptyStateRes != 0) {
+                binding.emptyStateText.setText(getString(emptyStateRes, emptyStateArgs));
+            }
+
+            serviceAdapter.onLocaleChanged();
         }
 
         // ============================================================
@@ -5,30 +5,40 @@ import android.content.res.ColorStateList;
 import android.graphics.Color;
 import android.graphics.Typeface;
 import android.graphics.drawable.ColorDrawable;
-import android.graphics.drawable.GradientDrawable;
+import android.text.Editable;
 import android.text.SpannableString;
 import android.text.TextUtils;
+import android.text.TextWatcher;
 import android.text.style.ForegroundColorSpan;
 import android.util.TypedValue;
 import android.view.Gravity;
 import android.view.ViewGroup;
 import android.view.WindowManager;
 import android.widget.*;
+import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.button.MaterialButton;
 
 import java.util.*;
 import edu.sjsu.android.servicesfinder.R;
+import edu.sjsu.android.servicesfinder.model.CategorySelection;
+import edu.sjsu.android.servicesfinder.util.Catalogue;
 
 /**
  * ========================================================================
  * MultiSelectDropdown - Custom Multi-Level Selection Dropdown
  * ========================================================================
- /**
  * Custom dropdown for multi-selecting services under catalogues.
- * Shows expandable sections with checkboxes, Done/Cancel buttons.
+ * Shows a filter box, an expandable RecyclerView of checkboxes and Save/Cancel buttons.
  * Output: "Cat: Svc1, Svc2 | Cat2: Svc3"
+ *
+ * The catalogue map is flattened once per updateCatalogueMap() into "entries"
+ * (each category followed by its services). Only visible rows get a view, and rows
+ * are recycled while scrolling. The selection is a BitSet keyed by Catalogue ids, so
+ * backup / restore for Cancel is a clone and a language switch keeps the selection.
  */
 public class MultiSelectDropdown {
 
@@ -45,14 +55,31 @@ public class MultiSelectDropdown {
     // Catalogue data: Catalogue name → List of service names */
     private Map<String, List<String>> catalogueMap;
 
-    // Current selections: Catalogue name → Set of selected services */
-    private final Map<String, Set<String>> selectedItems = new HashMap<>();
+    // Flattened catalogue: category entry, its service entries, next category entry, ...
+    private String[] names = new String[0];       // entry -> localized name
+    private int[] bits = new int[0];              // entry -> bit in selection (Catalogue id)
+    private int[] categoryOf = new int[0];        // entry -> category ordinal
+    private int[] categoryStart = {0};            // ordinal -> first entry; last slot = names.length
+    private final Map<String, Integer> entryByName = new HashMap<>();
+
+    // Prefix index for the filter: sorted lowercase terms and the entry each one came from
+    private String[] terms = new String[0];
+    private int[] termEntries = new int[0];
+
+    // Current selections: set bits are selected categories / services */
+    private final BitSet selection = new BitSet();
 
     // Backup of selections (for Cancel button functionality) */
-    private Map<String, Set<String>> backupSelection;
+    private BitSet backupSelection;
+
+    // Rows currently shown (entries), and the filter matches (null = no filter)
+    private int[] rows = new int[0];
+    private int rowCount;
+    private BitSet filterMatches;
 
     // The popup window that displays the dropdown */
     private PopupWindow popupWindow;
+    private RowAdapter adapter;
 
     // =========================================================
     // CONSTRUCTOR
@@ -62,6 +89,7 @@ public class MultiSelectDropdown {
         this.context = context;
         this.anchorView = anchorView;
         this.catalogueMap = catalogueMap;
+        buildEntries(catalogueMap);
 
         // Make the TextView interactive
         anchorView.setClickable(true);
@@ -81,321 +109,223 @@ public class MultiSelectDropdown {
     public void updateCatalogueMap(Map<String, List<String>> map) {
         this.catalogueMap = map;
 
-        // Initialize an empty Set for each catalogue
-        // This ensures we can add selections later without null checks
-        for (String catalogue : map.keySet()) {
-            selectedItems.putIfAbsent(catalogue, new HashSet<>());
-        }
+        // Rebuild entries and the filter index for the (possibly new) language;
+        // bits are Catalogue ids, so existing selections carry over
+        buildEntries(map);
 
         // Update the display text to show current selections (if any)
         updateText();
     }
 
-        // Get current selections
-        public Map<String, Set<String>> getSelectedItems() {
-            return selectedItems;
+    // Get current selections (localized names, every catalogue present)
+    public Map<String, Set<String>> getSelectedItems() {
+        Map<String, Set<String>> selected = new LinkedHashMap<>();
+        for (int c = 0; c + 1 < categoryStart.length; c++) {
+            Set<String> services = new LinkedHashSet<>();
+            for (int e = categoryStart[c] + 1; e < categoryStart[c + 1]; e++) {
+                if (selection.get(bits[e])) services.add(names[e]);
+            }
+            selected.put(names[categoryStart[c]], services);
+        }
+        return selected;
+    }
+
+    // Dismisses the popup if it's showing.
+    public void dismiss() {
+        if (popupWindow != null) {
+            popupWindow.dismiss();
         }
+    }
 
+    // Restore from saved string: "Cat: Svc1, Svc2 | ..."
+    public void setSelectedItemsFromCategory(String categoryString) {
+        setSelectedItems(CategorySelection.parse(categoryString));
+    }
 
-         // Dismisses the popup if it's showing.
-        public void dismiss() {
-            if (popupWindow != null) {
-                popupWindow.dismiss();
+    // Restore from an already parsed selection (names must match the catalogue map)
+    public void setSelectedItems(CategorySelection selection) {
+        // Clear all existing selections
+        this.selection.clear();
+
+        for (CategorySelection.Entry entry : selection.getEntries()) {
+            // Only process if this catalogue exists in our data
+            Integer category = entryByName.get(entry.getCategory());
+            if (category == null) continue;
+            for (String service : entry.getServices()) {
+                Integer serviceEntry = entryByName.get(serviceKey(entry.getCategory(), service));
+                if (serviceEntry == null) continue;
+                this.selection.set(bits[serviceEntry]);
+                this.selection.set(bits[category]);
             }
         }
 
-        // Restore from saved string: "Cat: Svc1, Svc2 | ..."
-        public void setSelectedItemsFromCategory(String categoryString) {
-            // Clear all existing selections
-            selectedItems.clear();
+        // Update the display text to show restored selections
+        updateText();
+        refreshRows();
+    }
 
-            // Initialize empty sets for all catalogues
-            if (catalogueMap != null) {
-                for (String cat : catalogueMap.keySet()) {
-                    selectedItems.put(cat, new HashSet<>());
-                }
-            }
+    // =========================================================
+    // PRIVATE METHODS - DROPDOWN UI
+    // =========================================================
+     /*
+     * UI STRUCTURE:
+     * ┌─────────────────────────────────┐
+     * │ LinearLayout (container)        │
+     * │  ├─ EditText (filter)           │
+     * │  ├─ RecyclerView (visible rows) │
+     * │  │   ├─ CheckBox (Cat 1)        │
+     * │  │   ├─ CheckBox (Svc 1)        │
+     * │  │   ├─ CheckBox (Svc 2)        │
+     * │  │   └─ CheckBox (Cat 2)        │
+     * │  └─ LinearLayout (buttons)      │
+     * │      ├─ Button (Save)           │
+     * │      └─ Button (Cancel)         │
+     * └─────────────────────────────────┘
+     */
+    private void showDropdown() {
+        // ==================== TOGGLE IF ALREADY OPEN ====================
+        // If dropdown is already showing, close it
+        if (popupWindow != null && popupWindow.isShowing()) {
+            popupWindow.dismiss();
+            return;
+        }
 
-            // Handle empty/null input
-            if (categoryString == null || categoryString.trim().isEmpty()) {
-                updateText();
-                return;
-            }
+        // ==================== VALIDATE DATA ====================
+        // Don't show dropdown if no data is available
+        if (catalogueMap == null || catalogueMap.isEmpty()) {
+            Toast.makeText(context, context.getString(R.string.error_no_catalogue_data), Toast.LENGTH_SHORT).show();
+            return;
+        }
 
-            // Parse the category string
-            // Format: "Catalogue1: Service1, Service2 | Catalogue2: Service3"
-            String[] catalogueParts = categoryString.split("\\|");
-
-            for (String part : catalogueParts) {
-                part = part.trim();
-
-                // Each part should be "Catalogue: Service1, Service2"
-                if (part.contains(":")) {
-                    String[] split = part.split(":", 2);
-                    String catalogue = split[0].trim();
-                    String servicesStr = split[1].trim();
-
-                    // Only process if this catalogue exists in our data
-                    if (selectedItems.containsKey(catalogue)) {
-                        // Split services by comma
-                        String[] services = servicesStr.split(",");
-                        for (String service : services) {
-                            // Add each service to the selection set
-                            selectedItems.get(catalogue).add(service.trim());
-                        }
-                    }
-                }
+        // ==================== BACKUP CURRENT STATE ====================
+        // Save current selections so we can restore them if user clicks Cancel
+        backupSelection = (BitSet) selection.clone();
+        filterMatches = null;
+
+        // ==================== CREATE MAIN CONTAINER ====================
+        // This will hold the filter, the list and the button row
+        LinearLayout container = new LinearLayout(context);
+        container.setOrientation(LinearLayout.VERTICAL);
+
+        // ==================== CREATE FILTER BOX ====================
+        EditText filter = new EditText(context);
+        filter.setHint(R.string.hint_filter_catalogue_services);
+        filter.setSingleLine(true);
+        filter.addTextChangedListener(new TextWatcher() {
+            @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+            @Override public void onTextChanged(CharSequence s, int start, int before, int count) {}
+            @Override public void afterTextChanged(Editable s) {
+                filterMatches = match(s.toString());
+                refreshRows();
             }
+        });
+        container.addView(filter);
+
+        // ==================== CREATE LIST ====================
+        // Only the rows on screen get a view; they are recycled while scrolling
+        RecyclerView list = new RecyclerView(context);
+        list.setLayoutManager(new LinearLayoutManager(context));
+        adapter = new RowAdapter();
+        list.setAdapter(adapter);
+        list.setLayoutParams(new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,  // Full width
+                0,                                     // Height 0 (will use weight)
+                1f                                     // Weight 1 (takes remaining space)
+        ));
+        container.addView(list);
+        refreshRows();
+
+        // ==================== CREATE BUTTON ROW ====================
+        // Container for Cancel and Done buttons at the bottom
+        LinearLayout btnRow = new LinearLayout(context);
+        btnRow.setOrientation(LinearLayout.HORIZONTAL);     // Horizontal layout
+        btnRow.setGravity(Gravity.CENTER);                  // Center buttons horizontally
+        btnRow.setPadding(16, 12, 16, 12);   // Add padding around buttons
+
+        // ==================== DONE BUTTON ====================
+        MaterialButton save = new MaterialButton(context);
+        save.setText(context.getString(R.string.save));
+
+        // Apply background tint (solid color)
+        save.setBackgroundTintList(ColorStateList.valueOf(
+                ContextCompat.getColor(context, R.color.sf_primary)));
+
+        // Apply stroke color and width
+        save.setStrokeColor(ColorStateList.valueOf(ContextCompat.getColor(context, R.color.sf_primary)));
+        save.setStrokeWidth(2);
+
+        // Apply rounded corners (16dp converted to px)
+        save.setCornerRadius((int) TypedValue.applyDimension(
+                TypedValue.COMPLEX_UNIT_DIP, 16, context.getResources().getDisplayMetrics()
+        ));
+
+        // text color
+        save.setTextColor(ContextCompat.getColor(context, R.color.sf_on_primary));
+
+        //Remove elevation animation if desired
+        save.setStateListAnimator(null);
+
+        // Layout parameters: WRAP_CONTENT with margin
+        LinearLayout.LayoutParams doneParams = new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT
+        );
+        doneParams.setMargins(0, 10, 120, 0); // right margin: 120dp
+        save.setLayoutParams(doneParams);
 
-            // Update the display text to show restored selections
+        // minimum width for consistency
+        save.setMinWidth((int) TypedValue.applyDimension(
+                TypedValue.COMPLEX_UNIT_DIP, 120, context.getResources().getDisplayMetrics()
+        ));
+
+        // Done button behavior
+        save.setOnClickListener(v -> {
             updateText();
-        }
+            dismiss();
+        });
 
-        // =========================================================
-        // PRIVATE METHODS - DROPDOWN UI
-        // =========================================================
-         /*
-         * UI STRUCTURE:
-         * ┌─────────────────────────────────┐
-         * │ LinearLayout (container)        │
-         * │  ├─ ScrollView (scrollable)     │
-         * │  │   └─ LinearLayout (list)     │
-         * │  │       ├─ CheckBox (Cat 1)    │
-         * │  │       ├─ LinearLayout         │
-         * │  │       │   ├─ CheckBox (Svc 1)│
-         * │  │       │   └─ CheckBox (Svc 2)│
-         * │  │       └─ CheckBox (Cat 2)    │
-         * │  └─ LinearLayout (buttons)      │
-         * │      ├─ Button (Cancel)         │
-         * │      └─ Button (Done)           │
-         * └─────────────────────────────────┘
-         */
-        private void showDropdown() {
-            // ==================== TOGGLE IF ALREADY OPEN ====================
-            // If dropdown is already showing, close it
-            if (popupWindow != null && popupWindow.isShowing()) {
-                popupWindow.dismiss();
-                return;
-            }
+        // ==================== CANCEL BUTTON ====================
+        MaterialButton cancel = new MaterialButton(context);
+        cancel.setText(context.getString(R.string.cancel));
 
-            // ==================== VALIDATE DATA ====================
-            // Don't show dropdown if no data is available
-            if (catalogueMap == null || catalogueMap.isEmpty()) {
-                Toast.makeText(context, context.getString(R.string.error_no_catalogue_data), Toast.LENGTH_SHORT).show();
-                return;
-            }
+        // Apply background tint (solid color)
+        cancel.setBackgroundTintList(ColorStateList.valueOf(Color.parseColor("#FBF0E9")));
 
-            // ==================== BACKUP CURRENT STATE ====================
-            // Save current selections so we can restore them if user clicks Cancel
-            backupSelection = deepCopy(selectedItems);
-
-            // ==================== CREATE MAIN CONTAINER ====================
-            // This will hold the scrollable list and the button row
-            LinearLayout container = new LinearLayout(context);
-            container.setOrientation(LinearLayout.VERTICAL);
-
-            // ==================== CREATE SCROLLVIEW ====================
-            // Makes the catalogue/service list scrollable if it's too long
-            ScrollView scrollView = new ScrollView(context);
-            scrollView.setFillViewport(true); // Fill remaining space
-
-            // Make ScrollView take all remaining vertical space
-            // Layout weight 1f means it will expand to fill available space
-            LinearLayout.LayoutParams scrollParams = new LinearLayout.LayoutParams(
-                    ViewGroup.LayoutParams.MATCH_PARENT,  // Full width
-                    0,                                     // Height 0 (will use weight)
-                    1f                                     // Weight 1 (takes remaining space)
-            );
-            scrollView.setLayoutParams(scrollParams);
-
-            // ==================== CREATE LIST CONTAINER ====================
-            // This holds all the catalogue and service checkboxes
-            LinearLayout listLayout = new LinearLayout(context);
-            listLayout.setOrientation(LinearLayout.VERTICAL);
-
-            // ==================== BUILD CATALOGUE ITEMS ====================
-            // Loop through each catalogue and create UI for it
-            for (var entry : catalogueMap.entrySet()) {
-                String catalogue = entry.getKey();          // e.g., "Home Services"
-                List<String> services = entry.getValue();   // e.g., ["Plumbing", "Electrical"]
-
-                // -------------------- SERVICE CONTAINER --------------------
-                // This LinearLayout holds all service checkboxes for this catalogue
-                // It can be shown/hidden when parent catalogue is checked/unchecked
-                LinearLayout serviceLayout = new LinearLayout(context);
-                serviceLayout.setOrientation(LinearLayout.VERTICAL);
-                serviceLayout.setPadding(60, 0, 0, 0); // Indent services to show hierarchy
-
-                // -------------------- CATALOGUE CHECKBOX --------------------
-                // Parent checkbox - represents the entire catalogue
-                CheckBox catBox = new CheckBox(context);
-                catBox.setText(catalogue);
-
-                // Restore previous state if user had selections in this catalogue
-                Set<String> selectedInCat = selectedItems.getOrDefault(catalogue, new HashSet<>());
-                catBox.setChecked(!selectedInCat.isEmpty());
-
-                // When catalogue checkbox is clicked:
-                catBox.setOnCheckedChangeListener((button, checked) -> {
-                    if (!checked) {
-                        // If unchecked, clear all service selections in this catalogue
-                        Objects.requireNonNull(selectedItems.get(catalogue)).clear();
-                    }
-                    // Update the display text
-                    updateText();
-                    // Show/hide the service list
-                    serviceLayout.setVisibility(checked ? ViewGroup.VISIBLE : ViewGroup.GONE);
-                });
-
-                // Add catalogue checkbox to main list
-                listLayout.addView(catBox);
-
-                // -------------------- SERVICE CHECKBOXES --------------------
-                // Create a checkbox for each service in this catalogue
-                for (String service : services) {
-                    CheckBox sBox = new CheckBox(context);
-                    sBox.setText(service);
-
-                    // Restore previous state if this service was selected
-                    if (Objects.requireNonNull(selectedItems.get(catalogue)).contains(service)) {
-                        sBox.setChecked(true);
-                    }
-
-                    // When service checkbox is clicked:
-                    sBox.setOnCheckedChangeListener((btn, chk) -> {
-                        if (chk) {
-                            // Service was checked:
-                            // 1. Add service to selection set
-                            Objects.requireNonNull(selectedItems.get(catalogue)).add(service);
-                            // 2. Check parent catalogue checkbox
-                            catBox.setChecked(true);
-                            // 3. Make sure service list is visible
-                            serviceLayout.setVisibility(ViewGroup.VISIBLE);
-                        } else {
-                            // Service was unchecked:
-                            // 1. Remove service from selection set
-                            Objects.requireNonNull(selectedItems.get(catalogue)).remove(service);
-                            // 2. If no services selected, uncheck parent catalogue
-                            if (Objects.requireNonNull(selectedItems.get(catalogue)).isEmpty()) {
-                                catBox.setChecked(false);
-                                serviceLayout.setVisibility(ViewGroup.GONE);
-                            }
-                        }
-                        // Update the display text
-                        updateText();
-                    });
-
-                    // Add service checkbox to service container
-                    serviceLayout.addView(sBox);
-                }
+        // Apply stroke color and width
+        cancel.setStrokeColor(ColorStateList.valueOf(ContextCompat.getColor(context, R.color.sf_primary)));
+        cancel.setStrokeWidth(2);
 
-                // Add service container to main list
-                listLayout.addView(serviceLayout);
+        // Apply rounded corners (16dp converted to px)
+        cancel.setCornerRadius((int) TypedValue.applyDimension(
+                TypedValue.COMPLEX_UNIT_DIP, 16, context.getResources().getDisplayMetrics()
+        ));
 
-                // -------------------- INITIAL VISIBILITY --------------------
-                // Show service list if there are saved selections, otherwise hide
-                if (!Objects.requireNonNull(selectedItems.get(catalogue)).isEmpty()) {
-                    serviceLayout.setVisibility(ViewGroup.VISIBLE);
-                } else {
-                    serviceLayout.setVisibility(ViewGroup.GONE);
-                }
-            }
+        // text color
+        cancel.setTextColor(ContextCompat.getColor(context, R.color.sf_primary));
 
-            // ==================== ADD LIST TO SCROLLVIEW ====================
-            scrollView.addView(listLayout);
-            container.addView(scrollView);
-
-            // ==================== CREATE BUTTON ROW ====================
-            // Container for Cancel and Done buttons at the bottom
-            LinearLayout btnRow = new LinearLayout(context);
-            btnRow.setOrientation(LinearLayout.HORIZONTAL);     // Horizontal layout
-            btnRow.setGravity(Gravity.CENTER);                  // Center buttons horizontally
-            btnRow.setPadding(16, 12, 16, 12);   // Add padding around buttons
-
-            // ==================== DONE BUTTON ====================
-            MaterialButton save = new MaterialButton(context);
-            save.setText(context.getString(R.string.save));
-
-            // Apply background tint (solid color)
-            save.setBackgroundTintList(ColorStateList.valueOf(
-                    ContextCompat.getColor(context, R.color.sf_primary)));
-
-            // Apply stroke color and width
-            save.setStrokeColor(ColorStateList.valueOf(ContextCompat.getColor(context, R.color.sf_primary)));
-            save.setStrokeWidth(2);
-
-            // Apply rounded corners (16dp converted to px)
-            save.setCornerRadius((int) TypedValue.applyDimension(
-                    TypedValue.COMPLEX_UNIT_DIP, 16, context.getResources().getDisplayMetrics()
-            ));
-
-            // text color
-            save.setTextColor(ContextCompat.getColor(context, R.color.sf_on_primary));
-
-            //Remove elevation animation if desired
-            save.setStateListAnimator(null);
-
-            // Layout parameters: WRAP_CONTENT with margin
-            LinearLayout.LayoutParams doneParams = new LinearLayout.LayoutParams(
-                    ViewGroup.LayoutParams.WRAP_CONTENT,
-                    ViewGroup.LayoutParams.WRAP_CONTENT
-            );
-            doneParams.setMargins(0, 10, 120, 0); // right margin: 120dp
-            save.setLayoutParams(doneParams);
-
-            // minimum width for consistency
-            save.setMinWidth((int) TypedValue.applyDimension(
-                    TypedValue.COMPLEX_UNIT_DIP, 120, context.getResources().getDisplayMetrics()
-            ));
-
-            // Done button behavior
-            save.setOnClickListener(v -> {
-                updateText();
-                dismiss();
-            });
-
-            // ==================== CANCEL BUTTON ====================
-            MaterialButton cancel = new MaterialButton(context);
-            cancel.setText(context.getString(R.string.cancel));
-
-            // Apply background tint (solid color)
-            cancel.setBackgroundTintList(ColorStateList.valueOf(Color.parseColor("#FBF0E9")));
-
-            // Apply stroke color and width
-            cancel.setStrokeColor(ColorStateList.valueOf(ContextCompat.getColor(context, R.color.sf_primary)));
-            cancel.setStrokeWidth(2);
-
-            // Apply rounded corners (16dp converted to px)
-            cancel.setCornerRadius((int) TypedValue.applyDimension(
-                    TypedValue.COMPLEX_UNIT_DIP, 16, context.getResources().getDisplayMetrics()
-            ));
-
-            // text color
-            cancel.setTextColor(ContextCompat.getColor(context, R.color.sf_primary));
-
-            //Remove elevation animation if desired
-            cancel.setStateListAnimator(null);
-
-            // Layout parameters: WRAP_CONTENT with margin
-            LinearLayout.LayoutParams cancelParams = new LinearLayout.LayoutParams(
-                    ViewGroup.LayoutParams.WRAP_CONTENT,
-                    ViewGroup.LayoutParams.WRAP_CONTENT
-            );
-            cancelParams.setMargins(120, 10, 0, 0); // Left margin: 120dp
-            cancel.setLayoutParams(cancelParams);
-
-            // minimum width for consistency
-            cancel.setMinWidth((int) TypedValue.applyDimension(
-                    TypedValue.COMPLEX_UNIT_DIP, 120, context.getResources().getDisplayMetrics()
-            ));
-
-            // Cancel button behavior
-            cancel.setOnClickListener(v -> {
-                selectedItems.clear();
-                selectedItems.putAll(deepCopy(backupSelection));
-                dismiss();
-                updateText();
-            });
+        //Remove elevation animation if desired
+        cancel.setStateListAnimator(null);
+
+        // Layout parameters: WRAP_CONTENT with margin
+        LinearLayout.LayoutParams cancelParams = new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT
+        );
+        cancelParams.setMargins(120, 10, 0, 0); // Left margin: 120dp
+        cancel.setLayoutParams(cancelParams);
+
+        // minimum width for consistency
+        cancel.setMinWidth((int) TypedValue.applyDimension(
+                TypedValue.COMPLEX_UNIT_DIP, 120, context.getResources().getDisplayMetrics()
+        ));
+
+        // Cancel button behavior
+        cancel.setOnClickListener(v -> {
+            selection.clear();
+            selection.or(backupSelection);
+            dismiss();
+            updateText();
+        });
 
         // ==================== ADD BUTTONS TO ROW ====================
         btnRow.addView(save);
@@ -432,6 +362,11 @@ public class MultiSelectDropdown {
         popupWindow.setBackgroundDrawable(new ColorDrawable(0xFFFFFFFF)); // White background
         popupWindow.setSoftInputMode(WindowManager.LayoutParams.SOFT_INPUT_ADJUST_RESIZE);
         popupWindow.setElevation(12f);               // Shadow elevation
+        popupWindow.setOnDismissListener(() -> {
+            adapter = null;
+            filterMatches = null;
+            refreshRows();
+        });
 
         // ==================== SHOW POPUP ====================
         // Display popup below the anchor TextView
@@ -443,6 +378,173 @@ public class MultiSelectDropdown {
         );
     }
 
+    // =========================================================
+    // PRIVATE METHODS - ENTRIES, FILTER, ROWS
+    // =========================================================
+
+    // Flatten the map and build the prefix index (once per map, not per open)
+    private void buildEntries(Map<String, List<String>> map) {
+        int catalogueCount = map == null ? 0 : map.size();
+        int entryCount = catalogueCount;
+        if (map != null) {
+            for (List<String> services : map.values()) entryCount += services.size();
+        }
+
+        names = new String[entryCount];
+        bits = new int[entryCount];
+        categoryOf = new int[entryCount];
+        categoryStart = new int[catalogueCount + 1];
+        entryByName.clear();
+
+        // Names Catalogue doesn't know get bits past Catalogue.size(); drop the stale ones
+        selection.clear(Catalogue.size(), Math.max(Catalogue.size(), selection.length()));
+        int locale = Catalogue.currentLocale();
+        BitSet used = new BitSet();
+        int nextUnknown = Catalogue.size();
+
+        int e = 0;
+        int c = 0;
+        if (map != null) {
+            for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+                String catalogue = entry.getKey();
+                categoryStart[c] = e;
+                int bit = Catalogue.find(locale, Catalogue.KIND_CATEGORY, catalogue);
+                bits[e] = bit < 0 || used.get(bit) ? nextUnknown++ : bit;
+                used.set(bits[e]);
+                names[e] = catalogue;
+                categoryOf[e] = c;
+                entryByName.put(catalogue, e);
+                e++;
+
+                for (String service : entry.getValue()) {
+                    bit = Catalogue.find(locale, Catalogue.KIND_SERVICE, service);
+                    bits[e] = bit < 0 || used.get(bit) ? nextUnknown++ : bit;
+                    used.set(bits[e]);
+                    names[e] = service;
+                    categoryOf[e] = c;
+                    entryByName.put(serviceKey(catalogue, service), e);
+                    e++;
+                }
+                c++;
+            }
+        }
+        categoryStart[c] = e;
+
+        buildIndex();
+        rows = new int[entryCount];
+        filterMatches = null;
+        refreshRows();
+    }
+
+    // Terms are the name from each word start ("hair cut", "cut"); CJK names from each
+    // character. A filter query is then a binary search for the terms it prefixes.
+    private void buildIndex() {
+        Locale locale = Locale.getDefault();
+        List<String> termList = new ArrayList<>();
+        List<Integer> entryList = new ArrayList<>();
+        for (int e = 0; e < names.length; e++) {
+            String lower = names[e].toLowerCase(locale);
+            for (int i = 0; i < lower.length(); i++) {
+                char ch = lower.charAt(i);
+                boolean wordStart = Character.isLetterOrDigit(ch)
+                        && (i == 0 || !Character.isLetterOrDigit(lower.charAt(i - 1)));
+                if (wordStart || Character.isIdeographic(ch)) {
+                    termList.add(lower.substring(i));
+                    entryList.add(e);
+                }
+            }
+        }
+
+        Integer[] order = new Integer[termList.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> termList.get(a).compareTo(termList.get(b)));
+
+        terms = new String[order.length];
+        termEntries = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            terms[i] = termList.get(order[i]);
+            termEntries[i] = entryList.get(order[i]);
+        }
+    }
+
+    // Entries whose name has a word starting with the query, or null for an empty query
+    private BitSet match(String query) {
+        String prefix = query.trim().toLowerCase(Locale.getDefault());
+        if (prefix.isEmpty()) return null;
+
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(prefix) < 0) low = mid + 1; else high = mid;
+        }
+
+        BitSet matches = new BitSet(names.length);
+        for (int i = low; i < terms.length && terms[i].startsWith(prefix); i++) {
+            matches.set(termEntries[i]);
+        }
+        return matches;
+    }
+
+    // Visible rows: a checked category shows its services; while filtering, a matching
+    // category shows all of them and otherwise only the matching services are listed
+    private void refreshRows() {
+        rowCount = 0;
+        for (int c = 0; c + 1 < categoryStart.length; c++) {
+            int category = categoryStart[c];
+            int end = categoryStart[c + 1];
+
+            if (filterMatches == null) {
+                rows[rowCount++] = category;
+                if (!selection.get(bits[category])) continue;
+                for (int e = category + 1; e < end; e++) rows[rowCount++] = e;
+                continue;
+            }
+
+            boolean categoryMatch = filterMatches.get(category);
+            int header = rowCount;
+            rows[rowCount++] = category;
+            for (int e = category + 1; e < end; e++) {
+                if (categoryMatch || filterMatches.get(e)) rows[rowCount++] = e;
+            }
+            if (!categoryMatch && rowCount == header + 1) rowCount = header;   // nothing matched
+        }
+        if (adapter != null) adapter.notifyDataSetChanged();
+    }
+
+    private void toggle(int entry, boolean checked) {
+        int c = categoryOf[entry];
+        int category = categoryStart[c];
+        selection.set(bits[entry], checked);
+
+        if (entry == category) {
+            // If unchecked, clear all service selections in this catalogue
+            if (!checked) {
+                for (int e = category + 1; e < categoryStart[c + 1]; e++) selection.clear(bits[e]);
+            }
+        } else if (checked) {
+            // Service checked: check parent catalogue as well
+            selection.set(bits[category]);
+        } else if (!anySelected(c)) {
+            // If no services selected, uncheck parent catalogue
+            selection.clear(bits[category]);
+        }
+
+        updateText();
+        refreshRows();
+    }
+
+    private boolean anySelected(int c) {
+        for (int e = categoryStart[c] + 1; e < categoryStart[c + 1]; e++) {
+            if (selection.get(bits[e])) return true;
+        }
+        return false;
+    }
+
+    private static String serviceKey(String catalogue, String service) {
+        return catalogue + '\n' + service;
+    }
+
     // =========================================================
     // PRIVATE METHODS - UTILITY
     // =========================================================
@@ -450,7 +552,7 @@ public class MultiSelectDropdown {
         List<String> summary = new ArrayList<>();
 
         // Build summary for each catalogue that has selections
-        for (var entry : selectedItems.entrySet()) {
+        for (var entry : getSelectedItems().entrySet()) {
             if (!entry.getValue().isEmpty()) {
                 // Format: "Catalogue: Service1, Service2"
                 String catalogueSection = entry.getKey() + ": " + String.join(", ", entry.getValue());
@@ -469,17 +571,66 @@ public class MultiSelectDropdown {
 
     }
 
-    // Creates a copy of the selection map for backup
+    // =========================================================
+    // ROW ADAPTER - one CheckBox per visible row, recycled
+    // =========================================================
+    private static final int TYPE_CATEGORY = 0;
+    private static final int TYPE_SERVICE = 1;
+
+    private final class RowAdapter extends RecyclerView.Adapter<RowHolder> {
+
+        RowAdapter() {
+            setHasStableIds(true);
+        }
+
+        @Override
+        public int getItemCount() {
+            return rowCount;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return rows[position];
+        }
 
-    private Map<String, Set<String>> deepCopy(Map<String, Set<String>> map) {
-        Map<String, Set<String>> copy = new HashMap<>();
+        @Override
+        public int getItemViewType(int position) {
+            int entry = rows[position];
+            return categoryStart[categoryOf[entry]] == entry ? TYPE_CATEGORY : TYPE_SERVICE;
+        }
 
-        // Copy each entry
-        for (var entry : map.entrySet()) {
-            // Create new HashSet with same contents
-            copy.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        @NonNull
+        @Override
+        public RowHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            CheckBox box = new CheckBox(context);
+            box.setLayoutParams(new RecyclerView.LayoutParams(
+                    ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+            if (viewType == TYPE_SERVICE) {
+                box.setPadding(60, 0, 0, 0); // Indent services to show hierarchy
+            } else {
+                box.setTypeface(box.getTypeface(), Typeface.BOLD);
+            }
+            RowHolder holder = new RowHolder(box);
+            // Read the state after the click; a bind never triggers it
+            box.setOnClickListener(v -> toggle(holder.entry, box.isChecked()));
+            return holder;
         }
 
-        return copy;
+        @Override
+        public void onBindViewHolder(@NonNull RowHolder holder, int position) {
+            holder.entry = rows[position];
+            holder.box.setText(names[holder.entry]);
+            holder.box.setChecked(selection.get(bits[holder.entry]));
+        }
+    }
+
+    private static final class RowHolder extends RecyclerView.ViewHolder {
+        final CheckBox box;
+        int entry;
+
+        RowHolder(CheckBox box) {
+            super(box);
+            this.box = box;
+        }
     }
-}
\ No newline at end of file
+}
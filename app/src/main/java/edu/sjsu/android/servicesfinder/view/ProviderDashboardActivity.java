@@ -1,11 +1,14 @@
 package edu.sjsu.android.servicesfinder.view;
 
+import android.Manifest;
 import android.app.ProgressDialog;
 import android.content.Context;
 import android.content.Intent;
+import android.content.pm.PackageManager;
 import android.graphics.Color;
 import android.graphics.Typeface;
 import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
 import android.text.InputType;
 import android.text.SpannableString;
@@ -42,6 +45,7 @@ import edu.sjsu.android.servicesfinder.controller.CatalogueController;
 import edu.sjsu.android.servicesfinder.controller.ProviderServiceController;
 import edu.sjsu.android.servicesfinder.controller.UIHelper;
 import edu.sjsu.android.servicesfinder.database.ProviderServiceDatabase;
+import edu.sjsu.android.servicesfinder.database.ImageUploadWorker;
 import edu.sjsu.android.servicesfinder.database.StorageHelper;
 import edu.sjsu.android.servicesfinder.databinding.ActivityProviderDashboardBinding;
 import edu.sjsu.android.servicesfinder.model.Catalogue;
@@ -81,6 +85,8 @@ public class ProviderDashboardActivity extends AppCompatActivity
 
     // State
     private Uri selectedImageUri, tempImageUri;
+    private StorageHelper.UploadedImage draftImage;   // renditions of the loaded draft's image
+    private ImageUploadWorker.StagedImage pendingImage;   // local photo to upload after the save
     private MultiSelectDropdown catalogueDropdown;
     private boolean cataloguesLoaded = false;
     private String editingServiceId = null;
@@ -95,15 +101,21 @@ public class ProviderDashboardActivity extends AppCompatActivity
                     selectedImageUri = result.getData().getData();
                     Glide.with(this).load(selectedImageUri).into(binding.imagePreview);
                     binding.imagePreview.setVisibility(View.VISIBLE);
+                    requestNotificationPermission();
                 }
             });
 
+    // Upload progress is shown as a notification (Android 13+ asks first)
+    private final ActivityResultLauncher<String> notificationPermissionLauncher =
+            registerForActivityResult(new ActivityResultContracts.RequestPermission(), granted -> {});
+
     private final ActivityResultLauncher<Uri> cameraLauncher =
             registerForActivityResult(new ActivityResultContracts.TakePicture(), success -> {
                 if (success) {
                     selectedImageUri = tempImageUri;
                     Glide.with(this).load(selectedImageUri).into(binding.imagePreview);
                     binding.imagePreview.setVisibility(View.VISIBLE);
+                    requestNotificationPermission();
                 }
             });
 
@@ -212,11 +224,12 @@ public class ProviderDashboardActivity extends AppCompatActivity
         Map<String, Set<String>> selectedItems = catalogueDropdown.getSelectedItems();
         String category = FormHelper.formatCategoryFromSelection(selectedItems);
 
-        Map<String, Set<String>> englishSelection = FirestoreStringTranslator.get(this)
+        // localized names → stable catalogue ids ("cat.x: svc.y") before save
+        Map<String, Set<String>> idSelection = FirestoreStringTranslator.get(this)
                 .reverseTranslateSelection(selectedItems);
 
         String categoryToSave = FirestoreStringTranslator.get(this)
-                .buildEnglishCategoryString(englishSelection);
+                .buildStoredCategoryString(idSelection);
 
         if (title.isEmpty()) {
             binding.serviceTitleInput.setError(getString(R.string.error_required));
@@ -262,13 +275,35 @@ public class ProviderDashboardActivity extends AppCompatActivity
             String uriString = selectedImageUri.toString();
 
             if (uriString.startsWith("http://") || uriString.startsWith("https://")) {
+                // Already hosted: keep the draft's renditions if it is still the same image
+                StorageHelper.UploadedImage image = draftImage != null && uriString.equals(draftImage.fullUrl)
+                        ? draftImage : StorageHelper.UploadedImage.single(uriString);
                 saveServiceToFirestore(title, description, pricing, categoryToSave, //**here***********
-                        area, availability, contactPreference, providerId, uriString);
+                        area, availability, contactPreference, providerId, image);
             } else {
+                // Local photo: copy it into app storage while the picker grant is valid, then
+                // save with a pending marker; ImageUploadWorker patches the URLs
+                ProgressDialog stagingDialog = new ProgressDialog(this);
+                stagingDialog.setMessage(getString(R.string.message_uploading_image));
+                stagingDialog.setCancelable(false);
+                stagingDialog.show();
+
                 String finalProviderId = providerId;
-                StorageHelper.uploadImageToFirebase(this, selectedImageUri, providerId, imageUrl -> {
-                    saveServiceToFirestore(title, description, pricing, categoryToSave,
-                            area, availability, contactPreference, finalProviderId, imageUrl);
+                ImageUploadWorker.stage(this, selectedImageUri, new ImageUploadWorker.OnStagedListener() {
+                    @Override
+                    public void onStaged(ImageUploadWorker.StagedImage staged) {
+                        stagingDialog.dismiss();
+                        pendingImage = staged;
+                        saveServiceToFirestore(title, description, pricing, categoryToSave,
+                                area, availability, contactPreference, finalProviderId, null);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        stagingDialog.dismiss();
+                        ProToast.error(ProviderDashboardActivity.this,
+                                getString(R.string.error_upload_failed, error));
+                    }
                 });
             }
         } else {
@@ -309,7 +344,8 @@ public class ProviderDashboardActivity extends AppCompatActivity
     // =========================================================
     private void saveServiceToFirestore(String title, String description, String pricing,
                                         String category, String area, String availability,
-                                        String contactPreference, String providerId, String imageUrl) {
+                                        String contactPreference, String providerId,
+                                        StorageHelper.UploadedImage image) {
         if (providerId == null || providerId.isEmpty()) {
             String context = getString(R.string.error_context_login_session);
             String message = getString(R.string.error_no_provider_id_1, context);
@@ -328,7 +364,19 @@ public class ProviderDashboardActivity extends AppCompatActivity
         service.setServiceArea(area);
         service.setAvailability(availability);
         service.setContactPreference(contactPreference);
-        service.setImageUrl(imageUrl != null ? imageUrl : "");
+        if (image != null) {
+            image.applyTo(service);
+        } else {
+            service.setImageUrl("");
+        }
+        ImageUploadWorker.StagedImage upload = pendingImage;
+        pendingImage = null;
+        if (upload != null) {
+            service.setImageStatus(ProviderService.IMAGE_PENDING);
+            // Placeholder for a new service; an edit keeps its current image until the upload lands
+            service.setImageBlurHash(upload.blurHash);
+            service.setImageColor(upload.color);
+        }
         service.setStatus("Active");
         service.setRating(0.0);
         service.setTimestamp(System.currentTimeMillis());
@@ -344,6 +392,11 @@ public class ProviderDashboardActivity extends AppCompatActivity
             @Override
             public void onSuccess(String serviceId) {
                 savingDialog.dismiss();
+                if (upload != null) {
+                    ImageUploadWorker.enqueue(ProviderDashboardActivity.this, upload, providerId, serviceId);
+                    Toast.makeText(ProviderDashboardActivity.this,
+                            getString(R.string.info_image_uploading_background), Toast.LENGTH_SHORT).show();
+                }
                 ProToast.success(ProviderDashboardActivity.this, getString(R.string.success_service_saved));
                 clearForm();
                 finish();
@@ -352,6 +405,7 @@ public class ProviderDashboardActivity extends AppCompatActivity
             @Override
             public void onError(String error) {
                 savingDialog.dismiss();
+                if (upload != null) ImageUploadWorker.discard(upload);
                 ProToast.error(ProviderDashboardActivity.this, getString(R.string.error_service_save_failed));
             }
         });
@@ -386,6 +440,14 @@ public class ProviderDashboardActivity extends AppCompatActivity
         cameraLauncher.launch(tempImageUri);
     }
 
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            notificationPermissionLauncher.launch(Manifest.permission.POST_NOTIFICATIONS);
+        }
+    }
+
     private Uri createTempImageUri() {
         File file = new File(getExternalCacheDir(), System.currentTimeMillis() + ".jpg");
         return FileProvider.getUriForFile(this, getPackageName() + ".provider", file);
@@ -555,7 +617,7 @@ public class ProviderDashboardActivity extends AppCompatActivity
                 }
                 */
 
-                // Restore saved category selection (English saved in Firestore)
+                // Restore saved category selection (catalogue ids, or English in older drafts)
                 if (draft.getCategory() != null && !draft.getCategory().isEmpty()) {
                     String saved = draft.getCategory().trim();
 
@@ -577,9 +639,15 @@ public class ProviderDashboardActivity extends AppCompatActivity
 
 
                 if (draft.getImageUrl() != null && !draft.getImageUrl().isEmpty()) {
-                    Glide.with(ProviderDashboardActivity.this).load(draft.getImageUrl()).into(binding.imagePreview);
+                    // Preview is small: the card rendition is enough when there is one
+                    String previewUrl = draft.getImageCardUrl() != null && !draft.getImageCardUrl().isEmpty()
+                            ? draft.getImageCardUrl() : draft.getImageUrl();
+                    Glide.with(ProviderDashboardActivity.this).load(previewUrl).into(binding.imagePreview);
                     binding.imagePreview.setVisibility(View.VISIBLE);
                     selectedImageUri = Uri.parse(draft.getImageUrl());
+                    draftImage = new StorageHelper.UploadedImage(
+                            draft.getImageThumbUrl(), draft.getImageCardUrl(), draft.getImageUrl(),
+                            draft.getImageBlurHash(), draft.getImageColor());
                 }
                 Toast.makeText(ProviderDashboardActivity.this,
                         getString(R.string.info_previous_service_loaded),
@@ -622,6 +690,7 @@ public class ProviderDashboardActivity extends AppCompatActivity
         binding.contactCall.setChecked(true);
 
         selectedImageUri = null;
+        draftImage = null;
         binding.imagePreview.setVisibility(View.GONE);
         binding.catalogueDropdown.setText("Select Catalogue & Services");
         editingServiceId = null;
@@ -4,6 +4,7 @@ import android.app.AlertDialog;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
@@ -18,20 +19,28 @@ import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import com.bumptech.glide.Glide;
 import com.google.android.material.textfield.TextInputEditText;
+import com.google.firebase.firestore.DocumentSnapshot;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 
 import edu.sjsu.android.servicesfinder.R;
 import edu.sjsu.android.servicesfinder.controller.CustomerController;
+import edu.sjsu.android.servicesfinder.controller.DetailPrefetcher;
 import edu.sjsu.android.servicesfinder.controller.FirestoreStringTranslator;
-import edu.sjsu.android.servicesfinder.controller.HomeController;
+import edu.sjsu.android.servicesfinder.controller.RatingScoreService;
 import edu.sjsu.android.servicesfinder.controller.ReviewAdapter;
+import edu.sjsu.android.servicesfinder.controller.ServiceCardImages;
 import edu.sjsu.android.servicesfinder.controller.SessionManager;
 import edu.sjsu.android.servicesfinder.database.CustomerDatabase;
 import edu.sjsu.android.servicesfinder.database.ReviewDatabase;
+import edu.sjsu.android.servicesfinder.database.ServiceRepository;
 import edu.sjsu.android.servicesfinder.databinding.ActivityServiceDetailBinding;
+import edu.sjsu.android.servicesfinder.model.CategorySelection;
 import edu.sjsu.android.servicesfinder.model.Customer;
+import edu.sjsu.android.servicesfinder.model.Provider;
+import edu.sjsu.android.servicesfinder.model.ProviderService;
 import edu.sjsu.android.servicesfinder.model.Review;
 import edu.sjsu.android.servicesfinder.util.ProToast;
 
@@ -40,6 +49,9 @@ import edu.sjsu.android.servicesfinder.util.ProToast;
 //******************************************************************************************
 public class ServiceDetailActivity extends AppCompatActivity {
 
+    public static final String EXTRA_PROVIDER_ID = "providerId";
+    public static final String EXTRA_SERVICE_ID = "serviceId";
+
     // Service info
     private String serviceTitle;
     private String serviceDescription;
@@ -49,6 +61,8 @@ public class ServiceDetailActivity extends AppCompatActivity {
     private String serviceAvailability;
     private String serviceContactPreference;
     private String serviceImageUrl;
+    private String serviceImageBlurHash;
+    private Integer serviceImageColor;
 
     // Provider info
     private String providerName;
@@ -61,7 +75,13 @@ public class ServiceDetailActivity extends AppCompatActivity {
     // REVIEW
     private ReviewDatabase reviewDatabase;
     private String providerId;
+    private String serviceId;
     private ReviewAdapter reviewAdapter;
+    private DocumentSnapshot lastReviewSnapshot;   // paging cursor (null = first page)
+    private boolean hasMoreReviews = true;
+    private boolean isLoadingReviews = false;
+    private int reviewGeneration = 0;   // bumped on every reload; older pages are dropped
+    private static final int REVIEW_PREFETCH_DISTANCE_DP = 300;
     // FAVORITES
     private boolean isFavorite = false;
 
@@ -88,38 +108,78 @@ public class ServiceDetailActivity extends AppCompatActivity {
         }
         // REVIEW
         reviewDatabase = new ReviewDatabase();
-        providerId = getIntent().getStringExtra("providerId");
-        Log.e("DEBUG_REVIEW", "ServiceDetailActivity opened with providerId = " + providerId);
-
-
+        providerId = getIntent().getStringExtra(EXTRA_PROVIDER_ID);
+        serviceId = getIntent().getStringExtra(EXTRA_SERVICE_ID);
 
-
-        getIntentExtras();  // Retrieves data passed from the main activity
-        displayServiceInfo();
+        // Render from the shared repository at once; refresh only when missing or stale
+        ServiceRepository.Entry cached = ServiceRepository.getInstance().get(providerId, serviceId);
+        if (cached != null) {
+            bindEntry(cached);
+        }
         setupActionButtons();
         setupFavoriteButton();
         setupReviewsSection();
+        if (cached == null || cached.isStale()) {
+            refreshService(cached != null);
+        }
+    }
+
+    // Opens the detail screen for a pair the caller already holds (only ids go in the Intent)
+    public static void open(Context context, Provider provider, ProviderService service) {
+        ServiceRepository.getInstance().putListCopy(provider, service);
+        Intent intent = new Intent(context, ServiceDetailActivity.class);
+        intent.putExtra(EXTRA_PROVIDER_ID, provider.getId());
+        intent.putExtra(EXTRA_SERVICE_ID, service.getId());
+        context.startActivity(intent);
+    }
+
+    // Reads the provider + service documents; keeps what is shown if that fails
+    private void refreshService(boolean hasCachedData) {
+        if (providerId == null || serviceId == null) {
+            finish();
+            return;
+        }
+        ServiceRepository.getInstance().load(providerId, serviceId, new ServiceRepository.OnServiceLoadedListener() {
+            @Override
+            public void onSuccess(ServiceRepository.Entry entry) {
+                if (binding == null) return;
+                bindEntry(entry);
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                if (binding == null || hasCachedData) return;
+                ProToast.error(ServiceDetailActivity.this, getString(R.string.error_not_found));
+                finish();
+            }
+        });
     }
 
-    // Retrieves service and provider data passed from previous activity
-    private void getIntentExtras() {
-        Intent intent = getIntent();
+    // Copies service and provider data from a repository entry and shows it
+    private void bindEntry(ServiceRepository.Entry entry) {
+        ProviderService service = entry.service;
+        Provider provider = entry.provider;
 
         // Service data
-        serviceTitle = intent.getStringExtra("serviceTitle");
-        serviceDescription = intent.getStringExtra("serviceDescription");
-        servicePricing = intent.getStringExtra("servicePricing");
-        serviceCategory = intent.getStringExtra("serviceCategory");
-        serviceArea = intent.getStringExtra("serviceArea");
-        serviceAvailability = intent.getStringExtra("serviceAvailability");
-        serviceContactPreference = intent.getStringExtra("serviceContactPreference");
-        serviceImageUrl = intent.getStringExtra("serviceImageUrl");
+        serviceTitle = service.getServiceTitle();
+        serviceDescription = service.getDescription();
+        servicePricing = service.getPricing();
+        serviceCategory = service.getCategory();
+        serviceArea = service.getServiceArea();
+        serviceAvailability = service.getAvailability();
+        serviceContactPreference = service.getContactPreference();
+        serviceImageUrl = service.getImageUrl();
+        serviceImageBlurHash = service.getImageBlurHash();
+        serviceImageColor = service.getImageColor();
 
         // Provider data
-        providerName = intent.getStringExtra("providerName");
-        providerPhone = intent.getStringExtra("providerPhone");
-        providerEmail = intent.getStringExtra("providerEmail");
-        providerAddress = intent.getStringExtra("providerAddress");
+        providerName = provider.getFullName();
+        providerPhone = provider.getPhone();
+        providerEmail = provider.getEmail();
+        providerAddress = provider.getAddress();
+
+        displayServiceInfo();
+        updateActionButtons();
     }
 
     // Displays all service and provider info in UI
@@ -155,8 +215,7 @@ public class ServiceDetailActivity extends AppCompatActivity {
         if (serviceCategory != null && !serviceCategory.isEmpty()) {
             String translatedCategory = FirestoreStringTranslator.get(this)
                     .translateCategory(serviceCategory);
-            HomeController controller = new HomeController(this);
-            String primaryCategory = controller.extractProviderCategoryWithServices(translatedCategory);
+            String primaryCategory = CategorySelection.parse(translatedCategory).withServicesText();
             binding.serviceDetailCategory.setText(getString(R.string.label_category_prefix, primaryCategory));
             binding.serviceDetailCategory.setVisibility(View.VISIBLE);
         } else {
@@ -166,6 +225,7 @@ public class ServiceDetailActivity extends AppCompatActivity {
         // Area
         if (serviceArea != null && !serviceArea.isEmpty()) {
             binding.serviceDetailArea.setText(getString(R.string.label_location_service_area, serviceArea));
+            binding.serviceDetailArea.setVisibility(View.VISIBLE);
         } else {
             binding.serviceDetailArea.setVisibility(View.GONE);
         }
@@ -239,16 +299,17 @@ public class ServiceDetailActivity extends AppCompatActivity {
         }
         binding.providerDetailContact.setText(contactInfo.toString());
 
-        // Service image
+        // Service image (blurred placeholder from the service data until it loads)
+        Drawable placeholder = ServiceCardImages.placeholder(this, serviceImageBlurHash, serviceImageColor);
         if (serviceImageUrl != null && !serviceImageUrl.isEmpty()) {
             Glide.with(this)
                     .load(serviceImageUrl)
-                    .placeholder(R.drawable.ic_service_placeholder)
+                    .placeholder(placeholder)
                     .error(R.drawable.ic_service_placeholder)
                     .centerCrop()
                     .into(binding.serviceDetailImage);
         } else {
-            binding.serviceDetailImage.setImageResource(R.drawable.ic_service_placeholder);
+            binding.serviceDetailImage.setImageDrawable(placeholder);
         }
     }
 
@@ -306,7 +367,11 @@ public class ServiceDetailActivity extends AppCompatActivity {
             }
         });
 
-        // Hide or disable buttons when missing data
+        updateActionButtons();
+    }
+
+    // Hide or disable buttons when missing data
+    private void updateActionButtons() {
         if (providerPhone == null || providerPhone.isEmpty()) {
             binding.callButton.setVisibility(View.GONE);
         } else {
@@ -364,16 +429,27 @@ public class ServiceDetailActivity extends AppCompatActivity {
         String customerId = SessionManager.getCustomerId(this);
         if (customerId == null || providerId == null) return;
 
+        // Known from an earlier read this session: show it, re-read in the background if stale
+        Boolean cached = ServiceRepository.getInstance().isFavorite(customerId, providerId);
+        if (cached != null) {
+            isFavorite = cached;
+            updateFavoriteButton();
+            if (!ServiceRepository.getInstance().favoritesStale(customerId)) return;
+        }
+
         CustomerDatabase customerDatabase = new CustomerDatabase(this);
         customerDatabase.getCustomerById(customerId, new CustomerDatabase.OnCustomerLoadedListener() {
             @Override
             public void onSuccess(Customer customer) {
+                ServiceRepository.getInstance().setFavorites(customerId, customer.getFavoriteProviders());
+                if (binding == null) return;
                 isFavorite = customer.isFavorite(providerId);
                 updateFavoriteButton();
             }
 
             @Override
             public void onError(String errorMessage) {
+                if (binding == null || cached != null) return;   // keep the cached state
                 // Failed to load, assume not favorite
                 isFavorite = false;
                 updateFavoriteButton();
@@ -397,6 +473,7 @@ public class ServiceDetailActivity extends AppCompatActivity {
             public void onSuccess(String message) {
                 Log.d("FAVORITE_DEBUG", "Toggle success: " + message);
                 isFavorite = !isFavorite;
+                ServiceRepository.getInstance().updateFavorite(customerId, providerId, isFavorite);
                 updateFavoriteButton();
                 ProToast.success(ServiceDetailActivity.this, message);
             }
@@ -535,6 +612,7 @@ public class ServiceDetailActivity extends AppCompatActivity {
 
         Review review = new Review();
         review.setProviderId(providerId);
+        review.setServiceId(serviceId);
         review.setCustomerId(customerId);
         review.setCustomerName(customerName);
         review.setRating(rating);
@@ -545,6 +623,7 @@ public class ServiceDetailActivity extends AppCompatActivity {
         reviewDatabase.saveReview(review, new ReviewDatabase.OnReviewSaveListener() {
             @Override
             public void onSuccess(String reviewId) {
+                RatingScoreService.getInstance().onReviewAdded(providerId, rating);
                 ProToast.success(ServiceDetailActivity.this, getString(R.string.success_review_submitted));
                 loadProviderReviews(); // Reload to show new review
             }
@@ -556,23 +635,94 @@ public class ServiceDetailActivity extends AppCompatActivity {
         });
     }
 
+    // Loads the first page of reviews (resets the paging cursor)
     private void loadProviderReviews() {
         if (providerId == null) {
             return;
         }
 
-        reviewDatabase.getReviewsForProvider(providerId, new ReviewDatabase.OnReviewsLoadedListener() {
+        // A page still loading for the previous list must not land in the new one
+        int generation = ++reviewGeneration;
+        lastReviewSnapshot = null;
+        hasMoreReviews = true;
+
+        // Prefetched from the list (or still loading after touch-down): no second round trip
+        isLoadingReviews = true;
+        if (DetailPrefetcher.getInstance().take(providerId, serviceId, data -> {
+            if (generation == reviewGeneration) applyPrefetched(data);
+        })) {
+            return;
+        }
+        isLoadingReviews = false;
+
+        loadNextReviewPage();
+        updateAverageRating(providerId);  //  Pass providerId
+    }
+
+    // First review page and rating from DetailPrefetcher; a part that failed is queried again
+    private void applyPrefetched(DetailPrefetcher.DetailData data) {
+        isLoadingReviews = false;
+        if (binding == null) return;
+
+        if (data.reviewsLoaded) {
+            lastReviewSnapshot = data.lastVisible;
+            hasMoreReviews = data.hasMore;
+            displayReviews(data.reviews);
+        } else {
+            loadNextReviewPage();
+        }
+
+        if (data.ratingLoaded) {
+            showRating(data.averageRating, data.totalReviews);
+        } else {
+            updateAverageRating(providerId);
+        }
+    }
+
+    // Loads the page after lastReviewSnapshot, ignoring calls while a page of the same
+    // generation is in flight (a reload starts a new generation and may overlap an old page)
+    private void loadNextReviewPage() {
+        if (providerId == null || isLoadingReviews || !hasMoreReviews) {
+            return;
+        }
+
+        isLoadingReviews = true;
+        boolean firstPage = lastReviewSnapshot == null;
+        int generation = reviewGeneration;
+
+        ReviewDatabase.OnReviewsPageLoadedListener pageListener = new ReviewDatabase.OnReviewsPageLoadedListener() {
             @Override
-            public void onReviewsLoaded(List<Review> reviews) {
-                displayReviews(reviews);
-                updateAverageRating(providerId);  //  Pass providerId
+            public void onPageLoaded(List<Review> reviews, DocumentSnapshot lastVisible, boolean hasMore) {
+                if (generation != reviewGeneration) return;   // list was reloaded meanwhile
+                isLoadingReviews = false;
+                if (binding == null) return;
+
+                lastReviewSnapshot = lastVisible;
+                hasMoreReviews = hasMore;
+
+                if (firstPage) {
+                    displayReviews(reviews);
+                } else {
+                    reviewAdapter.addReviews(reviews);
+                }
             }
 
             @Override
             public void onError(String error) {
+                if (generation != reviewGeneration) return;
+                isLoadingReviews = false;
                 Log.e("ServiceDetail", "Error loading reviews: " + error);
             }
-        });
+        };
+
+        // A service's page also carries the provider-wide (untagged) reviews
+        if (serviceId != null) {
+            reviewDatabase.getReviewsPageForService(providerId, serviceId, lastReviewSnapshot,
+                    ReviewDatabase.REVIEW_PAGE_SIZE, pageListener);
+        } else {
+            reviewDatabase.getReviewsPageForProvider(providerId, lastReviewSnapshot,
+                    ReviewDatabase.REVIEW_PAGE_SIZE, pageListener);
+        }
     }
 
     private void displayReviews(List<Review> reviews) {
@@ -582,7 +732,7 @@ public class ServiceDetailActivity extends AppCompatActivity {
         } else {
             binding.reviewsRecyclerView.setVisibility(View.VISIBLE);
             binding.noReviewsText.setVisibility(View.GONE);
-            reviewAdapter.setReviews(reviews);
+            reviewAdapter.setReviews(new ArrayList<>(reviews));
         }
     }
 
@@ -592,6 +742,19 @@ public class ServiceDetailActivity extends AppCompatActivity {
         reviewAdapter = new ReviewAdapter(this);
         binding.reviewsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         binding.reviewsRecyclerView.setAdapter(reviewAdapter);
+
+        // The reviews list sits inside the page ScrollView (nested scrolling disabled),
+        // so watch the outer scroll and fetch the next page when the list's end is near
+        binding.getRoot().setOnScrollChangeListener((v, scrollX, scrollY, oldScrollX, oldScrollY) -> {
+            if (binding == null || binding.reviewsRecyclerView.getVisibility() != View.VISIBLE) return;
+            int visibleBottom = scrollY + v.getHeight();
+            int listBottom = binding.reviewsRecyclerView.getBottom();
+            int threshold = (int) (REVIEW_PREFETCH_DISTANCE_DP * getResources().getDisplayMetrics().density);
+            if (listBottom - visibleBottom <= threshold) {
+                loadNextReviewPage();
+            }
+        });
+
         // Setup Add Review button
         binding.addReviewButton.setOnClickListener(v -> showAddReviewDialog());
 
@@ -599,27 +762,56 @@ public class ServiceDetailActivity extends AppCompatActivity {
         loadProviderReviews();
     }
 
+    // Rating over the same reviews as the list: the service's own plus provider-wide ones
+    // (the provider's rating when the screen is for a provider, not a service)
     private void updateAverageRating(String providerId) {
+        if (serviceId == null) {
+            updateProviderAverageRating(providerId);
+            return;
+        }
+
+        reviewDatabase.getServiceRatingStats(providerId, serviceId, new ReviewDatabase.OnServiceRatingLoadedListener() {
+            @Override
+            public void onRatingLoaded(ReviewDatabase.RatingStats stats) {
+                if (binding == null) return;
+                showRating((float) stats.getAverage(), (int) stats.getCount());
+            }
+
+            @Override
+            public void onError(String error) {
+                if (binding == null) return;
+                binding.ratingSection.setVisibility(View.GONE);
+            }
+        });
+    }
+
+    private void updateProviderAverageRating(String providerId) {
         reviewDatabase.getAverageRating(providerId, new ReviewDatabase.OnRatingCalculatedListener() {
             @Override
             public void onRatingCalculated(float averageRating, int totalReviews) {
-                if (totalReviews == 0) {
-                    binding.ratingSection.setVisibility(View.GONE);
-                } else {
-                    binding.ratingSection.setVisibility(View.VISIBLE);
-                    binding.averageRatingText.setText(String.format(Locale.getDefault(),
-                            "⭐ %.1f", averageRating));
-                    binding.reviewCountText.setText(String.format(Locale.getDefault(),
-                            "(%d %s)", totalReviews,
-                            totalReviews == 1 ? "review" : "reviews"));
-                }
+                if (binding == null) return;
+                showRating(averageRating, totalReviews);
             }
 
             @Override
             public void onError(String error) {
+                if (binding == null) return;
                 binding.ratingSection.setVisibility(View.GONE);
             }
         });
     }
 
+    private void showRating(float averageRating, int totalReviews) {
+        if (totalReviews == 0) {
+            binding.ratingSection.setVisibility(View.GONE);
+        } else {
+            binding.ratingSection.setVisibility(View.VISIBLE);
+            binding.averageRatingText.setText(String.format(Locale.getDefault(),
+                    "⭐ %.1f", averageRating));
+            binding.reviewCountText.setText(String.format(Locale.getDefault(),
+                    "(%d %s)", totalReviews,
+                    totalReviews == 1 ? "review" : "reviews"));
+        }
+    }
+
 }
\ No newline at end of file
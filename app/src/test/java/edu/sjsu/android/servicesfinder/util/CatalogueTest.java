@@ -0,0 +1,72 @@
+package edu.sjsu.android.servicesfinder.util;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test for the generated catalogue tables - no Android Resources needed.
+ */
+public class CatalogueTest {
+
+    @Test
+    public void everyDisplayName_findsItsOwnId_inEveryLocale() {
+        for (int locale = 0; locale < CatalogueStrings.LOCALES.length; locale++) {
+            for (int id = 0; id < Catalogue.size(); id++) {
+                int kind = Catalogue.isCategory(id) ? Catalogue.KIND_CATEGORY : Catalogue.KIND_SERVICE;
+                String name = Catalogue.displayName(id, locale);
+
+                int found = Catalogue.find(locale, kind, name);
+                assertTrue(CatalogueStrings.LOCALES[locale] + " " + Catalogue.key(id), found >= 0);
+                // Duplicate display names resolve to the first id with that name
+                assertEquals(name.trim().toLowerCase(Locale.ROOT),
+                        Catalogue.displayName(found, locale).trim().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    @Test
+    public void find_isCaseInsensitiveAndTrims() {
+        int id = Catalogue.find(Catalogue.ENGLISH, Catalogue.KIND_CATEGORY, "  hair CARE ");
+        assertEquals("cat_hair_care", Catalogue.key(id));
+    }
+
+    @Test
+    public void find_unknownName_returnsMinusOne() {
+        assertEquals(-1, Catalogue.find(Catalogue.ENGLISH, Catalogue.KIND_CATEGORY, "Not a category"));
+        assertEquals(-1, Catalogue.find(Catalogue.ENGLISH, Catalogue.KIND_SERVICE, "Hair Care"));
+        assertEquals(-1, Catalogue.find(Catalogue.ENGLISH, Catalogue.KIND_CATEGORY, null));
+    }
+
+    @Test
+    public void englishToLocalAndBack_roundTrips() {
+        int vi = Catalogue.localeIndex(new Locale("vi"));
+        int id = Catalogue.find(Catalogue.ENGLISH, Catalogue.KIND_SERVICE, "Computer repair");
+        String localized = Catalogue.displayName(id, vi);
+
+        assertEquals(id, Catalogue.find(vi, Catalogue.KIND_SERVICE, localized));
+        assertEquals("Computer repair", Catalogue.displayName(id, Catalogue.ENGLISH));
+    }
+
+    @Test
+    public void localeIndex_fallsBackToLanguageThenEnglish() {
+        assertEquals("es-US", CatalogueStrings.LOCALES[Catalogue.localeIndex(new Locale("es"))]);
+        assertEquals("es-US", CatalogueStrings.LOCALES[Catalogue.localeIndex(new Locale("es", "US"))]);
+        assertEquals("zh", CatalogueStrings.LOCALES[Catalogue.localeIndex(Locale.SIMPLIFIED_CHINESE)]);
+        assertEquals(Catalogue.ENGLISH, Catalogue.localeIndex(Locale.FRENCH));
+    }
+
+    @Test
+    public void stableIds_acceptIdsAndLegacyEnglishNames() {
+        assertEquals("cat.hair_care", Catalogue.categoryId("Hair Care"));
+        assertEquals("cat.hair_care", Catalogue.categoryId("cat.hair_care"));
+        assertEquals("svc.computer_repair", Catalogue.serviceId("Computer repair"));
+        assertEquals("Custom name", Catalogue.serviceId("Custom name"));
+
+        // A category id never resolves as a service and vice versa
+        assertEquals(-1, Catalogue.resolve(Catalogue.KIND_SERVICE, "cat.hair_care"));
+        assertTrue(Catalogue.categoryIds().contains(Catalogue.ALL_CATEGORY_ID));
+    }
+}
@@ -0,0 +1,40 @@
+// One-off: mark reviews saved before reviews were tagged with a service as provider-wide.
+//
+// The detail screen pages a service's reviews with
+//   providerId == p && serviceId in [serviceId, ""] && status == "Active"
+// so reviews with no serviceId field (or null) would never show. Those are set to ""
+// (ReviewDatabase.PROVIDER_WIDE) and then appear under every service of their provider,
+// as they did before tagging. Idempotent.
+//
+//   GOOGLE_APPLICATION_CREDENTIALS=service-account.json node backfill-review-service-ids.js [--dry-run]
+
+const admin = require('firebase-admin');
+
+const PROVIDER_WIDE = '';
+
+const dryRun = process.argv.includes('--dry-run');
+
+admin.initializeApp();
+const db = admin.firestore();
+
+async function main() {
+  const reviews = await db.collection('reviews').get();
+  const writer = db.bulkWriter();
+  let updated = 0;
+
+  for (const doc of reviews.docs) {
+    const serviceId = doc.get('serviceId');
+    if (typeof serviceId === 'string') continue;
+
+    updated++;
+    if (!dryRun) writer.update(doc.ref, { serviceId: PROVIDER_WIDE });
+  }
+
+  await writer.close();
+  console.log(`${dryRun ? 'Would update' : 'Updated'} ${updated} of ${reviews.size} reviews`);
+}
+
+main().catch((e) => {
+  console.error(e);
+  process.exit(1);
+});
@@ -0,0 +1,39 @@
+// One-off: add the "categories" array to services saved before it existed.
+//
+// The category chip counts (ProviderServiceDatabase.countActiveServices) query
+// collectionGroup("services").whereArrayContains("categories", id), so a service
+// without the array is never counted. New saves write it from the app; this fills
+// it in for the rest. Idempotent: services whose array is already right are skipped.
+//
+//   GOOGLE_APPLICATION_CREDENTIALS=service-account.json node backfill-service-categories.js [--dry-run]
+
+const admin = require('firebase-admin');
+const { categoriesWithServices } = require('./catalogue');
+
+const dryRun = process.argv.includes('--dry-run');
+
+admin.initializeApp();
+const db = admin.firestore();
+
+async function main() {
+  const services = await db.collectionGroup('services').get();
+  const writer = db.bulkWriter();
+  let updated = 0;
+
+  for (const doc of services.docs) {
+    const expected = categoriesWithServices(doc.get('category'));
+    const current = doc.get('categories');
+    if (Array.isArray(current) && current.join('|') === expected.join('|')) continue;
+
+    updated++;
+    if (!dryRun) writer.update(doc.ref, { categories: expected });
+  }
+
+  await writer.close();
+  console.log(`${dryRun ? 'Would update' : 'Updated'} ${updated} of ${services.size} services`);
+}
+
+main().catch((e) => {
+  console.error(e);
+  process.exit(1);
+});
@@ -0,0 +1,79 @@
+// Catalogue ids for admin scripts, read from the same strings_catalogue.xml the app
+// generates CatalogueStrings from (see GenerateCatalogueStringsTask in app/build.gradle.kts).
+//
+//   <string name="cat_hair_care">Hair Care</string>  ->  "cat.hair_care" <-> "Hair Care"
+//
+// categoryId()/serviceId() mirror util/Catalogue: a stable id or a legacy English name
+// (case-insensitive) maps to its id, anything unknown is returned unchanged.
+
+const fs = require('fs');
+const path = require('path');
+
+const XML = path.join(__dirname, '..', 'app', 'src', 'main', 'res', 'values', 'strings_catalogue.xml');
+
+const ids = new Set();
+const byName = { cat: new Map(), svc: new Map() };
+
+const xml = fs.readFileSync(XML, 'utf8');
+for (const match of xml.matchAll(/<string name="(cat|svc)_([^"]+)">([^<]*)<\/string>/g)) {
+  const [, kind, key, value] = match;
+  const id = `${kind}.${key}`;
+  const name = value.replace(/&amp;/g, '&').replace(/\\'/g, "'").trim().toLowerCase();
+  ids.add(id);
+  byName[kind].set(name, id);
+}
+
+function resolve(kind, token) {
+  if (token == null) return token;
+  const trimmed = token.trim();
+  if (ids.has(trimmed)) return trimmed.startsWith(`${kind}.`) ? trimmed : token;
+  return byName[kind].get(trimmed.toLowerCase()) || token;
+}
+
+const categoryId = (token) => resolve('cat', token);
+const serviceId = (token) => resolve('svc', token);
+
+// "Hair Care: Haircut, Coloring | Plumbing" -> [{ category, services: [...] }, ...]
+// Same grammar as model/CategorySelection.
+function parseSelection(raw) {
+  if (!raw || !raw.trim()) return [];
+  return raw.split('|')
+    .map((part) => part.trim())
+    .filter((part) => part.length > 0)
+    .map((part) => {
+      const colon = part.indexOf(':');
+      if (colon < 0) return { category: part, services: [] };
+      return {
+        category: part.substring(0, colon).trim(),
+        services: part.substring(colon + 1).split(',').map((s) => s.trim()).filter((s) => s.length > 0),
+      };
+    });
+}
+
+// Category ids that have at least one selected service, without duplicates
+// (same as ProviderServiceController.categoriesWithServices)
+function categoriesWithServices(raw) {
+  const result = [];
+  for (const entry of parseSelection(raw)) {
+    if (entry.services.length === 0) continue;
+    const id = categoryId(entry.category);
+    if (!result.includes(id)) result.push(id);
+  }
+  return result;
+}
+
+// Same grammar with every known name replaced by its id; null for empty input
+// "Hair Care: Haircut | Plumbing" -> "cat.hair_care: svc.haircut | cat.plumbing"
+function toIdString(raw) {
+  const entries = parseSelection(raw);
+  if (entries.length === 0) return null;
+  return entries
+    .map((entry) => {
+      const category = categoryId(entry.category);
+      if (entry.services.length === 0) return category;
+      return `${category}: ${entry.services.map(serviceId).join(', ')}`;
+    })
+    .join(' | ');
+}
+
+module.exports = { categoryId, serviceId, parseSelection, categoriesWithServices, toIdString };
@@ -0,0 +1,102 @@
+// One-off: rewrite English catalogue display names to stable catalogue ids.
+//
+//   services     category:   "Hair Care: Haircut | Plumbing" -> "cat.hair_care: svc.haircut | cat.plumbing"
+//                categories: ["Hair Care"]                     -> ["cat.hair_care"]
+//   catalogues   + categoryId / serviceIds (title / services are kept for older app versions)
+//   leaderboards leaderboards/{English name} -> leaderboards/{category id}
+//
+// The app only reads: util/Catalogue maps legacy English names to ids, so older documents
+// keep working before and after this runs. Older app versions only understand English
+// names, so run it once those are no longer in use, with service account credentials;
+// every step skips documents that are already migrated, so an interrupted run is simply
+// repeated. meta/migrations.catalogueIds is set once all steps have succeeded.
+//
+//   GOOGLE_APPLICATION_CREDENTIALS=service-account.json node migrate-catalogue-ids.js [--dry-run]
+
+const admin = require('firebase-admin');
+const { categoryId, serviceId, categoriesWithServices, toIdString } = require('./catalogue');
+
+const dryRun = process.argv.includes('--dry-run');
+
+admin.initializeApp();
+const db = admin.firestore();
+
+async function migrateServices(writer) {
+  let count = 0;
+  for (const doc of (await db.collectionGroup('services').get()).docs) {
+    const category = doc.get('category');
+    const migrated = toIdString(category);
+    if (migrated == null || migrated === category) continue;
+
+    count++;
+    if (!dryRun) {
+      writer.update(doc.ref, { category: migrated, categories: categoriesWithServices(migrated) });
+    }
+  }
+  return count;
+}
+
+async function migrateCatalogues(writer) {
+  let count = 0;
+  for (const doc of (await db.collection('catalogues').get()).docs) {
+    if (doc.get('categoryId') != null) continue;
+
+    const title = doc.get('title') || doc.id;
+    const services = doc.get('services') || [];
+
+    count++;
+    if (!dryRun) {
+      writer.update(doc.ref, { categoryId: categoryId(title), serviceIds: services.map(serviceId) });
+    }
+  }
+  return count;
+}
+
+// New key first, then drop the old one, in one atomic batch.
+// An id document written by the app since is fresher: keep it.
+async function migrateLeaderboards() {
+  let count = 0;
+  for (const doc of (await db.collection('leaderboards').get()).docs) {
+    const id = categoryId(doc.id);
+    if (id === doc.id) continue;   // already an id (or unknown)
+
+    const data = doc.data();
+    data.category = id;
+    for (const entry of data.entries || []) {
+      const migrated = toIdString(entry.category);
+      if (migrated != null) entry.category = migrated;
+    }
+
+    count++;
+    if (dryRun) continue;
+    await db.runTransaction(async (transaction) => {
+      const target = db.collection('leaderboards').doc(id);
+      if (!(await transaction.get(target)).exists) transaction.set(target, data);
+      transaction.delete(doc.ref);
+    });
+  }
+  return count;
+}
+
+async function main() {
+  const marker = db.collection('meta').doc('migrations');
+  if ((await marker.get()).get('catalogueIds') === true) {
+    console.log('Already migrated');
+    return;
+  }
+
+  const writer = db.bulkWriter();
+  const services = await migrateServices(writer);
+  const catalogues = await migrateCatalogues(writer);
+  await writer.close();
+  const leaderboards = await migrateLeaderboards();
+
+  console.log(`${dryRun ? 'Would migrate' : 'Migrated'} ${services} services, `
+      + `${catalogues} catalogues, ${leaderboards} leaderboards`);
+  if (!dryRun) await marker.set({ catalogueIds: true }, { merge: true });
+}
+
+main().catch((e) => {
+  console.error(e);
+  process.exit(1);
+});
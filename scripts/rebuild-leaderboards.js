@@ -0,0 +1,90 @@
+// One-off: build leaderboards/{categoryId} from every Active service.
+//
+// The app keeps these documents up to date incrementally (LeaderboardDatabase), but only
+// for services saved or reviewed since leaderboards exist. Category chips render from the
+// leaderboard alone, so run this once (after backfill-service-categories.js) to include
+// older services. Entries and scores match LeaderboardDatabase.buildEntry and
+// RatingScoreService.bayesianScore. Overwrites the documents: run it while traffic is low.
+//
+//   GOOGLE_APPLICATION_CREDENTIALS=service-account.json node rebuild-leaderboards.js [--dry-run]
+
+const admin = require('firebase-admin');
+const { categoriesWithServices } = require('./catalogue');
+
+const TOP_K = 50;
+const PRIOR_MEAN = 3.5;
+const PRIOR_WEIGHT = 5.0;
+
+const dryRun = process.argv.includes('--dry-run');
+
+admin.initializeApp();
+const db = admin.firestore();
+
+function bayesianScore(ratingCount, ratingSum) {
+  return (PRIOR_WEIGHT * PRIOR_MEAN + ratingSum) / (PRIOR_WEIGHT + ratingCount);
+}
+
+function buildEntry(provider, service) {
+  return {
+    providerId: provider.id,
+    providerName: provider.get('fullName') ?? null,
+    providerEmail: provider.get('email') ?? null,
+    providerPhone: provider.get('phone') ?? null,
+    providerAddress: provider.get('address') ?? null,
+    serviceId: service.id,
+    serviceTitle: service.get('serviceTitle') ?? null,
+    description: service.get('description') ?? null,
+    pricing: service.get('pricing') ?? null,
+    category: service.get('category') ?? null,
+    serviceArea: service.get('serviceArea') ?? null,
+    availability: service.get('availability') ?? null,
+    contactPreference: service.get('contactPreference') ?? null,
+    imageUrl: service.get('imageUrl') ?? null,
+    imageThumbUrl: service.get('imageThumbUrl') ?? null,
+    imageCardUrl: service.get('imageCardUrl') ?? null,
+    imageBlurHash: service.get('imageBlurHash') ?? null,
+    imageColor: service.get('imageColor') ?? null,
+    timestamp: service.get('timestamp') ?? 0,
+    score: bayesianScore(provider.get('ratingCount') ?? 0, provider.get('ratingSum') ?? 0),
+  };
+}
+
+async function main() {
+  const providers = new Map();
+  for (const doc of (await db.collection('providers').get()).docs) providers.set(doc.id, doc);
+
+  const boards = new Map();
+  const services = await db.collectionGroup('services').where('status', '==', 'Active').get();
+  for (const service of services.docs) {
+    const provider = providers.get(service.ref.parent.parent.id);
+    if (!provider) continue;
+
+    const entry = buildEntry(provider, service);
+    for (const categoryId of categoriesWithServices(service.get('category'))) {
+      if (!boards.has(categoryId)) boards.set(categoryId, []);
+      boards.get(categoryId).push(entry);
+    }
+  }
+
+  const writer = db.bulkWriter();
+  for (const [categoryId, entries] of boards) {
+    entries.sort((a, b) => (b.score - a.score) || (b.timestamp - a.timestamp));
+    const top = entries.slice(0, TOP_K);
+    console.log(`${categoryId}: ${top.length} of ${entries.length} services`);
+    if (!dryRun) {
+      writer.set(db.collection('leaderboards').doc(categoryId), {
+        category: categoryId,
+        updatedAt: Date.now(),
+        entries: top,
+      });
+    }
+  }
+
+  await writer.close();
+  console.log(`${dryRun ? 'Would write' : 'Wrote'} ${boards.size} leaderboards`);
+}
+
+main().catch((e) => {
+  console.error(e);
+  process.exit(1);
+});